@@ -2,8 +2,100 @@ package com.alibaba.webx.restful;
 
 public interface Constants {
 
-    public static final String PROVIDER_PACKAGES = "webx.restful.provider.packages";
+    public static final String PROVIDER_PACKAGES     = "webx.restful.provider.packages";
 
-    public static final String COMMON_DELIMITERS = " ,;\n";
+    public static final String COMMON_DELIMITERS     = " ,;\n";
+
+    /**
+     * Maximum number of route matches cached by (HTTP method, path), the cache is disabled when not set or 0.
+     */
+    public static final String MATCH_CACHE_SIZE      = "webx.restful.match.cache.size";
+
+    /**
+     * How the {@link com.alibaba.webx.restful.annotation.ApiVersion API version} of a request is found: {@code path}
+     * for the first segment of the request path, or {@code header} for the header named by {@link #VERSION_HEADER}.
+     * Versions are not discriminated when not set.
+     */
+    public static final String VERSION_DISCRIMINATOR = "webx.restful.version.discriminator";
+
+    /**
+     * Name of the request header giving the API version, {@code Api-Version} when not set.
+     */
+    public static final String VERSION_HEADER        = "webx.restful.version.header";
+
+    /**
+     * {@code true} to run requests on a bounded executor through Servlet 3 {@code startAsync}, releasing the container
+     * thread while the resource method runs or waits. The filter must be declared async supported in {@code web.xml}.
+     * Requests are processed on the container thread when not set, or when the container does not support it.
+     */
+    public static final String ASYNC_ENABLED         = "webx.restful.async.enabled";
+
+    /**
+     * Number of threads of the async executor, 32 when not set.
+     */
+    public static final String ASYNC_THREADS         = "webx.restful.async.threads";
+
+    /**
+     * Number of async requests waiting for a thread of the executor, 256 when not set. Requests beyond are rejected
+     * with status 503.
+     */
+    public static final String ASYNC_QUEUE_SIZE      = "webx.restful.async.queue.size";
+
+    /**
+     * Timeout of an async request in milliseconds, the container default when not set or 0.
+     */
+    public static final String ASYNC_TIMEOUT         = "webx.restful.async.timeout";
+
+    /**
+     * Maximum number of responses cached for the {@link com.alibaba.webx.restful.annotation.CacheResponse} methods,
+     * 1024 when not set.
+     */
+    public static final String RESPONSE_CACHE_SIZE   = "webx.restful.response.cache.size";
+
+    /**
+     * Maximum time in milliseconds a {@link com.alibaba.webx.restful.annotation.SingleFlight} request waits for the
+     * response of the first request with the same key, 30 seconds when not set.
+     */
+    public static final String SINGLE_FLIGHT_TIMEOUT = "webx.restful.single.flight.timeout";
+
+    /**
+     * Path of the batch endpoint under the servlet path, such as {@code /batch}, the endpoint is disabled when not set.
+     * See {@link com.alibaba.webx.restful.process.BatchProcessor}.
+     */
+    public static final String BATCH_PATH            = "webx.restful.batch.path";
+
+    /**
+     * Maximum number of sub-requests of a batch, 20 when not set.
+     */
+    public static final String BATCH_MAX_SIZE        = "webx.restful.batch.max.size";
+
+    /**
+     * Maximum size in bytes of the body of a batch, 1 MB when not set. A larger batch is rejected with status 413.
+     */
+    public static final String BATCH_MAX_BODY_SIZE   = "webx.restful.batch.max.body.size";
+
+    /**
+     * Number of threads executing the sub-requests of parallel batches, 8 when not set, 0 to always execute them in
+     * order.
+     */
+    public static final String BATCH_THREADS         = "webx.restful.batch.threads";
+
+    /**
+     * Charset the raw query string is decoded with for the query and default parameters, as the {@code URIEncoding}
+     * of the container, UTF-8 when not set.
+     */
+    public static final String QUERY_ENCODING        = "webx.restful.query.encoding";
+
+    /**
+     * {@code true} to decode the query string with the character encoding of the request when it has one, as the
+     * {@code useBodyEncodingForURI} of the container, {@link #QUERY_ENCODING} is used when not set.
+     */
+    public static final String QUERY_BODY_ENCODING   = "webx.restful.query.body.encoding";
+
+    /**
+     * Maximum size in bytes of an {@code application/x-www-form-urlencoded} body read for the form parameters, 2 MB
+     * when not set.
+     */
+    public static final String FORM_MAX_SIZE         = "webx.restful.form.max.size";
 
 }
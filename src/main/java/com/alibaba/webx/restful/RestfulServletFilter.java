@@ -6,6 +6,13 @@ import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.servlet.Filter;
 import javax.servlet.FilterChain;
@@ -17,6 +24,8 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.ws.rs.core.UriInfo;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.springframework.context.ApplicationContext;
 
 import com.alibaba.webx.restful.model.ApplicationImpl;
@@ -26,7 +35,11 @@ import com.alibaba.webx.restful.model.finder.ResourceFinder;
 import com.alibaba.webx.restful.model.finder.WebAppResourcesScanner;
 import com.alibaba.webx.restful.model.param.ParameterProviderImpl;
 import com.alibaba.webx.restful.process.ApplicationHandler;
+import com.alibaba.webx.restful.process.BatchProcessor;
 import com.alibaba.webx.restful.process.RestfulComponent;
+import com.alibaba.webx.restful.process.RestfulRequestContext;
+import com.alibaba.webx.restful.process.ServletAsyncSupport;
+import com.alibaba.webx.restful.process.ServletAsyncSupport.AsyncHandle;
 import com.alibaba.webx.restful.process.impl.UriInfoImpl;
 import com.alibaba.webx.restful.spi.ParameterProvider;
 import com.alibaba.webx.restful.util.ApplicationContextUtils;
@@ -34,7 +47,23 @@ import com.alibaba.webx.restful.util.ResourceUtils;
 
 public class RestfulServletFilter implements Filter {
 
-    private RestfulComponent component = null;
+    private final static Log   LOG          = LogFactory.getLog(RestfulServletFilter.class);
+
+    private RestfulComponent   component    = null;
+
+    /**
+     * The executor of the async requests, or {@code null} if async mode is disabled.
+     */
+    private ThreadPoolExecutor executor     = null;
+
+    private long               asyncTimeout = 0;
+
+    /**
+     * The processor of the batch endpoint, or {@code null} if the endpoint is disabled.
+     */
+    private BatchProcessor     batchProcessor;
+
+    private String             batchPath;
 
     @Override
     public void init(FilterConfig filterConfig) throws ServletException {
@@ -43,11 +72,57 @@ public class RestfulServletFilter implements Filter {
         ApplicationImpl applicationConfig = createResourceConfig(filterConfig, applicationContxt);
 
         component = new RestfulComponent(applicationConfig, applicationContxt);
+
+        if ("true".equals(applicationConfig.getProperty(Constants.ASYNC_ENABLED))) {
+            if (ServletAsyncSupport.isAvailable()) {
+                executor = createAsyncExecutor(applicationConfig);
+                asyncTimeout = applicationConfig.getIntProperty(Constants.ASYNC_TIMEOUT, 0);
+            } else {
+                LOG.warn("async mode requires Servlet 3, requests are processed on the container threads");
+            }
+        }
+
+        Object batchPath = applicationConfig.getProperty(Constants.BATCH_PATH);
+        if (batchPath != null) {
+            this.batchPath = batchPath.toString();
+            this.batchProcessor = new BatchProcessor(component.getHandler(),
+                                                     applicationConfig.getIntProperty(Constants.BATCH_MAX_SIZE, 20),
+                                                     applicationConfig.getIntProperty(Constants.BATCH_MAX_BODY_SIZE,
+                                                                                      1024 * 1024),
+                                                     applicationConfig.getIntProperty(Constants.BATCH_THREADS, 8));
+        }
+    }
+
+    private ThreadPoolExecutor createAsyncExecutor(ApplicationImpl applicationConfig) {
+        int threads = applicationConfig.getIntProperty(Constants.ASYNC_THREADS, 32);
+        int queueSize = applicationConfig.getIntProperty(Constants.ASYNC_QUEUE_SIZE, 256);
+
+        ThreadFactory threadFactory = new ThreadFactory() {
+
+            private final AtomicInteger count = new AtomicInteger();
+
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "webx-restful-async-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+
+        BlockingQueue<Runnable> queue = new ArrayBlockingQueue<Runnable>(queueSize);
+        return new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, queue, threadFactory);
     }
 
     @Override
     public void destroy() {
-
+        if (executor != null) {
+            executor.shutdown();
+        }
+        if (batchProcessor != null) {
+            batchProcessor.close();
+        }
+        if (component != null) {
+            component.close();
+        }
     }
 
     public RestfulComponent getComponent() {
@@ -58,6 +133,7 @@ public class RestfulServletFilter implements Filter {
                                                                                                                  throws ServletException {
 
         final ApplicationImpl applicationConfig = new ApplicationImpl();
+        applicationConfig.getProperties().putAll(getInitParams(filterConfig));
 
         List<ResourceFinder> resourceFinders = new ArrayList<ResourceFinder>();
         resourceFinders.add(new WebAppResourcesScanner(filterConfig.getServletContext()));
@@ -73,6 +149,7 @@ public class RestfulServletFilter implements Filter {
 
         Map<Class<?>, ClassInfo> scanResult = ResourceUtils.scanResources(resourceFinders, packageNames);
 
+        List<Resource> resources = new ArrayList<Resource>(scanResult.size());
         for (Map.Entry<Class<?>, ClassInfo> entry : scanResult.entrySet()) {
             Resource resource = ResourceUtils.buildResource(applicationContxt, parameterProvider, entry.getKey(),
                                                             entry.getValue(), null);
@@ -81,8 +158,9 @@ public class RestfulServletFilter implements Filter {
                 continue;
             }
 
-            applicationConfig.addResource(resource);
+            resources.add(resource);
         }
+        applicationConfig.addResources(resources);
 
         return applicationConfig;
     }
@@ -114,7 +192,70 @@ public class RestfulServletFilter implements Filter {
 
         UriInfo uriInfo = new UriInfoImpl(httpRequest);
 
+        if (batchProcessor != null && batchPath.equals(uriInfo.getPath()) && "POST".equals(httpRequest.getMethod())) {
+            batchProcessor.service(httpRequest, httpResponse);
+            return;
+        }
+
+        if (executor != null) {
+            AsyncHandle asyncHandle = ServletAsyncSupport.startAsync(httpRequest, httpResponse, asyncTimeout);
+            if (asyncHandle != null) {
+                AsyncTask task = new AsyncTask(handler, httpRequest, httpResponse, uriInfo, asyncHandle);
+                try {
+                    executor.execute(task);
+                } catch (RejectedExecutionException e) {
+                    httpResponse.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                    asyncHandle.complete();
+                }
+                return;
+            }
+        }
+
         handler.service(httpRequest, httpResponse, uriInfo);
     }
 
+    /**
+     * Services an async request on a thread of the executor, the request is completed once the response is written,
+     * or when a suspended request is resumed.
+     */
+    private static class AsyncTask implements Runnable {
+
+        private final ApplicationHandler  handler;
+        private final HttpServletRequest  httpRequest;
+        private final HttpServletResponse httpResponse;
+        private final UriInfo             uriInfo;
+        private final Runnable            completion;
+
+        AsyncTask(ApplicationHandler handler, HttpServletRequest httpRequest, HttpServletResponse httpResponse,
+                  UriInfo uriInfo, final AsyncHandle asyncHandle){
+            this.handler = handler;
+            this.httpRequest = httpRequest;
+            this.httpResponse = httpResponse;
+            this.uriInfo = uriInfo;
+            this.completion = new Runnable() {
+
+                public void run() {
+                    asyncHandle.complete();
+                }
+            };
+        }
+
+        public void run() {
+            boolean completed = true;
+            try {
+                RestfulRequestContext requestContext = handler.createRequestContext(httpRequest, httpResponse, uriInfo);
+                completed = handler.service(requestContext, completion);
+            } catch (Throwable e) {
+                LOG.error("service async request error. uri '" + httpRequest.getRequestURI() + "'", e);
+                if (!httpResponse.isCommitted()) {
+                    httpResponse.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                }
+            } finally {
+                if (completed) {
+                    completion.run();
+                }
+            }
+        }
+    }
+
 }
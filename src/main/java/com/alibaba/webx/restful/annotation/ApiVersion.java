@@ -0,0 +1,25 @@
+package com.alibaba.webx.restful.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Restrict a root resource to some versions of the API.
+ * <p>
+ * The version of a request is given by the discriminator configured with
+ * {@link com.alibaba.webx.restful.Constants#VERSION_DISCRIMINATOR}, either the first segment of the request path or
+ * a request header. A resource without this annotation is served to every version.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ApiVersion {
+
+    /**
+     * @return the versions, such as {@code "v2"}.
+     */
+    String[] value();
+}
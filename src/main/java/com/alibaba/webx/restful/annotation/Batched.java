@@ -0,0 +1,37 @@
+package com.alibaba.webx.restful.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Batch the concurrent invocations of a resource method taking a single key into one call of a companion method.
+ * <p>
+ * The companion method is declared by the same class, takes a {@link java.util.List} of keys and returns a
+ * {@link java.util.Map} from key to result. The keys of the invocations arriving within the window, or until the
+ * batch is full, are collected, the companion method is called once with the distinct keys, and every invocation
+ * returns the result of its key, {@code null} if the map does not contain it. The annotated method itself is not
+ * invoked.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Batched {
+
+    /**
+     * @return the name of the companion method.
+     */
+    String value();
+
+    /**
+     * @return the time the first invocation of a batch waits for others, in milliseconds.
+     */
+    long window() default 5;
+
+    /**
+     * @return the maximum number of invocations of a batch, a full batch is called at once.
+     */
+    int maxSize() default 100;
+}
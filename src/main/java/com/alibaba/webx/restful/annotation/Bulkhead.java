@@ -0,0 +1,35 @@
+package com.alibaba.webx.restful.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Limit the number of requests a resource method serves at the same time.
+ * <p>
+ * Requests over the limit wait in a queue of the given depth, and requests over the queue are rejected at once with
+ * status 503, so that a slow method can not hold every container thread. On a resource class, the annotation applies
+ * to every method of the class which is not annotated itself; every method has its own limit.
+ */
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Bulkhead {
+
+    /**
+     * @return the maximum number of requests served at the same time.
+     */
+    int value();
+
+    /**
+     * @return the maximum number of requests waiting for one of the served requests to complete.
+     */
+    int queue() default 0;
+
+    /**
+     * @return the body of the 503 response of a rejected request, written as {@code text/plain}.
+     */
+    String message() default "Service Unavailable";
+}
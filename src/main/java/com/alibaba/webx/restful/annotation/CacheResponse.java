@@ -0,0 +1,31 @@
+package com.alibaba.webx.restful.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache the serialized responses of a {@link javax.ws.rs.GET GET} resource method.
+ * <p>
+ * A successful response is cached with its status, content type, headers and body, keyed by the resource method, the
+ * arguments and the negotiated media type, and written as is to the requests with the same key until it expires. The
+ * number of cached responses is bounded by {@link com.alibaba.webx.restful.Constants#RESPONSE_CACHE_SIZE}, and
+ * responses can be invalidated through {@link com.alibaba.webx.restful.process.ResponseCache}.
+ * <p>
+ * As for {@link SingleFlight}, the method must not take context parameters.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CacheResponse {
+
+    /**
+     * @return the time to live of a cached response.
+     */
+    long value();
+
+    TimeUnit unit() default TimeUnit.SECONDS;
+}
@@ -0,0 +1,26 @@
+package com.alibaba.webx.restful.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Coalesce the concurrent requests of a {@link javax.ws.rs.GET GET} resource method with the same arguments.
+ * <p>
+ * The first request invokes the method and serializes the response, the requests arriving with equal arguments and
+ * the same response media type while it runs wait for it and receive the same status, headers and bytes. A failure of
+ * the first request fails the waiting requests as well. Requests arriving after the response is written invoke the
+ * method again, nothing is cached.
+ * <p>
+ * The key is made of the arguments of the method only: the method must not take context parameters such as the
+ * servlet request or response, and the state given to a resource instance through its constructor or setters is not
+ * part of the key.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface SingleFlight {
+
+}
@@ -0,0 +1,24 @@
+package com.alibaba.webx.restful.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Restrict a root resource to the requests of some hosts.
+ * <p>
+ * The host of a request is the host name of its {@code Host} header, compared ignoring case and port. A resource
+ * without this annotation is served to every host.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface VirtualHost {
+
+    /**
+     * @return the host names, such as {@code "api.example.com"}.
+     */
+    String[] value();
+}
@@ -1,36 +1,106 @@
 package com.alibaba.webx.restful.model;
 
 import java.io.Closeable;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.ws.rs.core.Application;
 
+import com.alibaba.webx.restful.model.route.PartitionedRouter;
+import com.alibaba.webx.restful.model.route.Router;
 import com.alibaba.webx.restful.util.ConcurrentIdentityHashMap;
 
+/**
+ * The resources, singletons and properties of an application.
+ * <p>
+ * The registered resources are published together with the routers compiled from them, partitioned by virtual host
+ * and API version ({@link PartitionedRouter}), as one immutable snapshot. Registration copies the current snapshot,
+ * compiles the new router and publishes it with a single volatile write, so request threads read the router without
+ * any locking, and resources may be added or removed at runtime while requests are being served. A registration which
+ * fails to compile leaves the current snapshot in place.
+ */
 public class ApplicationImpl extends Application implements Closeable {
 
-    private static final Object                               PRESENT   = new Object();
+    private static final Object                             PRESENT    = new Object();
 
-    private final ConcurrentIdentityHashMap<Resource, Object> resources = new ConcurrentIdentityHashMap<Resource, Object>();
+    private volatile Snapshot                               snapshot;
 
-    private final ConcurrentIdentityHashMap<Object, Object>   instances = new ConcurrentIdentityHashMap<Object, Object>();
+    private final ConcurrentIdentityHashMap<Object, Object> instances;
+
+    private final Map<String, Object>                       properties = new ConcurrentHashMap<String, Object>();
 
     public ApplicationImpl(){
+        this.snapshot = new Snapshot(Collections.<Resource> emptySet());
+        this.instances = new ConcurrentIdentityHashMap<Object, Object>();
     }
 
+    /**
+     * @return an unmodifiable view of the resources of the current snapshot.
+     */
     public final Set<Resource> getResources() {
-        return resources.keySet();
+        return snapshot.resources;
+    }
+
+    /**
+     * Get the router compiled from the unrestricted resources of the current snapshot.
+     * 
+     * @return the router, never {@code null}.
+     */
+    public Router getRouter() {
+        return snapshot.routers.getRouter();
+    }
+
+    /**
+     * Get the routers compiled from the resources of the current snapshot, partitioned by virtual host and API
+     * version. A new instance is published whenever resources are added or removed.
+     * 
+     * @return the partitioned routers, never {@code null}.
+     */
+    public PartitionedRouter getPartitionedRouter() {
+        return snapshot.routers;
     }
 
-    public void addResources(List<Resource> resources) {
-        for (Resource item : resources) {
-            this.resources.put(item, PRESENT);
+    /**
+     * Add resources and publish a new routing snapshot, the router is compiled once for the whole batch.
+     */
+    public synchronized void addResources(List<Resource> resources) {
+        Set<Resource> newResources = copyResources();
+        if (newResources.addAll(resources)) {
+            snapshot = new Snapshot(newResources);
         }
     }
 
-    public void addResource(Resource resource) {
-        this.resources.put(resource, PRESENT);
+    public synchronized void addResource(Resource resource) {
+        Set<Resource> newResources = copyResources();
+        if (newResources.add(resource)) {
+            snapshot = new Snapshot(newResources);
+        }
+    }
+
+    /**
+     * Remove a resource and publish a new routing snapshot, requests already matched against the previous snapshot
+     * are completed.
+     * 
+     * @return true if the resource was registered.
+     */
+    public synchronized boolean removeResource(Resource resource) {
+        Set<Resource> newResources = copyResources();
+        if (!newResources.remove(resource)) {
+            return false;
+        }
+
+        snapshot = new Snapshot(newResources);
+        return true;
+    }
+
+    private Set<Resource> copyResources() {
+        Set<Resource> copy = Collections.newSetFromMap(new IdentityHashMap<Resource, Boolean>());
+        copy.addAll(snapshot.resources);
+        return copy;
     }
 
     public Set<Object> getSingletons() {
@@ -41,8 +111,58 @@ public class ApplicationImpl extends Application implements Closeable {
         return this.instances.put(instance, PRESENT);
     }
 
+    public Map<String, Object> getProperties() {
+        return properties;
+    }
+
+    public Object getProperty(String name) {
+        return properties.get(name);
+    }
+
+    public void setProperty(String name, Object value) {
+        properties.put(name, value);
+    }
+
+    public int getIntProperty(String name, int defaultValue) {
+        Object value = properties.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+
+        if (value instanceof Number) {
+            return ((Number) value).intValue();
+        }
+
+        String text = value.toString().trim();
+        if (text.length() == 0) {
+            return defaultValue;
+        }
+
+        try {
+            return Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            throw new ResourceConfigException("illegal int property '" + name + "' : " + text, e);
+        }
+    }
+
     public void close() {
-        this.resources.clear();
+        synchronized (this) {
+            this.snapshot = new Snapshot(Collections.<Resource> emptySet());
+        }
         this.instances.clear();
     }
+
+    private static final class Snapshot {
+
+        private final Set<Resource>     resources;
+        private final PartitionedRouter routers;
+
+        /**
+         * @param resources a set owned by the snapshot, it must not be modified afterwards.
+         */
+        Snapshot(Set<Resource> resources){
+            this.routers = new PartitionedRouter(resources);
+            this.resources = Collections.unmodifiableSet(resources);
+        }
+    }
 }
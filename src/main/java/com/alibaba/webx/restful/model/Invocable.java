@@ -2,29 +2,88 @@ package com.alibaba.webx.restful.model;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
+import javax.ws.rs.Suspend;
 import javax.ws.rs.core.GenericType;
 
+import com.alibaba.webx.restful.annotation.Batched;
+import com.alibaba.webx.restful.annotation.CacheResponse;
+import com.alibaba.webx.restful.annotation.SingleFlight;
+import com.alibaba.webx.restful.model.invoke.BatchLoader;
+import com.alibaba.webx.restful.model.invoke.InvokerGenerator;
+import com.alibaba.webx.restful.model.invoke.MethodInvoker;
+import com.alibaba.webx.restful.model.param.ArgumentResolver;
+import com.alibaba.webx.restful.model.param.LiteralParameter;
 import com.alibaba.webx.restful.process.RestfulRequestContext;
 
 public final class Invocable {
 
     private final InstanceConstructor constructor;
     private final Method              method;
+    private final MethodInvoker       invoker;
     private final List<Parameter>     parameters;
+    private final ArgumentResolver    argumentResolver;
     private final GenericType<?>      responseType;
     private final Annotation[]        annotations;
+    private final Suspend             suspend;
+    private final boolean             singleFlight;
+    private final long                cacheTtl;
+    private final BatchLoader         batchLoader;
+    private final Set<String>         formFields;
+    private final boolean             contextRequired;
 
     @SuppressWarnings("rawtypes")
     public Invocable(InstanceConstructor instanceConstructor, Method method, List<Parameter> parameters){
         this.constructor = instanceConstructor;
         this.method = method;
+        this.invoker = InvokerGenerator.createMethodInvoker(method);
         this.annotations = method.getAnnotations();
+        this.suspend = method.getAnnotation(Suspend.class);
+        this.singleFlight = method.isAnnotationPresent(SingleFlight.class);
+
+        CacheResponse cacheResponse = method.getAnnotation(CacheResponse.class);
+        this.cacheTtl = (cacheResponse == null) ? 0 : cacheResponse.unit().toMillis(cacheResponse.value());
+
+        Batched batched = method.getAnnotation(Batched.class);
+        this.batchLoader = (batched == null) ? null : BatchLoader.create(method, batched);
 
         this.responseType = new GenericType(method.getGenericReturnType());
 
         this.parameters = parameters;
+        this.argumentResolver = ArgumentResolver.compile(parameters);
+
+        Set<String> formFields = new HashSet<String>();
+        boolean contextRequired = addFormFields(formFields, parameters);
+        if (instanceConstructor instanceof MultiInstanceConstructor) {
+            MultiInstanceConstructor multiConstructor = (MultiInstanceConstructor) instanceConstructor;
+            contextRequired |= addFormFields(formFields, multiConstructor.getParameters());
+            for (InstanceSetter setter : multiConstructor.getSetters()) {
+                contextRequired |= addFormFields(formFields, Collections.singletonList(setter.getParameter()));
+            }
+        }
+        this.formFields = Collections.unmodifiableSet(formFields);
+        this.contextRequired = contextRequired;
+    }
+
+    /**
+     * @return true if one of the parameters is a context parameter.
+     */
+    private static boolean addFormFields(Set<String> formFields, List<Parameter> parameters) {
+        boolean contextRequired = false;
+        for (Parameter parameter : parameters) {
+            Parameter.Source source = parameter.getSource();
+            if ((source == Parameter.Source.FORM || source == Parameter.Source.UNKNOWN)
+                && parameter instanceof LiteralParameter) {
+                formFields.add(((LiteralParameter) parameter).getName());
+            } else if (source == Parameter.Source.CONTEXT) {
+                contextRequired = true;
+            }
+        }
+        return contextRequired;
     }
 
     public InstanceConstructor getConstructor() {
@@ -52,22 +111,80 @@ public final class Invocable {
         return parameters;
     }
 
+    /**
+     * @return the names of the form fields bound by the method and its resource instance, including the default
+     * parameters which may be bound to a form field.
+     */
+    public Set<String> getFormFields() {
+        return formFields;
+    }
+
+    /**
+     * @return true if the method or its resource instance takes a context parameter, such as the
+     * {@link javax.servlet.http.HttpServletRequest}, through which the request parameters of the container may be read.
+     */
+    public boolean isContextRequired() {
+        return contextRequired;
+    }
+
     public Annotation[] getAnnotations() {
         return annotations;
     }
 
+    /**
+     * @return the {@link Suspend} annotation of the method, or {@code null} if the method does not suspend requests.
+     */
+    public Suspend getSuspend() {
+        return suspend;
+    }
+
+    /**
+     * @return true if the concurrent requests with equal arguments are coalesced, see {@link SingleFlight}.
+     */
+    public boolean isSingleFlight() {
+        return singleFlight;
+    }
+
+    /**
+     * @return the time to live of the cached responses in milliseconds, 0 if the responses are not cached, see
+     * {@link CacheResponse}.
+     */
+    public long getCacheTtl() {
+        return cacheTtl;
+    }
+
+    /**
+     * @return true if the response is buffered to be shared by several requests.
+     */
+    public boolean isBuffered() {
+        return singleFlight || cacheTtl > 0;
+    }
+
     public Object[] getArguments(RestfulRequestContext requestContext) throws Exception {
-        Object[] args = new Object[parameters.size()];
-        for (int i = 0; i < args.length; ++i) {
-            Parameter parameter = parameters.get(i);
-            args[i] = parameter.getParameterValue(requestContext);
-        }
+        return argumentResolver.resolve(requestContext);
+    }
+
+    public MethodInvoker getInvoker() {
+        return invoker;
+    }
 
-        return args;
+    /**
+     * @return the loader batching the invocations of a {@link Batched} method, or {@code null}.
+     */
+    public BatchLoader getBatchLoader() {
+        return batchLoader;
     }
 
+    /**
+     * Invoke the method through its generated invoker, an exception thrown by the method is thrown as is. The
+     * invocations of a {@link Batched} method are batched into calls of its companion method instead.
+     */
     public Object invoke(Object instance, Object[] args) throws Exception {
-        Object returnObject = method.invoke(instance, args);
+        if (batchLoader != null) {
+            return batchLoader.load(instance, args[0]);
+        }
+
+        Object returnObject = invoker.invoke(instance, args);
         return returnObject;
     }
 
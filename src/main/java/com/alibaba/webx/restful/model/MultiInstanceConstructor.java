@@ -1,10 +1,20 @@
 package com.alibaba.webx.restful.model;
 
 import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.List;
 
+import com.alibaba.webx.restful.model.invoke.InstanceFactory;
+import com.alibaba.webx.restful.model.invoke.InvokerGenerator;
+import com.alibaba.webx.restful.model.param.ArgumentResolver;
 import com.alibaba.webx.restful.process.RestfulRequestContext;
 
+/**
+ * Creates a new instance of a resource class for every request, the constructor arguments and the setter values are
+ * resolved from the request by one {@link ArgumentResolver} and passed to a generated {@link InstanceFactory} in one
+ * call.
+ */
 public final class MultiInstanceConstructor implements InstanceConstructor {
 
     private final Class<?>             handlerClass;
@@ -13,11 +23,24 @@ public final class MultiInstanceConstructor implements InstanceConstructor {
 
     private final List<InstanceSetter> setters;
 
+    private final ArgumentResolver     argumentResolver;
+
+    private final InstanceFactory      factory;
+
     public MultiInstanceConstructor(Constructor<?> constructor, List<Parameter> parameters, List<InstanceSetter> setters){
         this.handlerClass = constructor.getDeclaringClass();
         this.constructor = constructor;
         this.parameters = parameters;
         this.setters = setters;
+
+        List<Parameter> values = new ArrayList<Parameter>(parameters);
+        Method[] setterMethods = new Method[setters.size()];
+        for (int i = 0; i < setterMethods.length; ++i) {
+            setterMethods[i] = setters.get(i).getMethod();
+            values.add(setters.get(i).getParameter());
+        }
+        this.argumentResolver = ArgumentResolver.compile(values);
+        this.factory = InvokerGenerator.createInstanceFactory(constructor, setterMethods);
     }
 
     public List<InstanceSetter> getSetters() {
@@ -50,20 +73,12 @@ public final class MultiInstanceConstructor implements InstanceConstructor {
         return false;
     }
 
+    public InstanceFactory getFactory() {
+        return factory;
+    }
+
     public Object createInstance(RestfulRequestContext requestContext) throws Exception {
-        Object[] constructArgs = new Object[parameters.size()];
-        for (int i = 0; i < constructArgs.length; ++i) {
-            Parameter parameter = parameters.get(i);
-            constructArgs[i] = parameter.getParameterValue(requestContext);
-        }
-        Object resourceInstance = constructor.newInstance(constructArgs);
-        
-        for (InstanceSetter setter : setters) {
-            Parameter parameter = setter.getParameter();
-            Object propertyValue = parameter.getParameterValue(requestContext);
-            setter.getMethod().invoke(resourceInstance, propertyValue);
-        }
-        
-        return resourceInstance;
+        Object[] values = argumentResolver.resolve(requestContext);
+        return factory.newInstance(values);
     }
 }
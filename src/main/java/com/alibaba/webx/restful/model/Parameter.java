@@ -1,5 +1,7 @@
 package com.alibaba.webx.restful.model;
 
+import java.io.IOException;
+
 import com.alibaba.webx.restful.model.converter.TypeConvertException;
 import com.alibaba.webx.restful.process.RestfulRequestContext;
 
@@ -14,6 +16,6 @@ public interface Parameter {
 
     Source getSource();
 
-    Object getParameterValue(RestfulRequestContext requestContext) throws TypeConvertException;
+    Object getParameterValue(RestfulRequestContext requestContext) throws TypeConvertException, IOException;
 
 }
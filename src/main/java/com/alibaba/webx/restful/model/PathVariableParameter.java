@@ -0,0 +1,19 @@
+package com.alibaba.webx.restful.model;
+
+/**
+ * A parameter whose value may come from a template variable of the matched route.
+ * <p>
+ * The router binds every such parameter to the index of its variable when a route is compiled, so that the value is
+ * read from the captured offsets of the match without looking the name up on every request.
+ */
+public interface PathVariableParameter extends Parameter {
+
+    String getName();
+
+    /**
+     * Bind the parameter to the index of its variable in a route the parameter is reachable from.
+     * 
+     * @param index the variable index, or {@code -1} if the route does not declare the variable.
+     */
+    void bindVariableIndex(int index);
+}
@@ -1,5 +1,6 @@
 package com.alibaba.webx.restful.model;
 
+import java.util.Collections;
 import java.util.List;
 
 import com.alibaba.webx.restful.model.uri.PathPattern;
@@ -13,10 +14,20 @@ public final class Resource {
     private final List<ResourceMethod> resourceMethods;
     private final List<ResourceMethod> subResourceMethods;
     private final List<ResourceMethod> subResourceLocators;
+    private final List<String>         virtualHosts;
+    private final List<String>         apiVersions;
 
     public Resource(final String name, final String path, final boolean isRoot,
                     final List<ResourceMethod> resourceMethods, final List<ResourceMethod> subResourceMethods,
                     final List<ResourceMethod> subResourceLocators){
+        this(name, path, isRoot, resourceMethods, subResourceMethods, subResourceLocators,
+             Collections.<String> emptyList(), Collections.<String> emptyList());
+    }
+
+    public Resource(final String name, final String path, final boolean isRoot,
+                    final List<ResourceMethod> resourceMethods, final List<ResourceMethod> subResourceMethods,
+                    final List<ResourceMethod> subResourceLocators, final List<String> virtualHosts,
+                    final List<String> apiVersions){
 
         this.name = name;
         this.path = path;
@@ -31,6 +42,8 @@ public final class Resource {
         this.resourceMethods = resourceMethods;
         this.subResourceMethods = subResourceMethods;
         this.subResourceLocators = subResourceLocators;
+        this.virtualHosts = Collections.unmodifiableList(virtualHosts);
+        this.apiVersions = Collections.unmodifiableList(apiVersions);
     }
 
     /**
@@ -89,4 +102,22 @@ public final class Resource {
         return subResourceLocators;
     }
 
+    /**
+     * Provides the lower case host names the resource is restricted to.
+     * 
+     * @return non-null host name list, empty if the resource is served to every host.
+     */
+    public List<String> getVirtualHosts() {
+        return virtualHosts;
+    }
+
+    /**
+     * Provides the API versions the resource is restricted to.
+     * 
+     * @return non-null version list, empty if the resource is served to every version.
+     */
+    public List<String> getApiVersions() {
+        return apiVersions;
+    }
+
 }
@@ -84,9 +84,17 @@ public class ResourceMethod implements ResourceInfo {
 
     // Invocable
     private final Invocable       invocable;
+    // Concurrency limit
+    private final RouteBulkhead   bulkhead;
 
     public ResourceMethod(final String httpMethod, final String path, final Collection<MediaType> consumedTypes,
                           final Collection<MediaType> producedTypes, final Invocable invocable){
+        this(httpMethod, path, consumedTypes, producedTypes, invocable, null);
+    }
+
+    public ResourceMethod(final String httpMethod, final String path, final Collection<MediaType> consumedTypes,
+                          final Collection<MediaType> producedTypes, final Invocable invocable,
+                          final RouteBulkhead bulkhead){
 
         this.type = JaxrsType.classify(httpMethod, path);
 
@@ -98,6 +106,7 @@ public class ResourceMethod implements ResourceInfo {
         this.consumedTypes = Collections.unmodifiableList(new ArrayList<MediaType>(consumedTypes));
         this.producedTypes = Collections.unmodifiableList(new ArrayList<MediaType>(producedTypes));
         this.invocable = invocable;
+        this.bulkhead = bulkhead;
     }
 
     public JaxrsType getType() {
@@ -112,6 +121,13 @@ public class ResourceMethod implements ResourceInfo {
         return invocable;
     }
 
+    /**
+     * @return the concurrency limit of the method, or {@code null} if the method is not limited.
+     */
+    public RouteBulkhead getBulkhead() {
+        return bulkhead;
+    }
+
     public String getPath() {
         return path;
     }
@@ -0,0 +1,126 @@
+package com.alibaba.webx.restful.model;
+
+import java.nio.charset.Charset;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.alibaba.webx.restful.annotation.Bulkhead;
+
+/**
+ * The concurrency limit of a resource method, configured by {@link Bulkhead}.
+ * <p>
+ * A request is admitted by incrementing a counter of the requests running or queued, and rejected when the counter is
+ * at the limit, without taking a lock. When a queue is configured, the admitted requests then wait for one of the
+ * running slots; without a queue the counter alone is the permit.
+ */
+public final class RouteBulkhead {
+
+    private static final Charset UTF8     = Charset.forName("UTF-8");
+
+    private final int            maxConcurrency;
+    private final int            queueDepth;
+
+    private final AtomicInteger  admitted = new AtomicInteger();
+    private final AtomicLong     rejected = new AtomicLong();
+
+    /**
+     * The running slots, {@code null} when there is no queue.
+     */
+    private final Semaphore      slots;
+
+    private final byte[]         rejectionBody;
+
+    public RouteBulkhead(int maxConcurrency, int queueDepth, String rejectionMessage){
+        if (maxConcurrency <= 0 || queueDepth < 0) {
+            throw new ResourceConfigException("illegal bulkhead, maxConcurrency " + maxConcurrency + ", queue "
+                                              + queueDepth);
+        }
+
+        this.maxConcurrency = maxConcurrency;
+        this.queueDepth = queueDepth;
+        this.slots = (queueDepth == 0) ? null : new Semaphore(maxConcurrency);
+        this.rejectionBody = rejectionMessage.getBytes(UTF8);
+    }
+
+    public RouteBulkhead(Bulkhead bulkhead){
+        this(bulkhead.value(), bulkhead.queue(), bulkhead.message());
+    }
+
+    /**
+     * Admit a request, waiting in the queue when the running slots are taken.
+     * 
+     * @return false if the request is rejected, {@link #exit()} must be called otherwise.
+     */
+    public boolean enter() {
+        int limit = maxConcurrency + queueDepth;
+        for (;;) {
+            int current = admitted.get();
+            if (current >= limit) {
+                rejected.incrementAndGet();
+                return false;
+            }
+            if (admitted.compareAndSet(current, current + 1)) {
+                break;
+            }
+        }
+
+        if (slots != null) {
+            try {
+                slots.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                admitted.decrementAndGet();
+                rejected.incrementAndGet();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void exit() {
+        if (slots != null) {
+            slots.release();
+        }
+        admitted.decrementAndGet();
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    /**
+     * @return the number of requests running.
+     */
+    public int getCurrent() {
+        if (slots == null) {
+            return admitted.get();
+        }
+        return maxConcurrency - slots.availablePermits();
+    }
+
+    /**
+     * @return the number of requests waiting in the queue.
+     */
+    public int getQueued() {
+        return Math.max(0, admitted.get() - getCurrent());
+    }
+
+    /**
+     * @return the number of requests rejected since startup.
+     */
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    /**
+     * @return the UTF-8 body of the 503 response, shared by every rejection: it must not be modified.
+     */
+    public byte[] getRejectionBody() {
+        return rejectionBody;
+    }
+}
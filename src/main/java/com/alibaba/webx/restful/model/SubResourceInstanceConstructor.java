@@ -0,0 +1,26 @@
+package com.alibaba.webx.restful.model;
+
+import com.alibaba.webx.restful.process.RestfulRequestContext;
+
+/**
+ * The constructor of a sub-resource: the instance is not created, it is the one returned by the sub-resource locator
+ * of the request.
+ */
+public class SubResourceInstanceConstructor implements InstanceConstructor {
+
+    private final Class<?> clazz;
+
+    public SubResourceInstanceConstructor(Class<?> clazz){
+        this.clazz = clazz;
+    }
+
+    @Override
+    public Object createInstance(RestfulRequestContext requestContext) throws Exception {
+        return requestContext.getResourceInstance();
+    }
+
+    @Override
+    public Class<?> getHandlerClass() {
+        return clazz;
+    }
+}
@@ -13,6 +13,8 @@ public class MethodInfo {
 
     List<String> parameterNames = new ArrayList<String>();
 
+    List<String> writtenFields  = new ArrayList<String>();
+
     public int getAccess() {
         return access;
     }
@@ -37,4 +39,13 @@ public class MethodInfo {
         return parameterNames;
     }
 
+    /**
+     * Get the instance fields of the visited class assigned by this method.
+     * 
+     * @return the names of the fields written with {@code putfield}.
+     */
+    public List<String> getWrittenFields() {
+        return writtenFields;
+    }
+
 }
\ No newline at end of file
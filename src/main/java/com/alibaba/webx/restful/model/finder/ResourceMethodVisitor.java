@@ -6,6 +6,7 @@ import org.objectweb.asm.AnnotationVisitor;
 import org.objectweb.asm.Attribute;
 import org.objectweb.asm.Label;
 import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
 import org.springframework.util.Assert;
 
 
@@ -103,7 +104,10 @@ public class ResourceMethodVisitor implements MethodVisitor {
 
     @Override
     public void visitFieldInsn(int opcode, String owner, String name, String desc) {
-
+        if (opcode == Opcodes.PUTFIELD && owner.equals(annotatedClassVisitor.getClassInfo().getName())
+            && !methodInfo.writtenFields.contains(name)) {
+            methodInfo.writtenFields.add(name);
+        }
     }
 
     @Override
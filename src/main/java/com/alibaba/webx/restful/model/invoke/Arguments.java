@@ -0,0 +1,106 @@
+package com.alibaba.webx.restful.model.invoke;
+
+/**
+ * Checks and unboxes the arguments of a generated invoker or factory with the same rules as
+ * {@link java.lang.reflect.Method#invoke}: a wrong number of arguments is an {@link IllegalArgumentException}, and a
+ * wrapper is accepted for its own primitive type and for the wider ones, for example a {@link Short} for an
+ * {@code int}, and anything else, a {@code null} included, is an {@link IllegalArgumentException}.
+ * <p>
+ * Public since it is called from the generated classes, which are defined by another class loader.
+ */
+public final class Arguments {
+
+    private Arguments(){
+    }
+
+    /**
+     * @throws IllegalArgumentException if there are not as many arguments as expected, {@code null} being no argument.
+     */
+    public static void checkLength(Object[] args, int expected) {
+        int length = (args == null) ? 0 : args.length;
+        if (length != expected) {
+            throw new IllegalArgumentException("wrong number of arguments, " + length + " for " + expected);
+        }
+    }
+
+    public static boolean booleanValue(Object value) {
+        if (value instanceof Boolean) {
+            return ((Boolean) value).booleanValue();
+        }
+        throw mismatch(value, boolean.class);
+    }
+
+    public static char charValue(Object value) {
+        if (value instanceof Character) {
+            return ((Character) value).charValue();
+        }
+        throw mismatch(value, char.class);
+    }
+
+    public static byte byteValue(Object value) {
+        if (value instanceof Byte) {
+            return ((Byte) value).byteValue();
+        }
+        throw mismatch(value, byte.class);
+    }
+
+    public static short shortValue(Object value) {
+        if (value instanceof Short || value instanceof Byte) {
+            return ((Number) value).shortValue();
+        }
+        throw mismatch(value, short.class);
+    }
+
+    public static int intValue(Object value) {
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).intValue();
+        }
+        if (value instanceof Character) {
+            return ((Character) value).charValue();
+        }
+        throw mismatch(value, int.class);
+    }
+
+    public static long longValue(Object value) {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof Character) {
+            return ((Character) value).charValue();
+        }
+        throw mismatch(value, long.class);
+    }
+
+    public static float floatValue(Object value) {
+        if (value instanceof Float || value instanceof Long || value instanceof Integer || value instanceof Short
+            || value instanceof Byte) {
+            return ((Number) value).floatValue();
+        }
+        if (value instanceof Character) {
+            return ((Character) value).charValue();
+        }
+        throw mismatch(value, float.class);
+    }
+
+    public static double doubleValue(Object value) {
+        if (value instanceof Double || value instanceof Float || value instanceof Long || value instanceof Integer
+            || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).doubleValue();
+        }
+        if (value instanceof Character) {
+            return ((Character) value).charValue();
+        }
+        throw mismatch(value, double.class);
+    }
+
+    /**
+     * @return the exception of an argument which is not assignable to the parameter type.
+     */
+    public static IllegalArgumentException mismatch(Object value, Class<?> type) {
+        if (value == null) {
+            return new IllegalArgumentException("argument type mismatch, null for " + type.getName());
+        }
+        return new IllegalArgumentException("argument type mismatch, " + value.getClass().getName() + " for "
+                                            + type.getName());
+    }
+}
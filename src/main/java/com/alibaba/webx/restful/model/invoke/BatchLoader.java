@@ -0,0 +1,162 @@
+package com.alibaba.webx.restful.model.invoke;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.webx.restful.annotation.Batched;
+import com.alibaba.webx.restful.model.ResourceConfigException;
+
+/**
+ * Collects the concurrent invocations of a {@link Batched} method into calls of its companion method.
+ * <p>
+ * The first invocation of a batch is its leader: it waits for the window to elapse, or for the batch to be full,
+ * then calls the companion method on the calling thread and hands every other invocation of the batch its result. No
+ * thread is started; an invocation arriving once the batch is closed starts the next batch.
+ */
+public final class BatchLoader {
+
+    private final Method        batchMethod;
+    private final MethodInvoker batchInvoker;
+    private final long          windowNanos;
+    private final int           maxSize;
+
+    /**
+     * The batch collecting keys, guarded by this.
+     */
+    private Batch               current;
+
+    private BatchLoader(Method batchMethod, long windowMillis, int maxSize){
+        this.batchMethod = batchMethod;
+        this.batchInvoker = InvokerGenerator.createMethodInvoker(batchMethod);
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Create the loader of a {@link Batched} method.
+     *
+     * @throws ResourceConfigException if the method does not take a single key, or the companion method is not found.
+     */
+    public static BatchLoader create(Method method, Batched batched) {
+        if (method.getParameterTypes().length != 1) {
+            throw new ResourceConfigException("@Batched method must take a single key : " + method);
+        }
+        if (batched.maxSize() <= 0 || batched.window() < 0) {
+            throw new ResourceConfigException("illegal @Batched window or maxSize : " + method);
+        }
+
+        Method batchMethod;
+        try {
+            batchMethod = method.getDeclaringClass().getMethod(batched.value(), List.class);
+        } catch (NoSuchMethodException e) {
+            throw new ResourceConfigException("batch method not found, expect public " + batched.value()
+                                              + "(List) : " + method);
+        }
+
+        if (!Map.class.isAssignableFrom(batchMethod.getReturnType())) {
+            throw new ResourceConfigException("batch method must return a Map : " + batchMethod);
+        }
+
+        return new BatchLoader(batchMethod, batched.window(), batched.maxSize());
+    }
+
+    public Method getBatchMethod() {
+        return batchMethod;
+    }
+
+    /**
+     * Load the result of a key, blocking until the batch it joins is called.
+     *
+     * @param instance the resource instance the companion method is called on if this invocation leads the batch.
+     * @return the result of the key, or {@code null} if the companion method did not return one.
+     * @throws Exception the exception thrown by the companion method, to every invocation of the batch, an error is
+     *             thrown as is.
+     */
+    public Object load(Object instance, Object key) throws Exception {
+        Batch batch;
+        boolean leader = false;
+        synchronized (this) {
+            if (current == null) {
+                current = new Batch();
+                leader = true;
+            }
+            batch = current;
+            batch.keys.add(key);
+            if (++batch.count >= maxSize) {
+                current = null;
+                notifyAll();
+            }
+        }
+
+        if (leader) {
+            awaitWindow(batch);
+            batch.call(instance);
+        }
+
+        return batch.get(key);
+    }
+
+    private void awaitWindow(Batch batch) {
+        synchronized (this) {
+            long deadline = System.nanoTime() + windowNanos;
+            try {
+                while (current == batch) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                }
+            } catch (InterruptedException e) {
+                // call the batch now, the others are waiting for it
+                Thread.currentThread().interrupt();
+            } finally {
+                if (current == batch) {
+                    current = null;
+                }
+            }
+        }
+    }
+
+    private final class Batch {
+
+        private final Set<Object>    keys = new LinkedHashSet<Object>();
+        private int                  count;
+
+        private final CountDownLatch done = new CountDownLatch(1);
+        private Map<?, ?>            results;
+        private Throwable            error;
+
+        void call(Object instance) {
+            try {
+                List<Object> keyList;
+                synchronized (BatchLoader.this) {
+                    keyList = new ArrayList<Object>(keys);
+                }
+                results = (Map<?, ?>) batchInvoker.invoke(instance, new Object[] { keyList });
+            } catch (Throwable e) {
+                // an error too, or the invocations waiting for the batch would get null
+                error = e;
+            } finally {
+                done.countDown();
+            }
+        }
+
+        Object get(Object key) throws Exception {
+            done.await();
+            if (error instanceof Exception) {
+                throw (Exception) error;
+            }
+            if (error instanceof Error) {
+                throw (Error) error;
+            }
+            return (results == null) ? null : results.get(key);
+        }
+    }
+}
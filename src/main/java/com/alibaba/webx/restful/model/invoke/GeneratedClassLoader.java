@@ -0,0 +1,17 @@
+package com.alibaba.webx.restful.model.invoke;
+
+/**
+ * Defines the generated classes of the resource classes of one class loader.
+ * <p>
+ * A generated class lives in a runtime package of its own, so it may only link to public classes and public members.
+ */
+final class GeneratedClassLoader extends ClassLoader {
+
+    GeneratedClassLoader(ClassLoader parent){
+        super(parent);
+    }
+
+    Class<?> defineClass(String name, byte[] bytes) {
+        return defineClass(name, bytes, 0, bytes.length);
+    }
+}
@@ -0,0 +1,17 @@
+package com.alibaba.webx.restful.model.invoke;
+
+/**
+ * Creates an instance of one resource class and populates it through its setters, in place of
+ * {@link java.lang.reflect.Constructor#newInstance} followed by one {@link java.lang.reflect.Method#invoke} per
+ * setter.
+ * <p>
+ * An exception thrown by the constructor or a setter is thrown as is.
+ */
+public interface InstanceFactory {
+
+    /**
+     * @param values the constructor arguments, followed by the value of every setter.
+     * @return the populated instance.
+     */
+    Object newInstance(Object[] values) throws Exception;
+}
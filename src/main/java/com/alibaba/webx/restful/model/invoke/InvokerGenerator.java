@@ -0,0 +1,367 @@
+package com.alibaba.webx.restful.model.invoke;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+/**
+ * Generates a small class per resource method which calls the method directly, so that a request pays neither the
+ * access checks nor the megamorphic dispatch of {@link Method#invoke}.
+ * <p>
+ * The generated {@link MethodInvoker} casts the instance and unboxes the arguments, calls the method with
+ * {@code invokevirtual}, {@code invokeinterface} or {@code invokestatic}, and boxes the result. The method, its
+ * declaring class and its parameter types must be public since the generated class is defined by another class
+ * loader. When they are not, or when the class can not be generated, a reflective invoker is returned instead.
+ * <p>
+ * In the same way, the generated {@link InstanceFactory} of a per-request resource class calls its constructor and
+ * all of its setters in one method.
+ */
+public final class InvokerGenerator implements Opcodes {
+
+    private static final Log           LOG            = LogFactory.getLog(InvokerGenerator.class);
+
+    private static final String        INVOKER_NAME   = Type.getInternalName(MethodInvoker.class);
+    private static final String        FACTORY_NAME   = Type.getInternalName(InstanceFactory.class);
+    private static final String        ARGUMENTS_NAME = Type.getInternalName(Arguments.class);
+    private static final String        CLASS_PREFIX   = "com/alibaba/webx/restful/model/invoke/Generated";
+
+    private static final AtomicInteger classCounter   = new AtomicInteger();
+
+    /**
+     * The generated class loaders by parent, a generated class loader is kept alive by the classes it defined.
+     */
+    private static final Map<ClassLoader, WeakReference<GeneratedClassLoader>> classLoaders =
+            new WeakHashMap<ClassLoader, WeakReference<GeneratedClassLoader>>();
+
+    private InvokerGenerator(){
+    }
+
+    /**
+     * Create the invoker of a method.
+     *
+     * @param method the method.
+     * @return the generated invoker, or a reflective invoker if the method can not be called from a generated class.
+     */
+    public static MethodInvoker createMethodInvoker(Method method) {
+        if (isGeneratable(method)) {
+            try {
+                return generateMethodInvoker(method);
+            } catch (Exception e) {
+                LOG.warn("generate invoker error, fall back to reflection. method '" + method + "'", e);
+            } catch (LinkageError e) {
+                LOG.warn("generate invoker error, fall back to reflection. method '" + method + "'", e);
+            }
+        }
+
+        return new ReflectiveMethodInvoker(method);
+    }
+
+    /**
+     * Create the factory of a resource class.
+     *
+     * @param constructor the constructor.
+     * @param setters the setters called on every new instance, in order.
+     * @return the generated factory, or a reflective factory if the class can not be created from a generated class.
+     */
+    public static InstanceFactory createInstanceFactory(Constructor<?> constructor, Method[] setters) {
+        if (isGeneratable(constructor, setters)) {
+            try {
+                return generateInstanceFactory(constructor, setters);
+            } catch (Exception e) {
+                LOG.warn("generate factory error, fall back to reflection. class '"
+                         + constructor.getDeclaringClass().getName() + "'", e);
+            } catch (LinkageError e) {
+                LOG.warn("generate factory error, fall back to reflection. class '"
+                         + constructor.getDeclaringClass().getName() + "'", e);
+            }
+        }
+
+        return new ReflectiveInstanceFactory(constructor, setters);
+    }
+
+    /**
+     * @return true if the invoker is a generated class.
+     */
+    public static boolean isGenerated(MethodInvoker invoker) {
+        return !(invoker instanceof ReflectiveMethodInvoker);
+    }
+
+    /**
+     * @return true if the factory is a generated class.
+     */
+    public static boolean isGenerated(InstanceFactory factory) {
+        return !(factory instanceof ReflectiveInstanceFactory);
+    }
+
+    private static boolean isGeneratable(Method method) {
+        return isGeneratable(method.getDeclaringClass(), method.getModifiers(), method.getParameterTypes());
+    }
+
+    private static boolean isGeneratable(Constructor<?> constructor, Method[] setters) {
+        Class<?> clazz = constructor.getDeclaringClass();
+        if (Modifier.isAbstract(clazz.getModifiers())
+            || (clazz.getEnclosingClass() != null && !Modifier.isStatic(clazz.getModifiers()))) {
+            return false;
+        }
+
+        if (!isGeneratable(clazz, constructor.getModifiers(), constructor.getParameterTypes())) {
+            return false;
+        }
+
+        for (Method setter : setters) {
+            if (Modifier.isStatic(setter.getModifiers()) || !isGeneratable(setter)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isGeneratable(Class<?> declaringClass, int modifiers, Class<?>[] parameterTypes) {
+        if (!Modifier.isPublic(modifiers) || !isPublic(declaringClass) || declaringClass.getClassLoader() == null) {
+            return false;
+        }
+
+        for (Class<?> parameterType : parameterTypes) {
+            if (!isPublic(parameterType)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isPublic(Class<?> clazz) {
+        while (clazz.isArray()) {
+            clazz = clazz.getComponentType();
+        }
+
+        for (Class<?> item = clazz; item != null; item = item.getDeclaringClass()) {
+            if (!Modifier.isPublic(item.getModifiers())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static MethodInvoker generateMethodInvoker(Method method) throws Exception {
+        String className = CLASS_PREFIX + "Invoker" + classCounter.incrementAndGet();
+        ClassWriter cw = visitClass(className, INVOKER_NAME);
+
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "invoke",
+                                          "(Ljava/lang/Object;[Ljava/lang/Object;)Ljava/lang/Object;", null,
+                                          new String[] { "java/lang/Exception" });
+        mv.visitCode();
+
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        checkLength(mv, 2, parameterTypes.length);
+
+        Class<?> declaringClass = method.getDeclaringClass();
+        String owner = Type.getInternalName(declaringClass);
+        boolean isStatic = Modifier.isStatic(method.getModifiers());
+        if (!isStatic) {
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitTypeInsn(CHECKCAST, owner);
+        }
+
+        for (int i = 0; i < parameterTypes.length; ++i) {
+            mv.visitVarInsn(ALOAD, 2);
+            pushInt(mv, i);
+            mv.visitInsn(AALOAD);
+            unbox(mv, parameterTypes[i]);
+        }
+
+        int opcode;
+        if (isStatic) {
+            opcode = INVOKESTATIC;
+        } else if (declaringClass.isInterface()) {
+            opcode = INVOKEINTERFACE;
+        } else {
+            opcode = INVOKEVIRTUAL;
+        }
+        mv.visitMethodInsn(opcode, owner, method.getName(), Type.getMethodDescriptor(method));
+
+        box(mv, method.getReturnType());
+        mv.visitInsn(ARETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        return (MethodInvoker) defineClass(declaringClass, className, cw).newInstance();
+    }
+
+    private static InstanceFactory generateInstanceFactory(Constructor<?> constructor,
+                                                           Method[] setters) throws Exception {
+        String className = CLASS_PREFIX + "Factory" + classCounter.incrementAndGet();
+        ClassWriter cw = visitClass(className, FACTORY_NAME);
+
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "newInstance", "([Ljava/lang/Object;)Ljava/lang/Object;", null,
+                                          new String[] { "java/lang/Exception" });
+        mv.visitCode();
+
+        Class<?>[] parameterTypes = constructor.getParameterTypes();
+        checkLength(mv, 1, parameterTypes.length + setters.length);
+
+        Class<?> declaringClass = constructor.getDeclaringClass();
+        String owner = Type.getInternalName(declaringClass);
+        mv.visitTypeInsn(NEW, owner);
+        mv.visitInsn(DUP);
+
+        Type[] argumentTypes = new Type[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; ++i) {
+            mv.visitVarInsn(ALOAD, 1);
+            pushInt(mv, i);
+            mv.visitInsn(AALOAD);
+            unbox(mv, parameterTypes[i]);
+            argumentTypes[i] = Type.getType(parameterTypes[i]);
+        }
+        mv.visitMethodInsn(INVOKESPECIAL, owner, "<init>", Type.getMethodDescriptor(Type.VOID_TYPE, argumentTypes));
+
+        for (int i = 0; i < setters.length; ++i) {
+            Method setter = setters[i];
+            Class<?> setterClass = setter.getDeclaringClass();
+
+            mv.visitInsn(DUP);
+            mv.visitVarInsn(ALOAD, 1);
+            pushInt(mv, parameterTypes.length + i);
+            mv.visitInsn(AALOAD);
+            unbox(mv, setter.getParameterTypes()[0]);
+            mv.visitMethodInsn(setterClass.isInterface() ? INVOKEINTERFACE : INVOKEVIRTUAL,
+                               Type.getInternalName(setterClass), setter.getName(), Type.getMethodDescriptor(setter));
+
+            Class<?> returnType = setter.getReturnType();
+            if (returnType == long.class || returnType == double.class) {
+                mv.visitInsn(POP2);
+            } else if (returnType != void.class) {
+                mv.visitInsn(POP);
+            }
+        }
+
+        mv.visitInsn(ARETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        return (InstanceFactory) defineClass(declaringClass, className, cw).newInstance();
+    }
+
+    private static ClassWriter visitClass(String className, String interfaceName) {
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(V1_5, ACC_PUBLIC | ACC_FINAL | ACC_SUPER, className, null, "java/lang/Object",
+                 new String[] { interfaceName });
+
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "<init>", "()V");
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+        return cw;
+    }
+
+    private static Class<?> defineClass(Class<?> targetClass, String className, ClassWriter cw) {
+        cw.visitEnd();
+        return getClassLoader(targetClass).defineClass(className.replace('/', '.'), cw.toByteArray());
+    }
+
+    private static GeneratedClassLoader getClassLoader(Class<?> clazz) {
+        ClassLoader parent = clazz.getClassLoader();
+        synchronized (classLoaders) {
+            WeakReference<GeneratedClassLoader> ref = classLoaders.get(parent);
+            GeneratedClassLoader classLoader = (ref == null) ? null : ref.get();
+            if (classLoader == null) {
+                classLoader = new GeneratedClassLoader(parent);
+                classLoaders.put(parent, new WeakReference<GeneratedClassLoader>(classLoader));
+            }
+            return classLoader;
+        }
+    }
+
+    /**
+     * Check the length of the argument array in the local variable {@code var}, before any argument is loaded.
+     */
+    private static void checkLength(MethodVisitor mv, int var, int expected) {
+        mv.visitVarInsn(ALOAD, var);
+        pushInt(mv, expected);
+        mv.visitMethodInsn(INVOKESTATIC, ARGUMENTS_NAME, "checkLength", "([Ljava/lang/Object;I)V");
+    }
+
+    private static void pushInt(MethodVisitor mv, int value) {
+        if (value <= 5) {
+            mv.visitInsn(ICONST_0 + value);
+        } else if (value <= Byte.MAX_VALUE) {
+            mv.visitIntInsn(BIPUSH, value);
+        } else {
+            mv.visitIntInsn(SIPUSH, value);
+        }
+    }
+
+    /**
+     * Convert the argument on the stack to the parameter type, as {@link Method#invoke} does: a primitive is unboxed
+     * by {@link Arguments} with the widening conversions only, and an argument of another type, or a {@code null}
+     * primitive, is an {@link IllegalArgumentException}.
+     */
+    private static void unbox(MethodVisitor mv, Class<?> type) {
+        if (!type.isPrimitive()) {
+            if (type != Object.class) {
+                String internalName = Type.getInternalName(type);
+                Label ok = new Label();
+                mv.visitInsn(DUP);
+                mv.visitJumpInsn(IFNULL, ok);
+                mv.visitInsn(DUP);
+                mv.visitTypeInsn(INSTANCEOF, internalName);
+                mv.visitJumpInsn(IFNE, ok);
+                mv.visitLdcInsn(Type.getType(type));
+                mv.visitMethodInsn(INVOKESTATIC, ARGUMENTS_NAME, "mismatch",
+                                   "(Ljava/lang/Object;Ljava/lang/Class;)Ljava/lang/IllegalArgumentException;");
+                mv.visitInsn(ATHROW);
+                mv.visitLabel(ok);
+                mv.visitTypeInsn(CHECKCAST, internalName);
+            }
+        } else {
+            String descriptor = Type.getDescriptor(type);
+            mv.visitMethodInsn(INVOKESTATIC, ARGUMENTS_NAME, type.getName() + "Value", "(Ljava/lang/Object;)"
+                                                                                     + descriptor);
+        }
+    }
+
+    private static void box(MethodVisitor mv, Class<?> type) {
+        if (type == void.class) {
+            mv.visitInsn(ACONST_NULL);
+            return;
+        }
+        if (!type.isPrimitive()) {
+            return;
+        }
+
+        Type wrapper;
+        if (type == boolean.class) {
+            wrapper = Type.getType(Boolean.class);
+        } else if (type == char.class) {
+            wrapper = Type.getType(Character.class);
+        } else if (type == byte.class) {
+            wrapper = Type.getType(Byte.class);
+        } else if (type == short.class) {
+            wrapper = Type.getType(Short.class);
+        } else if (type == int.class) {
+            wrapper = Type.getType(Integer.class);
+        } else if (type == long.class) {
+            wrapper = Type.getType(Long.class);
+        } else if (type == float.class) {
+            wrapper = Type.getType(Float.class);
+        } else {
+            wrapper = Type.getType(Double.class);
+        }
+        mv.visitMethodInsn(INVOKESTATIC, wrapper.getInternalName(), "valueOf", "(" + Type.getDescriptor(type) + ")"
+                                                                              + wrapper.getDescriptor());
+    }
+}
@@ -0,0 +1,12 @@
+package com.alibaba.webx.restful.model.invoke;
+
+/**
+ * Invokes one method with an instance and an argument array, in place of {@link java.lang.reflect.Method#invoke}.
+ * <p>
+ * An exception thrown by the method is thrown as is, it is not wrapped in an
+ * {@link java.lang.reflect.InvocationTargetException}.
+ */
+public interface MethodInvoker {
+
+    Object invoke(Object instance, Object[] args) throws Exception;
+}
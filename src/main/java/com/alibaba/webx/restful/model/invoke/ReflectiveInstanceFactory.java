@@ -0,0 +1,49 @@
+package com.alibaba.webx.restful.model.invoke;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * The fallback used when no factory class can be generated for a resource class.
+ */
+final class ReflectiveInstanceFactory implements InstanceFactory {
+
+    private final Constructor<?> constructor;
+    private final Method[]       setters;
+
+    ReflectiveInstanceFactory(Constructor<?> constructor, Method[] setters){
+        if (!constructor.isAccessible()) {
+            constructor.setAccessible(true);
+        }
+        for (Method setter : setters) {
+            if (!setter.isAccessible()) {
+                setter.setAccessible(true);
+            }
+        }
+
+        this.constructor = constructor;
+        this.setters = setters;
+    }
+
+    public Object newInstance(Object[] values) throws Exception {
+        int parameterCount = values.length - setters.length;
+        Object[] constructArgs = new Object[parameterCount];
+        System.arraycopy(values, 0, constructArgs, 0, parameterCount);
+
+        try {
+            Object instance = constructor.newInstance(constructArgs);
+            for (int i = 0; i < setters.length; ++i) {
+                setters[i].invoke(instance, values[parameterCount + i]);
+            }
+            return instance;
+        } catch (InvocationTargetException e) {
+            throw ReflectiveMethodInvoker.unwrap(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "reflective factory of " + constructor.getDeclaringClass().getName();
+    }
+}
@@ -0,0 +1,46 @@
+package com.alibaba.webx.restful.model.invoke;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * The fallback used when no invoker class can be generated for a method.
+ */
+final class ReflectiveMethodInvoker implements MethodInvoker {
+
+    private final Method method;
+
+    ReflectiveMethodInvoker(Method method){
+        if (!method.isAccessible()) {
+            method.setAccessible(true);
+        }
+        this.method = method;
+    }
+
+    public Object invoke(Object instance, Object[] args) throws Exception {
+        try {
+            return method.invoke(instance, args);
+        } catch (InvocationTargetException e) {
+            throw unwrap(e);
+        }
+    }
+
+    /**
+     * @return the exception thrown by the invoked method, an error is thrown directly.
+     */
+    static Exception unwrap(InvocationTargetException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof Exception) {
+            return (Exception) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return e;
+    }
+
+    @Override
+    public String toString() {
+        return "reflective invoker of " + method;
+    }
+}
@@ -0,0 +1,222 @@
+package com.alibaba.webx.restful.model.param;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.alibaba.webx.restful.model.Parameter;
+import com.alibaba.webx.restful.model.converter.TypeConvertException;
+import com.alibaba.webx.restful.model.converter.TypeConverter;
+import com.alibaba.webx.restful.model.route.RouteMatch;
+import com.alibaba.webx.restful.process.RestfulRequestContext;
+
+/**
+ * The parameters of a resource method or constructor compiled into one resolver.
+ * <p>
+ * The parameters are grouped by source when the resolver is compiled, so that a request reads every source once: the
+ * cookie headers are parsed once per request for all the cookie parameters
+ * ({@link RestfulRequestContext#getCookieValue(String)}), the query string is scanned in one pass for all the query
+ * and default parameters ({@link QueryStringBinder}), a form body is streamed once for all the form parameters
+ * ({@link RestfulRequestContext#getFormParameter(String)}), and autowired beans are copied from a constant array.
+ * Matrix parameters are read in place from the matched path ({@link MatrixParameter}). Literal values are converted
+ * in place, without dispatching through the {@link Parameter} interface. Parameters of any other kind are resolved
+ * through the interface as before.
+ */
+public final class ArgumentResolver {
+
+    private static final Literal[]  EMPTY_LITERALS = new Literal[0];
+
+    private final int               size;
+
+    private final Literal[]         paths;
+    private final Literal[]         matrices;
+    private final Literal[]         queries;
+    private final QueryStringBinder queryBinder;
+    private final Literal[]         forms;
+    private final Literal[]         headers;
+    private final Literal[]         cookies;
+
+    private final int[]             constantIndexes;
+    private final Object[]          constants;
+
+    private final int[]             otherIndexes;
+    private final Parameter[]       others;
+
+    private ArgumentResolver(List<Parameter> parameterList){
+        this.size = parameterList.size();
+
+        List<Literal> pathList = new ArrayList<Literal>();
+        List<Literal> matrixList = new ArrayList<Literal>();
+        List<Literal> queryList = new ArrayList<Literal>();
+        List<Literal> formList = new ArrayList<Literal>();
+        List<Literal> headerList = new ArrayList<Literal>();
+        List<Literal> cookieList = new ArrayList<Literal>();
+        List<Integer> constantIndexList = new ArrayList<Integer>();
+        List<Object> constantList = new ArrayList<Object>();
+        List<Integer> otherIndexList = new ArrayList<Integer>();
+        List<Parameter> otherList = new ArrayList<Parameter>();
+
+        for (int i = 0; i < size; ++i) {
+            Parameter parameter = parameterList.get(i);
+            Class<?> parameterClass = parameter.getClass();
+
+            if (parameterClass == PathParameter.class) {
+                PathParameter pathParameter = (PathParameter) parameter;
+                pathList.add(new Literal(i, pathParameter, pathParameter.getSlot()));
+            } else if (parameterClass == MatrixParameter.class) {
+                matrixList.add(new Literal(i, (LiteralParameter) parameter, null));
+            } else if (parameterClass == DefaultParameter.class) {
+                DefaultParameter defaultParameter = (DefaultParameter) parameter;
+                queryList.add(new Literal(i, defaultParameter, defaultParameter.getSlot()));
+            } else if (parameterClass == QueryParameter.class) {
+                queryList.add(new Literal(i, (LiteralParameter) parameter, null));
+            } else if (parameterClass == FormParameter.class) {
+                formList.add(new Literal(i, (LiteralParameter) parameter, null));
+            } else if (parameterClass == HeaderParameter.class) {
+                headerList.add(new Literal(i, (LiteralParameter) parameter, null));
+            } else if (parameterClass == CookieParameter.class) {
+                cookieList.add(new Literal(i, (LiteralParameter) parameter, null));
+            } else if (parameterClass == AutowiredParameter.class) {
+                constantIndexList.add(i);
+                constantList.add(((AutowiredParameter) parameter).getObject());
+            } else {
+                otherIndexList.add(i);
+                otherList.add(parameter);
+            }
+        }
+
+        this.paths = pathList.toArray(EMPTY_LITERALS);
+        this.matrices = matrixList.toArray(EMPTY_LITERALS);
+        this.queries = queryList.toArray(EMPTY_LITERALS);
+        this.forms = formList.toArray(EMPTY_LITERALS);
+
+        String[] queryNames = new String[queries.length];
+        for (int i = 0; i < queries.length; ++i) {
+            queryNames[i] = queries[i].name;
+        }
+        this.queryBinder = new QueryStringBinder(queryNames);
+        this.headers = headerList.toArray(EMPTY_LITERALS);
+        this.cookies = cookieList.toArray(EMPTY_LITERALS);
+        this.constantIndexes = toIntArray(constantIndexList);
+        this.constants = constantList.toArray();
+        this.otherIndexes = toIntArray(otherIndexList);
+        this.others = otherList.toArray(new Parameter[otherList.size()]);
+    }
+
+    /**
+     * Compile a parameter list, the order of the arguments is the order of the list.
+     *
+     * @param parameters the parameters.
+     * @return the resolver.
+     */
+    public static ArgumentResolver compile(List<Parameter> parameters) {
+        return new ArgumentResolver(parameters);
+    }
+
+    private static int[] toIntArray(List<Integer> list) {
+        int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; ++i) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Object[] resolve(RestfulRequestContext requestContext) throws Exception {
+        Object[] args = new Object[size];
+        resolve(requestContext, args, 0);
+        return args;
+    }
+
+    /**
+     * Resolve the arguments into {@code args[offset, offset + size())}.
+     */
+    @SuppressWarnings("unchecked")
+    public void resolve(RestfulRequestContext requestContext, Object[] args, int offset) throws Exception {
+        for (int i = 0; i < constants.length; ++i) {
+            args[offset + constantIndexes[i]] = constants[i];
+        }
+
+        for (Literal literal : paths) {
+            String value = literal.slot.getValue(requestContext, literal.name);
+            args[offset + literal.index] = literal.convert(value);
+        }
+
+        if (matrices.length != 0) {
+            RouteMatch routeMatch = requestContext.getRouteMatch();
+            for (Literal literal : matrices) {
+                String value = null;
+                if (routeMatch != null) {
+                    value = MatrixParameter.getValue(routeMatch.getPath(), routeMatch.getEnd(), literal.name);
+                }
+                args[offset + literal.index] = literal.convert(value);
+            }
+        }
+
+        if (queries.length != 0) {
+            String[] values = queryBinder.bind(requestContext.getHttpRequest().getQueryString(),
+                                               requestContext.getQueryEncoding());
+            for (int i = 0; i < queries.length; ++i) {
+                Literal literal = queries[i];
+                String value = null;
+                if (literal.slot != null) {
+                    value = literal.slot.getValue(requestContext, literal.name);
+                }
+
+                if (value == null) {
+                    value = values[i];
+                }
+
+                // a default parameter may also be a field of a form
+                if (value == null && literal.slot != null && DefaultParameter.isForm(requestContext)) {
+                    value = requestContext.getFormParameter(literal.name);
+                }
+
+                args[offset + literal.index] = literal.convert(value);
+            }
+        }
+
+        for (Literal literal : forms) {
+            args[offset + literal.index] = literal.convert(requestContext.getFormParameter(literal.name));
+        }
+
+        for (Literal literal : headers) {
+            args[offset + literal.index] = literal.convert(requestContext.getHeaderValue(literal.name));
+        }
+
+        for (Literal literal : cookies) {
+            args[offset + literal.index] = literal.convert(requestContext.getCookieValue(literal.name));
+        }
+
+        for (int i = 0; i < others.length; ++i) {
+            args[offset + otherIndexes[i]] = others[i].getParameterValue(requestContext);
+        }
+    }
+
+    private static final class Literal {
+
+        final int              index;
+        final String           name;
+        final TypeConverter    typeConverter;
+        final Object           defaultValue;
+        final PathVariableSlot slot;
+
+        Literal(int index, LiteralParameter parameter, PathVariableSlot slot){
+            this.index = index;
+            this.name = parameter.getName();
+            this.typeConverter = parameter.getTypeConverter();
+            this.defaultValue = parameter.getDefaultValue();
+            this.slot = slot;
+        }
+
+        Object convert(String literalValue) throws TypeConvertException {
+            if (literalValue == null || literalValue.length() == 0) {
+                return defaultValue;
+            }
+
+            return typeConverter.convert(literalValue);
+        }
+    }
+}
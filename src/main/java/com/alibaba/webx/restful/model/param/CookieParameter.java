@@ -1,8 +1,5 @@
 package com.alibaba.webx.restful.model.param;
 
-import javax.servlet.http.Cookie;
-import javax.servlet.http.HttpServletRequest;
-
 import com.alibaba.webx.restful.model.Parameter;
 import com.alibaba.webx.restful.model.converter.TypeConverter;
 import com.alibaba.webx.restful.process.RestfulRequestContext;
@@ -15,19 +12,7 @@ public class CookieParameter extends LiteralParameter implements Parameter {
 
     @Override
     public String getLiteralValue(RestfulRequestContext requestContext) {
-        HttpServletRequest httpRequest = requestContext.getHttpRequest();
-
-        String cookieName = getName();
-
-        String value = null;
-        for (Cookie cookie : httpRequest.getCookies()) {
-            if (cookie.getName().equals(cookieName)) {
-                value = cookie.getValue();
-                break;
-            }
-        }
-
-        return value;
+        return requestContext.getCookieValue(getName());
     }
 
     @Override
@@ -1,30 +1,58 @@
 package com.alibaba.webx.restful.model.param;
 
+import java.io.IOException;
+
 import javax.servlet.http.HttpServletRequest;
 
-import com.alibaba.webx.restful.model.Parameter;
+import com.alibaba.webx.restful.model.PathVariableParameter;
 import com.alibaba.webx.restful.model.converter.TypeConverter;
 import com.alibaba.webx.restful.process.RestfulRequestContext;
 
-public class DefaultParameter extends LiteralParameter implements Parameter {
+public class DefaultParameter extends LiteralParameter implements PathVariableParameter {
+
+    private static final String    FORM_CONTENT_TYPE = "application/x-www-form-urlencoded";
+
+    private final PathVariableSlot slot              = new PathVariableSlot();
 
     public DefaultParameter(String name, TypeConverter typeConverter, Object defaultValue){
         super(name, typeConverter, defaultValue);
     }
 
     @Override
-    public String getLiteralValue(RestfulRequestContext requestContext) {
+    public void bindVariableIndex(int index) {
+        slot.bind(index);
+    }
+
+    PathVariableSlot getSlot() {
+        return slot;
+    }
+
+    @Override
+    public String getLiteralValue(RestfulRequestContext requestContext) throws IOException {
         String name = getName();
-        String value = requestContext.getPathVariables().get(name);
+        String value = slot.getValue(requestContext, name);
 
         if (value == null) {
             HttpServletRequest httpRequest = requestContext.getHttpRequest();
-            value = httpRequest.getParameter(name);
+            value = QueryStringBinder.getValue(httpRequest.getQueryString(), name, requestContext.getQueryEncoding());
+
+            if (value == null && isForm(requestContext)) {
+                value = requestContext.getFormParameter(name);
+            }
         }
 
         return value;
     }
 
+    /**
+     * @return true if the body of the request is a form, whose fields are also bound to default parameters.
+     */
+    static boolean isForm(RestfulRequestContext requestContext) {
+        String contentType = requestContext.getHeaderValue(RestfulRequestContext.CONTENT_TYPE);
+        return contentType != null
+               && contentType.regionMatches(true, 0, FORM_CONTENT_TYPE, 0, FORM_CONTENT_TYPE.length());
+    }
+
     @Override
     public Source getSource() {
         return Source.UNKNOWN;
@@ -0,0 +1,18 @@
+package com.alibaba.webx.restful.model.param;
+
+import com.alibaba.webx.restful.model.Parameter;
+import com.alibaba.webx.restful.process.RestfulRequestContext;
+
+public class ExecutionContextParameter implements Parameter {
+
+    @Override
+    public Object getParameterValue(RestfulRequestContext requestContext) {
+        return requestContext.getExecutionContext();
+    }
+
+    @Override
+    public Source getSource() {
+        return Source.CONTEXT;
+    }
+
+}
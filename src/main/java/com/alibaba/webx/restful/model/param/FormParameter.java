@@ -1,6 +1,6 @@
 package com.alibaba.webx.restful.model.param;
 
-import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
 
 import com.alibaba.webx.restful.model.Parameter;
 import com.alibaba.webx.restful.model.converter.TypeConverter;
@@ -13,9 +13,8 @@ public class FormParameter extends LiteralParameter implements Parameter {
     }
 
     @Override
-    public String getLiteralValue(RestfulRequestContext requestContext) {
-        HttpServletRequest httpRequest = requestContext.getHttpRequest();
-        return httpRequest.getParameter(getName());
+    public String getLiteralValue(RestfulRequestContext requestContext) throws IOException {
+        return requestContext.getFormParameter(getName());
     }
 
     @Override
@@ -1,21 +1,31 @@
 package com.alibaba.webx.restful.model.param;
 
-import javax.servlet.http.HttpServletRequest;
+import java.util.Locale;
 
 import com.alibaba.webx.restful.model.Parameter;
 import com.alibaba.webx.restful.model.converter.TypeConverter;
 import com.alibaba.webx.restful.process.RestfulRequestContext;
 
+/**
+ * The first value of a request header. The header name is normalized when the parameter is created, so that the
+ * headers shared by the request context ({@link RestfulRequestContext#getHeaderValue(String)}) are found by reference.
+ */
 public class HeaderParameter extends LiteralParameter implements Parameter {
 
     public HeaderParameter(String name, TypeConverter typeConverter, Object defaultValue){
-        super(name, typeConverter, defaultValue);
+        super(normalize(name), typeConverter, defaultValue);
+    }
+
+    /**
+     * Normalize a header name, header names are case insensitive.
+     */
+    public static String normalize(String name) {
+        return name.toLowerCase(Locale.ENGLISH).intern();
     }
 
     @Override
     public String getLiteralValue(RestfulRequestContext requestContext) {
-        HttpServletRequest httpRequest = requestContext.getHttpRequest();
-        return httpRequest.getHeader(getName());
+        return requestContext.getHeaderValue(getName());
     }
 
     @Override
@@ -0,0 +1,74 @@
+package com.alibaba.webx.restful.model.param;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+
+import com.alibaba.webx.restful.model.Parameter;
+import com.alibaba.webx.restful.model.converter.TypeConvertException;
+import com.alibaba.webx.restful.model.converter.TypeConverter;
+import com.alibaba.webx.restful.process.RestfulRequestContext;
+
+/**
+ * All the values of a request header, bound to a {@link List} or an array parameter. Every header line is a value,
+ * converted by the converter of the element type; a header without value is bound to an empty list or array, or to
+ * the default value.
+ */
+public class HeaderValuesParameter implements Parameter {
+
+    private final String        name;
+    private final TypeConverter elementConverter;
+    private final Class<?>      arrayComponentType;
+    private final String        defaultValue;
+
+    /**
+     * @param arrayComponentType the component type of an array parameter, or {@code null} for a {@link List}.
+     * @param defaultValue the literal default value, or {@code null}.
+     */
+    public HeaderValuesParameter(String name, TypeConverter elementConverter, Class<?> arrayComponentType,
+                                 String defaultValue){
+        this.name = HeaderParameter.normalize(name);
+        this.elementConverter = elementConverter;
+        this.arrayComponentType = arrayComponentType;
+        this.defaultValue = defaultValue;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getParameterValue(RestfulRequestContext requestContext) throws TypeConvertException {
+        List<Object> values = new ArrayList<Object>(1);
+
+        Enumeration<?> e = requestContext.getHttpRequest().getHeaders(name);
+        while (e != null && e.hasMoreElements()) {
+            String value = (String) e.nextElement();
+            if (value != null && value.length() != 0) {
+                values.add(elementConverter.convert(value));
+            }
+        }
+
+        if (values.isEmpty() && defaultValue != null) {
+            values = Collections.singletonList(elementConverter.convert(defaultValue));
+        }
+
+        if (arrayComponentType == null) {
+            return values;
+        }
+
+        Object array = Array.newInstance(arrayComponentType, values.size());
+        for (int i = 0; i < values.size(); ++i) {
+            Array.set(array, i, values.get(i));
+        }
+        return array;
+    }
+
+    @Override
+    public Source getSource() {
+        return Source.HEADER;
+    }
+
+}
@@ -1,5 +1,7 @@
 package com.alibaba.webx.restful.model.param;
 
+import java.io.IOException;
+
 import com.alibaba.webx.restful.model.Parameter;
 import com.alibaba.webx.restful.model.converter.TypeConvertException;
 import com.alibaba.webx.restful.model.converter.TypeConverter;
@@ -19,7 +21,7 @@ public abstract class LiteralParameter implements Parameter {
     }
 
     @Override
-    public Object getParameterValue(RestfulRequestContext requestContext) throws TypeConvertException {
+    public Object getParameterValue(RestfulRequestContext requestContext) throws TypeConvertException, IOException {
         String literalValue = getLiteralValue(requestContext);
 
         if (literalValue == null || literalValue.length() == 0) {
@@ -29,7 +31,7 @@ public abstract class LiteralParameter implements Parameter {
         return typeConverter.convert(literalValue);
     }
 
-    public abstract String getLiteralValue(RestfulRequestContext requestContext);
+    public abstract String getLiteralValue(RestfulRequestContext requestContext) throws IOException;
 
     public String getName() {
         return name;
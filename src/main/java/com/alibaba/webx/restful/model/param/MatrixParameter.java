@@ -0,0 +1,94 @@
+package com.alibaba.webx.restful.model.param;
+
+import com.alibaba.webx.restful.model.Parameter;
+import com.alibaba.webx.restful.model.converter.TypeConverter;
+import com.alibaba.webx.restful.model.route.RouteMatch;
+import com.alibaba.webx.restful.model.uri.UriComponent;
+import com.alibaba.webx.restful.process.RestfulRequestContext;
+
+/**
+ * A matrix parameter of the last segment of the matched path, such as {@code color} in
+ * {@code /products/list;color=red;size=10}.
+ * <p>
+ * The {@code ;name=value} pairs are read in place from the request path, at the end offset of the route match, no
+ * {@link javax.ws.rs.core.PathSegment} is built. Only the value of the declared name is decoded, as by
+ * {@link UriComponent#decodeMatrix(String, boolean)}; the first value of the name is bound.
+ */
+public class MatrixParameter extends LiteralParameter implements Parameter {
+
+    public MatrixParameter(String name, TypeConverter typeConverter, Object defaultValue){
+        super(name, typeConverter, defaultValue);
+    }
+
+    @Override
+    public String getLiteralValue(RestfulRequestContext requestContext) {
+        RouteMatch routeMatch = requestContext.getRouteMatch();
+        if (routeMatch == null) {
+            return null;
+        }
+        return getValue(routeMatch.getPath(), routeMatch.getEnd(), getName());
+    }
+
+    /**
+     * Look up a matrix parameter of the last path segment ending at {@code end}.
+     *
+     * @return the decoded value, "" for a name without value, or {@code null} if the segment has no such parameter.
+     */
+    static String getValue(String path, int end, String name) {
+        while (end > 0 && path.charAt(end - 1) == '/') {
+            end--;
+        }
+
+        int segmentStart = path.lastIndexOf('/', end - 1) + 1;
+        int start = path.indexOf(';', segmentStart);
+        if (start == -1 || start >= end) {
+            return null;
+        }
+
+        for (start++; start < end;) {
+            int pairEnd = path.indexOf(';', start);
+            if (pairEnd == -1 || pairEnd > end) {
+                pairEnd = end;
+            }
+
+            int eq = path.indexOf('=', start);
+            if (eq == -1 || eq > pairEnd) {
+                eq = pairEnd;
+            }
+
+            if (eq > start && matches(path, start, eq, name)) {
+                return (eq == pairEnd) ? "" : decode(path.substring(eq + 1, pairEnd));
+            }
+
+            start = pairEnd + 1;
+        }
+        return null;
+    }
+
+    private static boolean matches(String path, int start, int end, String name) {
+        int length = end - start;
+        if (length == name.length() && path.regionMatches(start, name, 0, length)) {
+            return true;
+        }
+
+        // an encoded name is longer than the declared one
+        if (length > name.length() && path.indexOf('%', start) != -1 && path.indexOf('%', start) < end) {
+            return name.equals(decode(path.substring(start, end)));
+        }
+        return false;
+    }
+
+    private static String decode(String s) {
+        try {
+            return UriComponent.decode(s, UriComponent.Type.MATRIX_PARAM);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public Source getSource() {
+        return Source.MATRIX;
+    }
+
+}
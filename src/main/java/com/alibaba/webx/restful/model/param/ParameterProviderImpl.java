@@ -2,7 +2,9 @@ package com.alibaba.webx.restful.model.param;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Member;
+import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.List;
 import java.util.Map;
 
 import javax.servlet.http.HttpServletRequest;
@@ -10,10 +12,12 @@ import javax.servlet.http.HttpServletResponse;
 import javax.ws.rs.CookieParam;
 import javax.ws.rs.DefaultValue;
 import javax.ws.rs.FormParam;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.MatrixParam;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.ExecutionContext;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -53,6 +57,7 @@ public class ParameterProviderImpl implements ParameterProvider {
         DefaultValue defaultValueAnnotation = null;
 
         CookieParam cookieParam = null;
+        HeaderParam headerParam = null;
         FormParam formParam = null;
         QueryParam queryParam = null;
         PathParam pathParam = null;
@@ -70,6 +75,8 @@ public class ParameterProviderImpl implements ParameterProvider {
 
             } else if (annotationType == CookieParam.class) {
                 cookieParam = (CookieParam) annotation;
+            } else if (annotationType == HeaderParam.class) {
+                headerParam = (HeaderParam) annotation;
             } else if (annotationType == FormParam.class) {
                 formParam = (FormParam) annotation;
             } else if (annotationType == QueryParam.class) {
@@ -100,6 +107,15 @@ public class ParameterProviderImpl implements ParameterProvider {
             return new HttpServletResponseParameter();
         }
 
+        if (paramClass == ExecutionContext.class) {
+            return new ExecutionContextParameter();
+        }
+
+        if (headerParam != null && (paramClass == List.class || paramClass.isArray())) {
+            return createHeaderValuesParameter(method, headerParam.value(), paramClass, paramType, annotations,
+                                               defaultValueAnnotation);
+        }
+
         TypeConverter typeConverter = typeConverterProvider.create(paramClass, paramType, annotations);
         Object defaultValue = getDefaultValue(method, defaultValueAnnotation, typeConverter);
 
@@ -108,6 +124,11 @@ public class ParameterProviderImpl implements ParameterProvider {
             return new CookieParameter(cookieName, typeConverter, defaultValue);
         }
 
+        if (headerParam != null) {
+            String headerName = headerParam.value();
+            return new HeaderParameter(headerName, typeConverter, defaultValue);
+        }
+
         if (formParam != null) {
             String paramName = formParam.value();
             return new FormParameter(paramName, typeConverter, defaultValue);
@@ -124,8 +145,8 @@ public class ParameterProviderImpl implements ParameterProvider {
         }
 
         if (matrixParam != null) {
-            // TODO
-            throw new RuntimeException("TODO");
+            String paramName = matrixParam.value();
+            return new MatrixParameter(paramName, typeConverter, defaultValue);
         }
 
         if (autowired != null) {
@@ -151,6 +172,26 @@ public class ParameterProviderImpl implements ParameterProvider {
         return new DefaultParameter(name, typeConverter, defaultValue);
     }
 
+    private Parameter createHeaderValuesParameter(Member method, String headerName, Class<?> paramClass,
+                                                  Type paramType, Annotation[] annotations,
+                                                  DefaultValue defaultValueAnnotation) {
+        Class<?> elementClass;
+        Class<?> arrayComponentType = null;
+        if (paramClass.isArray()) {
+            elementClass = paramClass.getComponentType();
+            arrayComponentType = elementClass;
+        } else if (paramType instanceof ParameterizedType
+                   && ((ParameterizedType) paramType).getActualTypeArguments()[0] instanceof Class<?>) {
+            elementClass = (Class<?>) ((ParameterizedType) paramType).getActualTypeArguments()[0];
+        } else {
+            throw new ResourceConfigException("@HeaderParam List must declare its element class : " + method);
+        }
+
+        TypeConverter elementConverter = typeConverterProvider.create(elementClass, elementClass, annotations);
+        String defaultValue = (defaultValueAnnotation == null) ? null : defaultValueAnnotation.value();
+        return new HeaderValuesParameter(headerName, elementConverter, arrayComponentType, defaultValue);
+    }
+
     private Object getDefaultValue(Member method, DefaultValue defaultValueAnnotation, TypeConverter typeConverter) {
         Object defaultValue = null;
         if (defaultValueAnnotation != null) {
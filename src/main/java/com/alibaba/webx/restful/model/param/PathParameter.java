@@ -1,20 +1,29 @@
 package com.alibaba.webx.restful.model.param;
 
-import com.alibaba.webx.restful.model.Parameter;
+import com.alibaba.webx.restful.model.PathVariableParameter;
 import com.alibaba.webx.restful.model.converter.TypeConverter;
 import com.alibaba.webx.restful.process.RestfulRequestContext;
 
-public class PathParameter extends LiteralParameter implements Parameter {
+public class PathParameter extends LiteralParameter implements PathVariableParameter {
+
+    private final PathVariableSlot slot = new PathVariableSlot();
 
     public PathParameter(String name, TypeConverter typeConverter, Object defaultValue){
         super(name, typeConverter, defaultValue);
     }
 
+    @Override
+    public void bindVariableIndex(int index) {
+        slot.bind(index);
+    }
+
+    PathVariableSlot getSlot() {
+        return slot;
+    }
+
     @Override
     public String getLiteralValue(RestfulRequestContext requestContext) {
-        String varName = this.getName();
-        String value = requestContext.getPathVariables().get(varName);
-        return value;
+        return slot.getValue(requestContext, getName());
     }
 
     @Override
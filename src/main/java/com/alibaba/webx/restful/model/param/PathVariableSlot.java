@@ -0,0 +1,36 @@
+package com.alibaba.webx.restful.model.param;
+
+import com.alibaba.webx.restful.process.RestfulRequestContext;
+
+/**
+ * The variable index a path parameter is bound to.
+ * <p>
+ * A parameter reachable from several routes, such as a setter of a resource class, keeps its index as long as the
+ * variable is at the same position in all of them, otherwise the value is looked up by name.
+ */
+final class PathVariableSlot {
+
+    private static final int UNBOUND = -1;
+    private static final int BY_NAME = -2;
+
+    private int              index   = UNBOUND;
+
+    void bind(int index) {
+        if (index < 0) {
+            this.index = BY_NAME;
+        } else if (this.index == UNBOUND) {
+            this.index = index;
+        } else if (this.index != index) {
+            this.index = BY_NAME;
+        }
+    }
+
+    String getValue(RestfulRequestContext requestContext, String name) {
+        int index = this.index;
+        if (index >= 0) {
+            return requestContext.getPathVariable(index);
+        }
+
+        return requestContext.getPathVariable(name);
+    }
+}
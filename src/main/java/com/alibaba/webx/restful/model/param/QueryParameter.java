@@ -15,7 +15,7 @@ public class QueryParameter extends LiteralParameter implements Parameter {
     @Override
     public String getLiteralValue(RestfulRequestContext requestContext) {
         HttpServletRequest httpRequest = requestContext.getHttpRequest();
-        return httpRequest.getParameter(getName());
+        return QueryStringBinder.getValue(httpRequest.getQueryString(), getName(), requestContext.getQueryEncoding());
     }
 
     @Override
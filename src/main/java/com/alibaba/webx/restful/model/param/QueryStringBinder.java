@@ -0,0 +1,142 @@
+package com.alibaba.webx.restful.model.param;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+
+import com.alibaba.webx.restful.model.uri.UriComponent;
+
+/**
+ * Binds the query parameters of a parameter list in one pass over the raw query string.
+ * <p>
+ * The names are known when the parameter list is compiled, so a request scans {@link #bind(String)} the query string
+ * once, compares every name in place against the name table, and decodes only the values that are bound. The request
+ * parameter map of the container is not built, and the request body is never read. As with
+ * {@link javax.servlet.ServletRequest#getParameter(String)}, the first value of a name is bound; a value with a
+ * malformed percent-encoded octet is ignored. The octets are decoded with the charset of
+ * {@link com.alibaba.webx.restful.process.RestfulRequestContext#getQueryEncoding()}, as the container decodes its
+ * request parameters.
+ */
+final class QueryStringBinder {
+
+    private final String[] names;
+
+    QueryStringBinder(String[] names){
+        this.names = names;
+    }
+
+    int size() {
+        return names.length;
+    }
+
+    /**
+     * @param queryString the raw query string of the request, may be null.
+     * @param charset the charset of the percent-encoded octets.
+     * @return the decoded values, in the order of the names, {@code null} for a name not in the query string.
+     */
+    String[] bind(String queryString, String charset) {
+        String[] values = new String[names.length];
+        if (queryString == null || queryString.length() == 0) {
+            return values;
+        }
+
+        int found = 0;
+        int length = queryString.length();
+        for (int start = 0; start < length && found < names.length;) {
+            int end = queryString.indexOf('&', start);
+            if (end == -1) {
+                end = length;
+            }
+
+            int eq = queryString.indexOf('=', start);
+            if (eq == -1 || eq > end) {
+                eq = end;
+            }
+
+            for (int i = 0; i < names.length; ++i) {
+                if (values[i] == null && matches(queryString, start, eq, names[i], charset)) {
+                    values[i] = decodeValue(queryString, eq, end, charset);
+                    if (values[i] != null) {
+                        found++;
+                    }
+                }
+            }
+
+            start = end + 1;
+        }
+
+        return values;
+    }
+
+    /**
+     * Look up the first value of a single name, for a parameter resolved outside of a compiled parameter list.
+     */
+    static String getValue(String queryString, String name, String charset) {
+        if (queryString == null || queryString.length() == 0) {
+            return null;
+        }
+
+        int length = queryString.length();
+        for (int start = 0; start < length;) {
+            int end = queryString.indexOf('&', start);
+            if (end == -1) {
+                end = length;
+            }
+
+            int eq = queryString.indexOf('=', start);
+            if (eq == -1 || eq > end) {
+                eq = end;
+            }
+
+            if (matches(queryString, start, eq, name, charset)) {
+                String value = decodeValue(queryString, eq, end, charset);
+                if (value != null) {
+                    return value;
+                }
+            }
+
+            start = end + 1;
+        }
+
+        return null;
+    }
+
+    private static boolean matches(String queryString, int start, int end, String name, String charset) {
+        int length = end - start;
+        if (length == 0) {
+            return false;
+        }
+
+        if (length == name.length() && queryString.regionMatches(start, name, 0, length)) {
+            return true;
+        }
+
+        // an encoded name is longer or contains '+', decode it before comparing
+        for (int i = start; i < end; ++i) {
+            char c = queryString.charAt(i);
+            if (c == '%' || c == '+') {
+                return name.equals(decode(queryString.substring(start, end), charset));
+            }
+        }
+        return false;
+    }
+
+    private static String decodeValue(String queryString, int eq, int end, String charset) {
+        if (eq >= end - 1) {
+            return "";
+        }
+        return decode(queryString.substring(eq + 1, end), charset);
+    }
+
+    private static String decode(String s, String charset) {
+        try {
+            if ("UTF-8".equalsIgnoreCase(charset)) {
+                return UriComponent.decode(s, UriComponent.Type.QUERY_PARAM);
+            }
+            return URLDecoder.decode(s, charset);
+        } catch (IllegalArgumentException e) {
+            return null;
+        } catch (UnsupportedEncodingException e) {
+            return null;
+        }
+    }
+}
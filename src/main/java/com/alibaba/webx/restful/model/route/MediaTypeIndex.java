@@ -0,0 +1,194 @@
+package com.alibaba.webx.restful.model.route;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.ws.rs.core.MediaType;
+
+import com.alibaba.webx.restful.model.ResourceConfigException;
+
+/**
+ * The candidate routes of one HTTP method on one path, with their {@code @Consumes} and {@code @Produces} media types
+ * compiled into bit masks: bit {@code i} of a mask stands for candidate {@code i}.
+ * <p>
+ * Candidates are in rank order, so when several candidates accept a request the lowest set bit wins. Media types are
+ * looked up by lower case type and subtype, the media types of the request are expected to be normalized the same way.
+ */
+public final class MediaTypeIndex {
+
+    /**
+     * The maximum number of candidates, one bit of a {@code long} each.
+     */
+    public static final int     MAX_CANDIDATES = 64;
+
+    private final Route[]       candidates;
+    private final MediaType[][] producedTypes;
+    private final long          allMask;
+    private final MaskTable     consumes       = new MaskTable();
+    private final MaskTable     produces       = new MaskTable();
+    private final boolean       trivial;
+
+    MediaTypeIndex(Route[] candidates){
+        if (candidates.length > MAX_CANDIDATES) {
+            throw new ResourceConfigException("too many resource methods for " + candidates[0] + ", max "
+                                              + MAX_CANDIDATES);
+        }
+
+        this.candidates = candidates;
+        this.producedTypes = new MediaType[candidates.length][];
+        this.allMask = (candidates.length == MAX_CANDIDATES) ? -1L : (1L << candidates.length) - 1;
+
+        boolean declared = false;
+        for (int i = 0; i < candidates.length; ++i) {
+            List<MediaType> consumedTypes = candidates[i].getResourceMethod().getConsumedTypes();
+            List<MediaType> produced = candidates[i].getResourceMethod().getProducedTypes();
+
+            consumes.addAll(consumedTypes, i);
+            produces.addAll(produced, i);
+            producedTypes[i] = produced.toArray(new MediaType[produced.size()]);
+
+            declared |= !consumedTypes.isEmpty() || !produced.isEmpty();
+        }
+        consumes.allMask = allMask;
+        produces.allMask = allMask;
+
+        this.trivial = candidates.length == 1 && !declared;
+    }
+
+    public Route[] getCandidates() {
+        return candidates;
+    }
+
+    public Route getCandidate(int index) {
+        return candidates[index];
+    }
+
+    /**
+     * @return true if there is a single candidate which declares no media types, so no negotiation is needed.
+     */
+    public boolean isTrivial() {
+        return trivial;
+    }
+
+    /**
+     * Get the candidates which consume the request entity.
+     * 
+     * @param contentType the normalized media type of the request entity, or {@code null} if there is no entity.
+     * @return the mask of the candidates.
+     */
+    public long getConsumingMask(MediaType contentType) {
+        return (contentType == null) ? allMask : consumes.match(contentType);
+    }
+
+    /**
+     * Get the candidates which produce a media type compatible with an acceptable media type.
+     * 
+     * @param accepted a normalized acceptable media type, may be a wildcard.
+     * @return the mask of the candidates.
+     */
+    public long getProducingMask(MediaType accepted) {
+        return produces.match(accepted);
+    }
+
+    /**
+     * Get the media type of the response when a candidate is selected for an acceptable media type.
+     * 
+     * @param index the candidate index.
+     * @param accepted the acceptable media type the candidate was selected for.
+     * @return the response media type, or {@code null} if neither the candidate nor the acceptable media type is
+     * concrete. A candidate which declares no {@code @Produces} keeps the default JSON response, so {@code null}
+     * unless a JSON media type is accepted.
+     */
+    public MediaType getResponseType(int index, MediaType accepted) {
+        if (producedTypes[index].length == 0) {
+            return isJson(accepted) ? accepted : null;
+        }
+
+        if (!accepted.isWildcardType() && !accepted.isWildcardSubtype()) {
+            return accepted;
+        }
+
+        MediaType first = null;
+        for (MediaType produced : producedTypes[index]) {
+            if (produced.isWildcardType() || produced.isWildcardSubtype()) {
+                continue;
+            }
+            if (accepted.isCompatible(produced)) {
+                return produced;
+            }
+            if (first == null) {
+                first = produced;
+            }
+        }
+        return first;
+    }
+
+    private static boolean isJson(MediaType mediaType) {
+        String subtype = mediaType.getSubtype().toLowerCase();
+        return "application".equalsIgnoreCase(mediaType.getType())
+               && (subtype.equals("json") || subtype.endsWith("+json"));
+    }
+
+    private static final class MaskTable {
+
+        private final Map<String, Map<String, Long>> exact        = new HashMap<String, Map<String, Long>>();
+        private final Map<String, Long>              typeWildcard = new HashMap<String, Long>();
+        private final Map<String, Long>              byType       = new HashMap<String, Long>();
+        private long                                 any;
+        private long                                 allMask;
+
+        void addAll(List<MediaType> mediaTypes, int index) {
+            long bit = 1L << index;
+            if (mediaTypes.isEmpty()) {
+                any |= bit;
+                return;
+            }
+
+            for (MediaType mediaType : mediaTypes) {
+                String type = mediaType.getType().toLowerCase();
+                String subtype = mediaType.getSubtype().toLowerCase();
+
+                if (mediaType.isWildcardType()) {
+                    any |= bit;
+                    continue;
+                }
+
+                byType.put(type, get(byType, type) | bit);
+                if (mediaType.isWildcardSubtype()) {
+                    typeWildcard.put(type, get(typeWildcard, type) | bit);
+                } else {
+                    Map<String, Long> subtypes = exact.get(type);
+                    if (subtypes == null) {
+                        subtypes = new HashMap<String, Long>();
+                        exact.put(type, subtypes);
+                    }
+                    subtypes.put(subtype, get(subtypes, subtype) | bit);
+                }
+            }
+        }
+
+        long match(MediaType mediaType) {
+            if (mediaType.isWildcardType()) {
+                return allMask;
+            }
+
+            String type = mediaType.getType();
+            if (mediaType.isWildcardSubtype()) {
+                return any | get(byType, type);
+            }
+
+            long mask = any | get(typeWildcard, type);
+            Map<String, Long> subtypes = exact.get(type);
+            if (subtypes != null) {
+                mask |= get(subtypes, mediaType.getSubtype());
+            }
+            return mask;
+        }
+
+        private static long get(Map<String, Long> map, String key) {
+            Long mask = map.get(key);
+            return (mask == null) ? 0L : mask.longValue();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.alibaba.webx.restful.model.route;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import javax.ws.rs.HttpMethod;
+
+/**
+ * The routes of one route node keyed by HTTP method, with the {@code Allow} header value precomputed.
+ * <p>
+ * {@code HEAD} requests are served by the {@code GET} routes unless {@code HEAD} is declared explicitly.
+ */
+public final class MethodTable {
+
+    private final Map<String, MediaTypeIndex> routes;
+    private final String                      allow;
+
+    MethodTable(Route[] routes){
+        Map<String, List<Route>> grouped = new HashMap<String, List<Route>>();
+        for (Route route : routes) {
+            String httpMethod = route.getResourceMethod().getHttpMethod();
+            List<Route> list = grouped.get(httpMethod);
+            if (list == null) {
+                list = new ArrayList<Route>(1);
+                grouped.put(httpMethod, list);
+            }
+            list.add(route);
+        }
+
+        if (!grouped.containsKey(HttpMethod.HEAD) && grouped.containsKey(HttpMethod.GET)) {
+            grouped.put(HttpMethod.HEAD, grouped.get(HttpMethod.GET));
+        }
+
+        Map<List<Route>, MediaTypeIndex> indexes = new IdentityHashMap<List<Route>, MediaTypeIndex>();
+        this.routes = new HashMap<String, MediaTypeIndex>(grouped.size() * 2);
+        for (Map.Entry<String, List<Route>> entry : grouped.entrySet()) {
+            List<Route> list = entry.getValue();
+            MediaTypeIndex index = indexes.get(list);
+            if (index == null) {
+                index = new MediaTypeIndex(list.toArray(new Route[list.size()]));
+                indexes.put(list, index);
+            }
+            this.routes.put(entry.getKey(), index);
+        }
+
+        TreeSet<String> methods = new TreeSet<String>(grouped.keySet());
+        methods.add(HttpMethod.OPTIONS);
+
+        StringBuilder buf = new StringBuilder();
+        for (String method : methods) {
+            if (buf.length() != 0) {
+                buf.append(", ");
+            }
+            buf.append(method);
+        }
+        this.allow = buf.toString();
+    }
+
+    /**
+     * Get the routes declared for an HTTP method.
+     *
+     * @param httpMethod the HTTP method of the request.
+     * @return the routes with their media types, or {@code null} if the method is not allowed.
+     */
+    public MediaTypeIndex get(String httpMethod) {
+        return routes.get(httpMethod);
+    }
+
+    /**
+     * Get the value of the {@code Allow} header.
+     *
+     * @return the allowed methods.
+     */
+    public String getAllow() {
+        return allow;
+    }
+}
@@ -0,0 +1,140 @@
+package com.alibaba.webx.restful.model.route;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.alibaba.webx.restful.model.Resource;
+
+/**
+ * The routers of an application partitioned by virtual host and API version.
+ * <p>
+ * Every partition is a {@link Router} compiled from the resources served to one (host, version) pair: the resources
+ * restricted to that host or version, and the resources which are not restricted at all. A request is matched against
+ * the router of its own partition only, so the cost of a match does not grow with the routes of other tenants or other
+ * versions. Hosts and versions which no resource is restricted to fall into partition 0, made of the unrestricted
+ * resources.
+ * <p>
+ * When no resource is restricted there is a single partition, and {@link #getRouter()} is the whole routing table.
+ */
+public final class PartitionedRouter {
+
+    private final Map<String, Integer> hostIndexes;
+    private final String[]             versions;
+    private final Router[]             routers;
+
+    public PartitionedRouter(Collection<Resource> resources){
+        Set<String> hostSet = new LinkedHashSet<String>();
+        Set<String> versionSet = new LinkedHashSet<String>();
+        for (Resource resource : resources) {
+            hostSet.addAll(resource.getVirtualHosts());
+            versionSet.addAll(resource.getApiVersions());
+        }
+
+        String[] hosts = new String[hostSet.size() + 1];
+        this.hostIndexes = new HashMap<String, Integer>();
+        int hostIndex = 1;
+        for (String host : hostSet) {
+            hosts[hostIndex] = host;
+            hostIndexes.put(host, hostIndex++);
+        }
+
+        this.versions = new String[versionSet.size() + 1];
+        int versionIndex = 1;
+        for (String version : versionSet) {
+            versions[versionIndex++] = version;
+        }
+
+        this.routers = new Router[hosts.length * versions.length];
+        for (int i = 0; i < hosts.length; ++i) {
+            for (int j = 0; j < versions.length; ++j) {
+                List<Resource> partition = new ArrayList<Resource>();
+                for (Resource resource : resources) {
+                    if (isServed(resource.getVirtualHosts(), hosts[i])
+                        && isServed(resource.getApiVersions(), versions[j])) {
+                        partition.add(resource);
+                    }
+                }
+                routers[i * versions.length + j] = new Router(partition);
+            }
+        }
+    }
+
+    private static boolean isServed(List<String> restriction, String value) {
+        return restriction.isEmpty() || (value != null && restriction.contains(value));
+    }
+
+    public boolean isPartitioned() {
+        return routers.length != 1;
+    }
+
+    public int getPartitionCount() {
+        return routers.length;
+    }
+
+    /**
+     * Get the partition of a request.
+     *
+     * @param hostIndex the index given by {@link #getHostIndex(String)}.
+     * @param versionIndex the index given by {@link #getVersionIndex(String)}.
+     * @return the partition, from 0 to {@link #getPartitionCount()} exclusive.
+     */
+    public int getPartition(int hostIndex, int versionIndex) {
+        return hostIndex * versions.length + versionIndex;
+    }
+
+    /**
+     * @param host the lower case host name of a request, or {@code null}.
+     * @return the index of the host, 0 if no resource is restricted to it.
+     */
+    public int getHostIndex(String host) {
+        if (host == null || hostIndexes.isEmpty()) {
+            return 0;
+        }
+
+        Integer index = hostIndexes.get(host);
+        return (index == null) ? 0 : index.intValue();
+    }
+
+    /**
+     * @param version the API version of a request, or {@code null}.
+     * @return the index of the version, 0 if no resource is restricted to it.
+     */
+    public int getVersionIndex(String version) {
+        if (version == null) {
+            return 0;
+        }
+        return getVersionIndex(version, 0, version.length());
+    }
+
+    /**
+     * Get the index of the version {@code path[start, end)}, without allocating a substring.
+     *
+     * @return the index of the version, 0 if no resource is restricted to it.
+     */
+    public int getVersionIndex(String path, int start, int end) {
+        int length = end - start;
+        for (int i = 1; i < versions.length; ++i) {
+            String version = versions[i];
+            if (version.length() == length && path.regionMatches(start, version, 0, length)) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    public Router getRouter(int partition) {
+        return routers[partition];
+    }
+
+    /**
+     * @return the router of the unrestricted resources.
+     */
+    public Router getRouter() {
+        return routers[0];
+    }
+}
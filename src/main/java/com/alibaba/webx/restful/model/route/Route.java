@@ -0,0 +1,54 @@
+package com.alibaba.webx.restful.model.route;
+
+import com.alibaba.webx.restful.model.Resource;
+import com.alibaba.webx.restful.model.ResourceMethod;
+
+/**
+ * A compiled route: the resource method reachable under the full path template made of the resource path and the
+ * method path.
+ */
+public final class Route {
+
+    private final Resource       resource;
+    private final ResourceMethod resourceMethod;
+    private final String         template;
+    private final String[]       variableNames;
+
+    public Route(Resource resource, ResourceMethod resourceMethod, String template, String[] variableNames){
+        this.resource = resource;
+        this.resourceMethod = resourceMethod;
+        this.template = template;
+        this.variableNames = variableNames;
+    }
+
+    public Resource getResource() {
+        return resource;
+    }
+
+    public ResourceMethod getResourceMethod() {
+        return resourceMethod;
+    }
+
+    /**
+     * Get the full path template of this route, e.g. {@code /orders/{id}/{name}}.
+     *
+     * @return the full path template.
+     */
+    public String getTemplate() {
+        return template;
+    }
+
+    /**
+     * Get the template variable names in capturing order.
+     *
+     * @return the template variable names.
+     */
+    public String[] getVariableNames() {
+        return variableNames;
+    }
+
+    @Override
+    public String toString() {
+        return resourceMethod.getHttpMethod() + " " + template;
+    }
+}
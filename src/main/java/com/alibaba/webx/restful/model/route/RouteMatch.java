@@ -0,0 +1,113 @@
+package com.alibaba.webx.restful.model.route;
+
+import com.alibaba.webx.restful.model.ResourceMethod;
+
+/**
+ * The result of matching a request path against a {@link Router}.
+ * <p>
+ * Template variable values are not extracted eagerly, the matcher only records the start and end offsets of every
+ * captured variable in the request path.
+ * <p>
+ * The route of a match is the first of its candidates, the candidates are narrowed down by content negotiation with
+ * the {@link MediaTypeIndex}.
+ * <p>
+ * A match without a route means the path was matched but the HTTP method is not allowed, {@link #getAllow()} gives
+ * the methods which are.
+ * <p>
+ * A match is immutable and may be shared by concurrent requests through the route match cache.
+ */
+public final class RouteMatch {
+
+    private final Route          route;
+    private final String         path;
+    private final int[]          offsets;
+    private final int            end;
+    private final MethodTable    methodTable;
+    private final MediaTypeIndex mediaTypeIndex;
+    private final RouteMatch     parent;
+
+    /**
+     * Create the match of a sub-resource locator.
+     */
+    public RouteMatch(Route locator, String path, int[] offsets, int end, RouteMatch parent){
+        this(locator, path, offsets, end, null, null, parent);
+    }
+
+    public RouteMatch(Route route, String path, int[] offsets, int end, MethodTable methodTable,
+                      MediaTypeIndex mediaTypeIndex, RouteMatch parent){
+        this.route = route;
+        this.path = path;
+        this.offsets = offsets;
+        this.end = end;
+        this.methodTable = methodTable;
+        this.mediaTypeIndex = mediaTypeIndex;
+        this.parent = parent;
+    }
+
+    public Route getRoute() {
+        return route;
+    }
+
+    /**
+     * @return the candidate routes of the HTTP method, or {@code null} if the method is not allowed.
+     */
+    public MediaTypeIndex getMediaTypeIndex() {
+        return mediaTypeIndex;
+    }
+
+    /**
+     * @return true if the route is a sub-resource locator, the remaining path starts at {@link #getEnd()}.
+     */
+    public boolean isLocator() {
+        return route != null && route.getResourceMethod().getType() == ResourceMethod.JaxrsType.SUB_RESOURCE_LOCATOR;
+    }
+
+    /**
+     * Get the end of the matched template in the request path.
+     * 
+     * @return the end offset.
+     */
+    public int getEnd() {
+        return end;
+    }
+
+    /**
+     * Get the match of the sub-resource locator this match was found below.
+     * 
+     * @return the parent match, or {@code null} for a match of a root resource.
+     */
+    public RouteMatch getParent() {
+        return parent;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Get the captured offsets, the variable at index {@code i} spans {@code [offsets[2 * i], offsets[2 * i + 1])} of
+     * the request path. The array must not be modified.
+     *
+     * @return the captured offsets.
+     */
+    public int[] getOffsets() {
+        return offsets;
+    }
+
+    /**
+     * Get the value of the {@code Allow} header for the matched path.
+     *
+     * @return the allowed methods.
+     */
+    public String getAllow() {
+        return methodTable.getAllow();
+    }
+
+    public int getVariableCount() {
+        return route.getVariableNames().length;
+    }
+
+    public String getVariableValue(int index) {
+        return path.substring(offsets[index << 1], offsets[(index << 1) + 1]);
+    }
+}
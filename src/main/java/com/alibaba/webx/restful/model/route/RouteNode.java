@@ -0,0 +1,163 @@
+package com.alibaba.webx.restful.model.route;
+
+/**
+ * A node of the segment trie compiled by {@link Router}.
+ * <p>
+ * Literal children are kept in an open addressing table which is probed with a region of the request path, so that
+ * looking up a segment does not need to allocate a substring. Nodes are only mutated while the router is built.
+ */
+final class RouteNode {
+
+    private static final Route[] EMPTY_ROUTES = new Route[0];
+
+    private String[]             literalKeys  = new String[4];
+    private RouteNode[]          literalNodes = new RouteNode[4];
+    private int                  literalCount;
+
+    private RouteNode            variable;
+
+    private Route[]              routes       = EMPTY_ROUTES;
+    private int                  rank         = Integer.MAX_VALUE;
+
+    private MethodTable          methodTable;
+
+    private Route                locator;
+    private int                  locatorRank  = Integer.MAX_VALUE;
+
+    RouteNode getOrAddLiteral(String segment) {
+        RouteNode node = findLiteral(segment, 0, segment.length());
+        if (node != null) {
+            return node;
+        }
+
+        if ((literalCount + 1) << 1 > literalKeys.length) {
+            resize(literalKeys.length << 1);
+        }
+
+        node = new RouteNode();
+        put(literalKeys, literalNodes, segment, node);
+        literalCount++;
+        return node;
+    }
+
+    RouteNode getOrAddVariable() {
+        if (variable == null) {
+            variable = new RouteNode();
+        }
+        return variable;
+    }
+
+    void addRoute(Route route, int rank) {
+        this.rank = Math.min(this.rank, rank);
+
+        Route[] newRoutes = new Route[routes.length + 1];
+        System.arraycopy(routes, 0, newRoutes, 0, routes.length);
+        newRoutes[routes.length] = route;
+        routes = newRoutes;
+    }
+
+    /**
+     * Set the sub-resource locator of this node, the first locator added wins.
+     */
+    void setLocator(Route route, int rank) {
+        if (locator == null) {
+            locator = route;
+            locatorRank = rank;
+        }
+    }
+
+    /**
+     * Build the method tables of this node and all of its descendants, called once all routes are added.
+     */
+    void compile() {
+        if (routes.length != 0) {
+            methodTable = new MethodTable(routes);
+        }
+
+        for (RouteNode node : literalNodes) {
+            if (node != null) {
+                node.compile();
+            }
+        }
+
+        if (variable != null) {
+            variable.compile();
+        }
+    }
+
+    RouteNode getVariable() {
+        return variable;
+    }
+
+    /**
+     * Get the rank of the most specific route of this node, lower is more specific.
+     */
+    int getRank() {
+        return rank;
+    }
+
+    Route getLocator() {
+        return locator;
+    }
+
+    int getLocatorRank() {
+        return locatorRank;
+    }
+
+    MethodTable getMethodTable() {
+        return methodTable;
+    }
+
+    /**
+     * Find the literal child for the segment {@code path[start, end)}.
+     */
+    RouteNode findLiteral(String path, int start, int end) {
+        if (literalCount == 0) {
+            return null;
+        }
+
+        int length = end - start;
+        int mask = literalKeys.length - 1;
+        int i = hash(path, start, end) & mask;
+        for (;;) {
+            String key = literalKeys[i];
+            if (key == null) {
+                return null;
+            }
+            if (key.length() == length && path.regionMatches(start, key, 0, length)) {
+                return literalNodes[i];
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    private void resize(int capacity) {
+        String[] keys = new String[capacity];
+        RouteNode[] nodes = new RouteNode[capacity];
+        for (int i = 0; i < literalKeys.length; ++i) {
+            if (literalKeys[i] != null) {
+                put(keys, nodes, literalKeys[i], literalNodes[i]);
+            }
+        }
+        literalKeys = keys;
+        literalNodes = nodes;
+    }
+
+    private static void put(String[] keys, RouteNode[] nodes, String key, RouteNode node) {
+        int mask = keys.length - 1;
+        int i = hash(key, 0, key.length()) & mask;
+        while (keys[i] != null) {
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        nodes[i] = node;
+    }
+
+    private static int hash(String s, int start, int end) {
+        int h = 0;
+        for (int i = start; i < end; ++i) {
+            h = 31 * h + s.charAt(i);
+        }
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,467 @@
+package com.alibaba.webx.restful.model.route;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.MatchResult;
+
+import com.alibaba.webx.restful.model.InstanceConstructor;
+import com.alibaba.webx.restful.model.InstanceSetter;
+import com.alibaba.webx.restful.model.MultiInstanceConstructor;
+import com.alibaba.webx.restful.model.Parameter;
+import com.alibaba.webx.restful.model.PathVariableParameter;
+import com.alibaba.webx.restful.model.Resource;
+import com.alibaba.webx.restful.model.ResourceMethod;
+import com.alibaba.webx.restful.model.uri.PathPattern;
+import com.alibaba.webx.restful.model.uri.PathPatternComparator;
+import com.alibaba.webx.restful.model.uri.UriComponent;
+
+/**
+ * Immutable routing table compiled from the resource model at startup.
+ * <p>
+ * Templates made of literal segments and plain {@code {var}} segments are compiled into a segment trie: literal
+ * segments are looked up by hash and variable segments are captured by offset, so the cost of a match depends on the
+ * depth of the path instead of the number of routes. Templates which can not be split into whole segments, such as
+ * {@code {id: \d+}} or {@code {name}.json}, fall back to matching their whole {@link PathPattern}.
+ * <p>
+ * All routes are ranked once by the specificity of their templates ({@link PathPatternComparator}). The pattern routes
+ * are kept in rank order, and a trie hit is only overridden by a pattern route which ranks before it, so overlapping
+ * templates always resolve to the same method whatever order the resources were registered in.
+ * <p>
+ * Every matched path owns a {@link MethodTable}, so once the path is matched the resource method is selected by HTTP
+ * method without falling through to another resource.
+ * <p>
+ * A sub-resource locator matches its template followed by any remaining path. It is only selected when no resource
+ * method matches the whole path below it, the remaining path is then matched by the router of the sub-resource class
+ * starting at {@link RouteMatch#getEnd()}.
+ * <p>
+ * While the routes are added, every {@link PathVariableParameter} reachable from a route is bound to the index of its
+ * variable, so binding a path parameter reads the captured offsets directly.
+ * <p>
+ * The matrix parameters of a segment, from its first ';', are skipped when the segment is matched against the trie
+ * and are not captured by a variable; they stay in the request path for {@code @MatrixParam}.
+ */
+public final class Router {
+
+    private final RouteNode          root = new RouteNode();
+    private final PatternRoute[]     patternRoutes;
+    private final int                maxVariables;
+
+    public Router(Collection<Resource> resources){
+        List<RouteDefinition> definitions = new ArrayList<RouteDefinition>();
+        for (Resource resource : resources) {
+            for (ResourceMethod resourceMethod : resource.getResourceMethods()) {
+                definitions.add(new RouteDefinition(resource, resourceMethod, null));
+            }
+            for (ResourceMethod resourceMethod : resource.getSubResourceMethods()) {
+                definitions.add(new RouteDefinition(resource, resourceMethod, resourceMethod.getPath()));
+            }
+            for (ResourceMethod resourceMethod : resource.getSubResourceLocators()) {
+                definitions.add(new RouteDefinition(resource, resourceMethod, resourceMethod.getPath()));
+            }
+        }
+        Collections.sort(definitions);
+
+        Map<String, PatternRoute> patternRouteMap = new LinkedHashMap<String, PatternRoute>();
+
+        int maxVariables = 0;
+        for (int rank = 0; rank < definitions.size(); ++rank) {
+            int count = addRoute(patternRouteMap, definitions.get(rank), rank);
+            maxVariables = Math.max(maxVariables, count);
+        }
+        this.maxVariables = maxVariables;
+
+        root.compile();
+
+        this.patternRoutes = patternRouteMap.values().toArray(new PatternRoute[patternRouteMap.size()]);
+        for (PatternRoute patternRoute : patternRoutes) {
+            patternRoute.compile();
+        }
+    }
+
+    /**
+     * Match a request.
+     *
+     * @param httpMethod the HTTP method of the request.
+     * @param path the request path, relative to the application.
+     * @return the match, or {@code null} if no route matches the path. If the path matches but the HTTP method is not
+     * allowed, the returned match has no route.
+     */
+    public RouteMatch match(String httpMethod, String path) {
+        return match(httpMethod, path, 0, null);
+    }
+
+    /**
+     * Match the remaining path of a request below a sub-resource locator.
+     *
+     * @param httpMethod the HTTP method of the request.
+     * @param path the request path, relative to the application.
+     * @param start the start of the remaining path.
+     * @param parent the match of the sub-resource locator.
+     * @return the match, or {@code null} if no route matches the remaining path.
+     */
+    public RouteMatch match(String httpMethod, String path, int start, RouteMatch parent) {
+        // the last element is the end of the matched template
+        int[] offsets = new int[(maxVariables << 1) + 1];
+
+        RouteNode node = find(root, path, start, 0, offsets);
+        int end = offsets[offsets.length - 1];
+        boolean locator = node != null && (node.getMethodTable() == null || end != path.length());
+
+        int rank = Integer.MAX_VALUE;
+        if (node != null) {
+            rank = locator ? node.getLocatorRank() : node.getRank();
+        }
+
+        for (int i = 0; i < patternRoutes.length && patternRoutes[i].rank < rank; ++i) {
+            PatternRoute patternRoute = patternRoutes[i];
+            int[] patternOffsets = patternRoute.match(path, start);
+            if (patternOffsets != null) {
+                int patternEnd = patternOffsets[patternOffsets.length - 1];
+                if (patternRoute.locator != null) {
+                    return new RouteMatch(patternRoute.locator, path, patternOffsets, patternEnd, parent);
+                }
+                return select(patternRoute.methodTable, httpMethod, path, patternOffsets, patternEnd, parent);
+            }
+        }
+
+        if (node == null) {
+            return null;
+        }
+
+        if (locator) {
+            return new RouteMatch(node.getLocator(), path, offsets, end, parent);
+        }
+        return select(node.getMethodTable(), httpMethod, path, offsets, end, parent);
+    }
+
+    private static RouteMatch select(MethodTable methodTable, String httpMethod, String path, int[] offsets, int end,
+                                     RouteMatch parent) {
+        MediaTypeIndex mediaTypeIndex = methodTable.get(httpMethod);
+        Route route = (mediaTypeIndex == null) ? null : mediaTypeIndex.getCandidate(0);
+        return new RouteMatch(route, path, offsets, end, methodTable, mediaTypeIndex, parent);
+    }
+
+    /**
+     * Find the node matching the path from {@code pos}, the end of the matched template is stored into the last element
+     * of the offsets. A node with a locator matches any remaining path if none of its children matches.
+     */
+    private static RouteNode find(RouteNode node, String path, int pos, int variableIndex, int[] offsets) {
+        final int length = path.length();
+        final int start = pos;
+        while (pos < length && path.charAt(pos) == '/') {
+            pos++;
+        }
+
+        if (pos == length) {
+            if (node.getMethodTable() == null && node.getLocator() == null) {
+                return null;
+            }
+            offsets[offsets.length - 1] = length;
+            return node;
+        }
+
+        int end = path.indexOf('/', pos);
+        if (end == -1) {
+            end = length;
+        }
+
+        // the matrix parameters of a segment are not part of its value
+        int segmentEnd = path.indexOf(';', pos);
+        if (segmentEnd == -1 || segmentEnd > end) {
+            segmentEnd = end;
+        }
+
+        RouteNode literal = node.findLiteral(path, pos, segmentEnd);
+        if (literal != null) {
+            RouteNode found = find(literal, path, end, variableIndex, offsets);
+            if (found != null) {
+                return found;
+            }
+        }
+
+        RouteNode variable = node.getVariable();
+        if (variable != null) {
+            offsets[variableIndex << 1] = pos;
+            offsets[(variableIndex << 1) + 1] = segmentEnd;
+            RouteNode found = find(variable, path, end, variableIndex + 1, offsets);
+            if (found != null) {
+                return found;
+            }
+        }
+
+        if (node.getLocator() != null) {
+            offsets[offsets.length - 1] = start;
+            return node;
+        }
+
+        return null;
+    }
+
+    private int addRoute(Map<String, PatternRoute> patternRouteMap, RouteDefinition definition, int rank) {
+        Resource resource = definition.resource;
+        ResourceMethod resourceMethod = definition.resourceMethod;
+        String template = definition.template;
+
+        boolean locator = resourceMethod.getType() == ResourceMethod.JaxrsType.SUB_RESOURCE_LOCATOR;
+
+        if (!definition.simple) {
+            String key = locator ? template + "/*" : template;
+            PatternRoute patternRoute = patternRouteMap.get(key);
+            if (patternRoute == null) {
+                patternRoute = new PatternRoute(template, locator, rank);
+                patternRouteMap.put(key, patternRoute);
+            }
+            Route route = new Route(resource, resourceMethod, template, patternRoute.variableNames);
+            if (!locator) {
+                patternRoute.routes.add(route);
+            } else if (patternRoute.locator == null) {
+                patternRoute.locator = route;
+            }
+            bindPathVariables(route);
+            return patternRoute.variableNames.length;
+        }
+
+        List<String> variableNames = new ArrayList<String>();
+        RouteNode node = root;
+        for (String segment : definition.segments) {
+            String variableName = getVariableName(segment);
+            if (variableName != null) {
+                variableNames.add(variableName);
+                node = node.getOrAddVariable();
+            } else {
+                node = node.getOrAddLiteral(UriComponent.contextualEncode(segment, UriComponent.Type.PATH));
+            }
+        }
+
+        String[] names = variableNames.toArray(new String[variableNames.size()]);
+        Route route = new Route(resource, resourceMethod, template, names);
+        if (locator) {
+            node.setLocator(route, rank);
+        } else {
+            node.addRoute(route, rank);
+        }
+        bindPathVariables(route);
+        return names.length;
+    }
+
+    private static void bindPathVariables(Route route) {
+        String[] names = route.getVariableNames();
+
+        InstanceConstructor constructor = route.getResourceMethod().getInvocable().getConstructor();
+        if (constructor instanceof MultiInstanceConstructor) {
+            MultiInstanceConstructor multiConstructor = (MultiInstanceConstructor) constructor;
+            for (Parameter parameter : multiConstructor.getParameters()) {
+                bindPathVariable(parameter, names);
+            }
+            for (InstanceSetter setter : multiConstructor.getSetters()) {
+                bindPathVariable(setter.getParameter(), names);
+            }
+        }
+
+        for (Parameter parameter : route.getResourceMethod().getInvocable().getParameters()) {
+            bindPathVariable(parameter, names);
+        }
+    }
+
+    private static void bindPathVariable(Parameter parameter, String[] names) {
+        if (!(parameter instanceof PathVariableParameter)) {
+            return;
+        }
+
+        PathVariableParameter pathParameter = (PathVariableParameter) parameter;
+        pathParameter.bindVariableIndex(indexOf(names, pathParameter.getName()));
+    }
+
+    private static int indexOf(String[] names, String name) {
+        for (int i = 0; i < names.length; ++i) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Split a path template into segments, '/' characters inside of a template variable are not separators.
+     */
+    static List<String> split(String template) {
+        List<String> segments = new ArrayList<String>();
+        if (template == null) {
+            return segments;
+        }
+
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i < template.length(); ++i) {
+            char c = template.charAt(i);
+            if (c == '{') {
+                depth++;
+            } else if (c == '}') {
+                depth--;
+            } else if (c == '/' && depth == 0) {
+                if (i > start) {
+                    segments.add(template.substring(start, i));
+                }
+                start = i + 1;
+            }
+        }
+        if (start < template.length()) {
+            segments.add(template.substring(start));
+        }
+        return segments;
+    }
+
+    /**
+     * Get the variable name if the segment is a single template variable without an explicit regular expression.
+     */
+    static String getVariableName(String segment) {
+        int length = segment.length();
+        if (length < 3 || segment.charAt(0) != '{' || segment.charAt(length - 1) != '}') {
+            return null;
+        }
+
+        String name = segment.substring(1, length - 1).trim();
+        if (name.length() == 0) {
+            return null;
+        }
+
+        char first = name.charAt(0);
+        if (!Character.isLetterOrDigit(first) && first != '_') {
+            return null;
+        }
+        for (int i = 1; i < name.length(); ++i) {
+            char c = name.charAt(i);
+            if (!Character.isLetterOrDigit(c) && c != '_' && c != '-' && c != '.') {
+                return null;
+            }
+        }
+        return name;
+    }
+
+    /**
+     * A route before it is compiled, ordered by the specificity of its template as defined by JAX-RS: the most
+     * specific template first. Ties are broken by resource name, HTTP method and java method, so the order does not
+     * depend on the order in which resources were registered.
+     */
+    private static final class RouteDefinition implements Comparable<RouteDefinition> {
+
+        private final Resource       resource;
+        private final ResourceMethod resourceMethod;
+        private final List<String>   segments;
+        private final String         template;
+        private final boolean        simple;
+        private final PathPattern    pathPattern;
+
+        RouteDefinition(Resource resource, ResourceMethod resourceMethod, String methodPath){
+            this.resource = resource;
+            this.resourceMethod = resourceMethod;
+
+            this.segments = split(resource.getPath());
+            segments.addAll(split(methodPath));
+
+            StringBuilder buf = new StringBuilder();
+            boolean simple = true;
+            for (String segment : segments) {
+                buf.append('/').append(segment);
+                if (segment.indexOf('{') != -1 && getVariableName(segment) == null) {
+                    simple = false;
+                }
+            }
+            if (buf.length() == 0) {
+                buf.append('/');
+            }
+            this.template = buf.toString();
+            this.simple = simple;
+            this.pathPattern = new PathPattern(template);
+        }
+
+        @Override
+        public int compareTo(RouteDefinition other) {
+            int i = PathPatternComparator.getInstance().compare(pathPattern, other.pathPattern);
+            if (i != 0) {
+                return i;
+            }
+            i = template.compareTo(other.template);
+            if (i != 0) {
+                return i;
+            }
+            i = compare(resource.getName(), other.resource.getName());
+            if (i != 0) {
+                return i;
+            }
+            i = compare(resourceMethod.getHttpMethod(), other.resourceMethod.getHttpMethod());
+            if (i != 0) {
+                return i;
+            }
+            Method method = resourceMethod.getResourceMethod();
+            Method otherMethod = other.resourceMethod.getResourceMethod();
+            i = method.getName().compareTo(otherMethod.getName());
+            if (i != 0) {
+                return i;
+            }
+            return method.toString().compareTo(otherMethod.toString());
+        }
+
+        private static int compare(String a, String b) {
+            if (a == null) {
+                return (b == null) ? 0 : 1;
+            }
+            return (b == null) ? -1 : a.compareTo(b);
+        }
+    }
+
+    private static final class PatternRoute {
+
+        private final PathPattern pathPattern;
+        private final String[]    variableNames;
+        private final int         rank;
+        private final List<Route> routes = new ArrayList<Route>();
+        private MethodTable       methodTable;
+        private Route             locator;
+
+        PatternRoute(String template, boolean locator, int rank){
+            if (locator) {
+                this.pathPattern = new PathPattern(template, PathPattern.RightHandPath.capturingZeroOrMoreSegments);
+            } else {
+                this.pathPattern = new PathPattern(template, PathPattern.RightHandPath.capturingZeroSegments);
+            }
+            this.rank = rank;
+
+            List<String> variables = pathPattern.getTemplate().getTemplateVariables();
+            this.variableNames = variables.toArray(new String[variables.size()]);
+        }
+
+        void compile() {
+            if (locator == null) {
+                methodTable = new MethodTable(routes.toArray(new Route[routes.size()]));
+            }
+        }
+
+        /**
+         * Match the path from {@code start}, the offsets are relative to the whole path and the last element is the
+         * end of the matched template.
+         */
+        int[] match(String path, int start) {
+            MatchResult result = pathPattern.match((start == 0) ? path : path.substring(start));
+            if (result == null) {
+                return null;
+            }
+
+            int count = variableNames.length;
+            int[] offsets = new int[(count << 1) + 1];
+            for (int i = 0; i < count; ++i) {
+                offsets[i << 1] = start + result.start(i + 1);
+                offsets[(i << 1) + 1] = start + result.end(i + 1);
+            }
+
+            int rightHandStart = result.start(count + 1);
+            offsets[count << 1] = (rightHandStart == -1) ? path.length() : start + rightHandStart;
+            return offsets;
+        }
+    }
+}
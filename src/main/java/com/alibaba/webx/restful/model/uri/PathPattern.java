@@ -1,6 +1,13 @@
 package com.alibaba.webx.restful.model.uri;
 
-
+/**
+ * A pattern for matching a path against a {@link PathTemplate}, post fixed with a capturing group for the right hand
+ * path.
+ * <p>
+ * A template without explicit regular expressions is matched by a {@link TemplateMatcher} which compares characters
+ * directly, only templates such as {@code {id: \d+}} use the regular expression engine. Both give the same captured
+ * groups.
+ */
 public final class PathPattern extends PatternWithGroups {
 
     public static final PathPattern END_OF_PATH_PATTERN    = new PathPattern(
@@ -48,7 +55,8 @@ public final class PathPattern extends PatternWithGroups {
      */
     public PathPattern(PathTemplate template){
         super(postfixWithCapturingGroup(template.getPattern().getRegex()),
-              addIndexForRightHandPathCapturingGroup(template.getPattern().getGroupIndexes()));
+              addIndexForRightHandPathCapturingGroup(template.getPattern().getGroupIndexes()),
+              TemplateMatcher.compile(template, RightHandPath.capturingZeroOrMoreSegments));
 
         this.template = template;
     }
@@ -71,7 +79,8 @@ public final class PathPattern extends PatternWithGroups {
      */
     public PathPattern(PathTemplate template, RightHandPath rhpp){
         super(postfixWithCapturingGroup(template.getPattern().getRegex(), rhpp),
-              addIndexForRightHandPathCapturingGroup(template.getPattern().getGroupIndexes()));
+              addIndexForRightHandPathCapturingGroup(template.getPattern().getGroupIndexes()),
+              TemplateMatcher.compile(template, rhpp));
 
         this.template = template;
     }
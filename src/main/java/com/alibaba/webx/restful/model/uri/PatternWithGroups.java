@@ -26,6 +26,10 @@ public class PatternWithGroups {
      * The array of group indexes to capturing groups.
      */
     private final int[]                   groupIndexes;
+    /**
+     * The matcher used instead of {@link #regexPattern}, may be null.
+     */
+    private final TemplateMatcher         templateMatcher;
 
     /**
      * Construct an empty pattern.
@@ -34,6 +38,7 @@ public class PatternWithGroups {
         this.regex = "";
         this.regexPattern = null;
         this.groupIndexes = EMPTY_INT_ARRAY;
+        this.templateMatcher = null;
     }
 
     /**
@@ -59,6 +64,19 @@ public class PatternWithGroups {
         this(compile(regex), groupIndexes);
     }
 
+    /**
+     * Construct a new pattern matched by a template matcher instead of the regular expression.
+     * 
+     * @param regex the regular expression equivalent to the template matcher.
+     * @param groupIndexes the array of group indexes to capturing groups.
+     * @param templateMatcher the template matcher, or null to match with the regular expression.
+     * @throws java.util.regex.PatternSyntaxException if the regular expression could not be compiled
+     */
+    PatternWithGroups(final String regex, final int[] groupIndexes,
+                      final TemplateMatcher templateMatcher) throws PatternSyntaxException{
+        this(compile(regex), groupIndexes, templateMatcher);
+    }
+
     private static Pattern compile(final String regex) throws PatternSyntaxException {
         return (regex == null || regex.length() == 0) ? null : Pattern.compile(regex);
     }
@@ -81,6 +99,11 @@ public class PatternWithGroups {
      * @throws IllegalArgumentException if the regexPattern is null.
      */
     public PatternWithGroups(final Pattern regexPattern, final int[] groupIndexes) throws IllegalArgumentException{
+        this(regexPattern, groupIndexes, null);
+    }
+
+    private PatternWithGroups(final Pattern regexPattern, final int[] groupIndexes,
+                              final TemplateMatcher templateMatcher) throws IllegalArgumentException{
         if (regexPattern == null) {
             throw new IllegalArgumentException();
         }
@@ -88,6 +111,7 @@ public class PatternWithGroups {
         this.regex = regexPattern.toString();
         this.regexPattern = regexPattern;
         this.groupIndexes = groupIndexes;
+        this.templateMatcher = templateMatcher;
     }
 
     /**
@@ -213,6 +237,76 @@ public class PatternWithGroups {
         }
     }
 
+    private static final class OffsetMatchResult implements MatchResult {
+
+        private final CharSequence cs;
+        private final int[]        offsets;
+
+        OffsetMatchResult(final CharSequence cs, final int[] offsets){
+            this.cs = cs;
+            this.offsets = offsets;
+        }
+
+        @Override
+        public int start() {
+            return offsets[0];
+        }
+
+        @Override
+        public int start(final int group) {
+            if (group > groupCount()) {
+                throw new IndexOutOfBoundsException();
+            }
+            return offsets[group << 1];
+        }
+
+        @Override
+        public int end() {
+            return offsets[1];
+        }
+
+        @Override
+        public int end(final int group) {
+            if (group > groupCount()) {
+                throw new IndexOutOfBoundsException();
+            }
+            return offsets[(group << 1) + 1];
+        }
+
+        @Override
+        public String group() {
+            return group(0);
+        }
+
+        @Override
+        public String group(final int group) {
+            int start = start(group);
+            return (start == -1) ? null : cs.subSequence(start, end(group)).toString();
+        }
+
+        @Override
+        public int groupCount() {
+            return (offsets.length >> 1) - 1;
+        }
+    }
+
+    /**
+     * Match the whole char sequence, the groups of the result are the capturing groups of the pattern.
+     */
+    private MatchResult matches(final CharSequence cs) {
+        if (templateMatcher != null) {
+            int[] offsets = templateMatcher.match(cs);
+            return (offsets == null) ? null : new OffsetMatchResult(cs, offsets);
+        }
+
+        Matcher m = regexPattern.matcher(cs);
+        if (!m.matches()) {
+            return null;
+        }
+
+        return (groupIndexes.length > 0) ? new GroupIndexMatchResult(m) : m;
+    }
+
     public final MatchResult match(final CharSequence cs) {
         // Check for match against the empty pattern
         if (cs == null) {
@@ -222,8 +316,8 @@ public class PatternWithGroups {
         }
 
         // Match regular expression
-        Matcher m = regexPattern.matcher(cs);
-        if (!m.matches()) {
+        MatchResult m = matches(cs);
+        if (m == null) {
             return null;
         }
 
@@ -231,7 +325,7 @@ public class PatternWithGroups {
             return EMPTY_STRING_MATCH_RESULT;
         }
 
-        return (groupIndexes.length > 0) ? new GroupIndexMatchResult(m) : m;
+        return m;
     }
 
     /**
@@ -259,20 +353,14 @@ public class PatternWithGroups {
         }
 
         // Match the regular expression
-        Matcher m = regexPattern.matcher(cs);
-        if (!m.matches()) {
+        MatchResult m = matches(cs);
+        if (m == null) {
             return false;
         }
 
         groupValues.clear();
-        if (groupIndexes.length > 0) {
-            for (int i = 0; i < groupIndexes.length - 1; i++) {
-                groupValues.add(m.group(groupIndexes[i]));
-            }
-        } else {
-            for (int i = 1; i <= m.groupCount(); i++) {
-                groupValues.add(m.group(i));
-            }
+        for (int i = 1; i <= m.groupCount(); i++) {
+            groupValues.add(m.group(i));
         }
 
         // TODO check for consistency of different capturing groups
@@ -310,8 +398,8 @@ public class PatternWithGroups {
         }
 
         // Match the regular expression
-        Matcher m = regexPattern.matcher(cs);
-        if (!m.matches()) {
+        MatchResult m = matches(cs);
+        if (m == null) {
             return false;
         }
 
@@ -319,7 +407,7 @@ public class PatternWithGroups {
         groupValues.clear();
         for (int i = 0; i < groupNames.size(); i++) {
             String name = groupNames.get(i);
-            String currentValue = m.group((groupIndexes.length > 0) ? groupIndexes[i] : i + 1);
+            String currentValue = m.group(i + 1);
 
             // Group names can have the same name occuring more than once,
             // check that groups values are same.
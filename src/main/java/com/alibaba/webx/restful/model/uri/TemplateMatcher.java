@@ -0,0 +1,160 @@
+package com.alibaba.webx.restful.model.uri;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Matcher for path templates which declare no explicit regular expression, such as {@code /orders/{id}/items/{itemId}}.
+ * <p>
+ * It compares the literal characters of the template with the path and finds the '/' boundaries of the template
+ * variables directly, with the same semantics as the generated regular expression: a variable is the shortest non
+ * empty run of characters other than '/' that lets the rest of the template match.
+ * <p>
+ * The captured offsets use the group numbers of the regular expression: group {@code 0} is the whole path, groups
+ * {@code 1..n} are the template variables and group {@code n + 1} is the right hand path.
+ */
+final class TemplateMatcher {
+
+    /**
+     * Characters with a meaning in a regular expression which are not escaped by {@link UriTemplateParser}, a template
+     * with any of them in its literal characters is left to the regular expression engine.
+     */
+    private static final String             REGEX_CHARACTERS = "\\[]{}*+^$|";
+
+    /**
+     * The literal characters before every variable, the last element is the literal characters after the last
+     * variable.
+     */
+    private final String[]                  literals;
+    private final int                       variableCount;
+    private final PathPattern.RightHandPath rightHandPath;
+
+    private TemplateMatcher(String[] literals, PathPattern.RightHandPath rightHandPath){
+        this.literals = literals;
+        this.variableCount = literals.length - 1;
+        this.rightHandPath = rightHandPath;
+    }
+
+    /**
+     * Compile a template.
+     * 
+     * @param template the path template.
+     * @param rightHandPath the right hand path pattern postfix.
+     * @return the matcher, or {@code null} if the template must be matched with its regular expression.
+     */
+    static TemplateMatcher compile(UriTemplate template, PathPattern.RightHandPath rightHandPath) {
+        if (template.getNumberOfExplicitRegexes() != 0) {
+            return null;
+        }
+
+        String normalized = template.getNormalizedTemplate();
+        if (normalized.endsWith("/")) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+
+        List<String> literals = new ArrayList<String>();
+        int pos = 0;
+        for (;;) {
+            int open = normalized.indexOf('{', pos);
+            if (open == -1) {
+                literals.add(normalized.substring(pos));
+                break;
+            }
+
+            literals.add(normalized.substring(pos, open));
+            pos = normalized.indexOf('}', open) + 1;
+        }
+
+        for (String literal : literals) {
+            for (int i = 0; i < literal.length(); ++i) {
+                if (REGEX_CHARACTERS.indexOf(literal.charAt(i)) != -1) {
+                    return null;
+                }
+            }
+        }
+
+        return new TemplateMatcher(literals.toArray(new String[literals.size()]), rightHandPath);
+    }
+
+    /**
+     * Match a path.
+     * 
+     * @param cs the path.
+     * @return the start and end offsets of every group, {@code -1} for a group which did not participate in the match,
+     * or {@code null} if the path does not match.
+     */
+    int[] match(CharSequence cs) {
+        int[] offsets = new int[(variableCount + 2) << 1];
+        offsets[1] = cs.length();
+        return match(cs, 0, 0, offsets) ? offsets : null;
+    }
+
+    private boolean match(CharSequence cs, int index, int pos, int[] offsets) {
+        String literal = literals[index];
+        if (!regionMatches(cs, pos, literal)) {
+            return false;
+        }
+        pos += literal.length();
+
+        if (index == variableCount) {
+            return matchRightHandPath(cs, pos, offsets);
+        }
+
+        final int length = cs.length();
+        final int group = (index + 1) << 1;
+        for (int end = pos + 1; end <= length && cs.charAt(end - 1) != '/'; ++end) {
+            offsets[group] = pos;
+            offsets[group + 1] = end;
+            if (match(cs, index + 1, end, offsets)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean matchRightHandPath(CharSequence cs, int pos, int[] offsets) {
+        final int length = cs.length();
+        final int group = (variableCount + 1) << 1;
+
+        if (pos == length) {
+            offsets[group] = -1;
+            offsets[group + 1] = -1;
+            return true;
+        }
+
+        if (cs.charAt(pos) != '/') {
+            return false;
+        }
+
+        if (rightHandPath == PathPattern.RightHandPath.capturingZeroSegments) {
+            if (pos + 1 != length) {
+                return false;
+            }
+        } else {
+            // '.' of the regular expression does not match line terminators
+            for (int i = pos + 1; i < length; ++i) {
+                char c = cs.charAt(i);
+                if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                    return false;
+                }
+            }
+        }
+
+        offsets[group] = pos;
+        offsets[group + 1] = length;
+        return true;
+    }
+
+    private static boolean regionMatches(CharSequence cs, int pos, String literal) {
+        int length = literal.length();
+        if (pos + length > cs.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; ++i) {
+            if (cs.charAt(pos + i) != literal.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
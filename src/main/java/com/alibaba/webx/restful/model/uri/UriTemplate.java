@@ -121,6 +121,15 @@ public class UriTemplate {
         return template;
     }
 
+    /**
+     * Get the normalized template, with the explicit regular expressions removed from the template variables.
+     * 
+     * @return the normalized template.
+     */
+    public final String getNormalizedTemplate() {
+        return normalizedTemplate;
+    }
+
     /**
      * Get the URI pattern.
      * 
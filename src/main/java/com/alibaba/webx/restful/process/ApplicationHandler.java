@@ -3,20 +3,41 @@ package com.alibaba.webx.restful.process;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.regex.MatchResult;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.HttpMethod;
 import javax.ws.rs.MessageProcessingException;
+import javax.ws.rs.Path;
+import javax.ws.rs.Suspend;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Application;
 import javax.ws.rs.core.GenericType;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
@@ -29,37 +50,152 @@ import javax.ws.rs.ext.MessageBodyWriter;
 import javax.ws.rs.ext.WriterInterceptor;
 import javax.ws.rs.ext.WriterInterceptorContext;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.springframework.context.ApplicationContext;
 
+import com.alibaba.webx.restful.Constants;
+import com.alibaba.webx.restful.annotation.CacheResponse;
+import com.alibaba.webx.restful.annotation.SingleFlight;
 import com.alibaba.webx.restful.model.ApplicationImpl;
 import com.alibaba.webx.restful.model.Invocable;
 import com.alibaba.webx.restful.model.Resource;
+import com.alibaba.webx.restful.model.ResourceConfigException;
 import com.alibaba.webx.restful.model.ResourceMethod;
-import com.alibaba.webx.restful.model.uri.PathPattern;
+import com.alibaba.webx.restful.model.RouteBulkhead;
+import com.alibaba.webx.restful.model.finder.ClassInfo;
+import com.alibaba.webx.restful.model.param.ParameterProviderImpl;
+import com.alibaba.webx.restful.model.route.MediaTypeIndex;
+import com.alibaba.webx.restful.model.route.PartitionedRouter;
+import com.alibaba.webx.restful.model.route.Route;
+import com.alibaba.webx.restful.model.route.RouteMatch;
+import com.alibaba.webx.restful.model.route.Router;
+import com.alibaba.webx.restful.process.impl.BufferedHttpServletResponse;
 import com.alibaba.webx.restful.process.impl.ContainerRequestContextImpl;
+import com.alibaba.webx.restful.process.impl.ExecutionContextImpl;
 import com.alibaba.webx.restful.process.impl.ResponseImpl;
 import com.alibaba.webx.restful.process.impl.WriterInterceptorContextImpl;
+import com.alibaba.webx.restful.spi.ParameterProvider;
 import com.alibaba.webx.restful.util.ApplicationContextUtils;
 import com.alibaba.webx.restful.util.ClassUtils;
+import com.alibaba.webx.restful.util.ResourceUtils;
 
 public class ApplicationHandler {
 
-    private final ApplicationImpl      config;
+    private static final Log                      LOG                = LogFactory.getLog(ApplicationHandler.class);
 
-    private final ApplicationContext   applicationContext;
+    private final ApplicationImpl                 config;
 
-    private List<MessageBodyWriter<?>> messageBodyWriters = new ArrayList<MessageBodyWriter<?>>();
-    private Set<WriterInterceptor>     writeInterceptors  = new LinkedHashSet<WriterInterceptor>();
+    private final ApplicationContext              applicationContext;
+
+    private final int                             matchCacheSize;
+
+    /**
+     * True if the API version is the first segment of the request path.
+     */
+    private final boolean                         versionInPath;
+
+    /**
+     * The request header giving the API version, or {@code null}.
+     */
+    private final String                          versionHeader;
+
+    /**
+     * The routers of the application snapshot last seen, with the match caches filled from them.
+     */
+    private volatile Routing                      routing;
+
+    private final MediaTypeCache                  mediaTypeCache     = new MediaTypeCache();
+
+    private final ParameterProvider               parameterProvider;
+
+    /**
+     * The routers of the classes returned by sub-resource locators, each class is introspected once.
+     */
+    private final ConcurrentMap<Class<?>, Router> subResourceRouters = new ConcurrentHashMap<Class<?>, Router>();
+
+    /**
+     * The {@link SingleFlight} requests in flight, removed once their response is buffered.
+     */
+    private final ConcurrentMap<ResponseKey, Flight> flights         = new ConcurrentHashMap<ResponseKey, Flight>();
+
+    /**
+     * The maximum time in milliseconds a {@link SingleFlight} request waits for the response of the first request.
+     */
+    private final long                            singleFlightTimeout;
+
+    /**
+     * The serialized responses of the {@link CacheResponse} methods.
+     */
+    private final ResponseCache                   responseCache;
+
+    /**
+     * The maximum size in bytes of a form body read for the form parameters.
+     */
+    private final int                             formMaxSize;
+
+    /**
+     * The charset the query string is decoded with, and whether the character encoding of the request overrides it.
+     */
+    private final String                          queryEncoding;
+    private final boolean                         queryBodyEncoding;
+
+    /**
+     * Times out the async requests suspended with a timeout, created on first use.
+     */
+    private ScheduledExecutorService              suspendTimer;
+
+    private List<MessageBodyWriter<?>>            messageBodyWriters = new ArrayList<MessageBodyWriter<?>>();
+    private Set<WriterInterceptor>                writeInterceptors  = new LinkedHashSet<WriterInterceptor>();
 
     public ApplicationHandler(Application application, ApplicationContext applicationContext){
         ApplicationContextUtils.setApplicationContext(applicationContext);
 
         this.config = (ApplicationImpl) application;
         this.applicationContext = applicationContext;
+        this.parameterProvider = new ParameterProviderImpl(applicationContext);
+        this.matchCacheSize = config.getIntProperty(Constants.MATCH_CACHE_SIZE, 0);
+        this.routing = new Routing(config.getPartitionedRouter(), matchCacheSize);
+        this.responseCache = new ResponseCache(config.getIntProperty(Constants.RESPONSE_CACHE_SIZE, 1024));
+        this.singleFlightTimeout = config.getIntProperty(Constants.SINGLE_FLIGHT_TIMEOUT, 30000);
+        this.formMaxSize = config.getIntProperty(Constants.FORM_MAX_SIZE,
+                                                 (int) ContainerRequestContextImpl.DEFAULT_FORM_MAX_SIZE);
+
+        Object queryEncoding = config.getProperty(Constants.QUERY_ENCODING);
+        if (queryEncoding == null) {
+            this.queryEncoding = ContainerRequestContextImpl.DEFAULT_QUERY_ENCODING;
+        } else if (isSupportedCharset(queryEncoding.toString())) {
+            this.queryEncoding = queryEncoding.toString();
+        } else {
+            throw new ResourceConfigException("illegal property '" + Constants.QUERY_ENCODING + "' : "
+                                              + queryEncoding);
+        }
+        this.queryBodyEncoding = "true".equals(config.getProperty(Constants.QUERY_BODY_ENCODING));
+
+        Object versionDiscriminator = config.getProperty(Constants.VERSION_DISCRIMINATOR);
+        if (versionDiscriminator == null || "path".equals(versionDiscriminator)) {
+            this.versionInPath = versionDiscriminator != null;
+            this.versionHeader = null;
+        } else if ("header".equals(versionDiscriminator)) {
+            Object header = config.getProperty(Constants.VERSION_HEADER);
+            this.versionInPath = false;
+            this.versionHeader = (header == null) ? "Api-Version" : header.toString();
+        } else {
+            throw new ResourceConfigException("illegal property '" + Constants.VERSION_DISCRIMINATOR + "' : "
+                                              + versionDiscriminator);
+        }
 
         initialize();
     }
 
+    private static boolean isSupportedCharset(String charsetName) {
+        try {
+            return Charset.isSupported(charsetName);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
     public ApplicationContext getApplicationContext() {
         return applicationContext;
     }
@@ -67,6 +203,7 @@ public class ApplicationHandler {
     @SuppressWarnings("rawtypes")
     private void initialize() {
         messageBodyWriters.add(new JSONMessageBodyWriter());
+        messageBodyWriters.add(new TextMessageBodyWriter());
 
         Map map = applicationContext.getBeansOfType(MessageBodyWriter.class);
 
@@ -85,38 +222,551 @@ public class ApplicationHandler {
     public ContainerRequestContextImpl createRequestContext(HttpServletRequest request, HttpServletResponse response,
                                                             UriInfo uri) {
         ContainerRequestContextImpl requestContext = new ContainerRequestContextImpl(request, response, uri);
+        requestContext.setFormMaxSize(formMaxSize);
+        requestContext.setQueryEncoding(queryEncoding, queryBodyEncoding);
         match(requestContext);
         return requestContext;
     }
 
-    @SuppressWarnings({ "rawtypes" })
     public void service(RestfulRequestContext requestContext) throws IOException {
+        service(requestContext, null);
+    }
 
-        if (requestContext.getResourceMethod() == null) {
+    /**
+     * Service a request, in async mode when a completion is given: a request suspended by the resource method is left
+     * suspended, and its response is written on the thread which resumes it.
+     * 
+     * @param completion run once the response of a suspended request is written, or {@code null} to wait for the
+     * request to be resumed on the current thread.
+     * @return true if the response is written, false if the request is suspended and the completion is run later.
+     */
+    public boolean service(RestfulRequestContext requestContext, final Runnable completion) throws IOException {
+
+        RouteMatch routeMatch = requestContext.getRouteMatch();
+        if (routeMatch == null) {
             throw new ProcessException("no resource matched");
         }
 
+        if (routeMatch.isLocator()) {
+            routeMatch = locate(requestContext, routeMatch);
+            if (routeMatch == null) {
+                requestContext.getHttpResponse().setStatus(HttpServletResponse.SC_NOT_FOUND);
+                return true;
+            }
+        }
+
         ResourceMethod resourceMethod = requestContext.getResourceMethod();
 
         if (resourceMethod == null) {
-            throw new ProcessException("resourceMethod not match : " + requestContext.getUriInfo().getPath());
+            writeMethodNotAllowed(requestContext, routeMatch);
+            return true;
+        }
+
+        MediaTypeIndex mediaTypeIndex = routeMatch.getMediaTypeIndex();
+        if (!mediaTypeIndex.isTrivial()) {
+            if (!negotiate(requestContext, mediaTypeIndex)) {
+                return true;
+            }
+            resourceMethod = requestContext.getResourceMethod();
+        }
+
+        final RouteBulkhead bulkhead = resourceMethod.getBulkhead();
+        if (bulkhead == null) {
+            return execute(requestContext, resourceMethod, completion);
+        }
+
+        if (!bulkhead.enter()) {
+            writeRejection(requestContext, bulkhead);
+            return true;
+        }
+
+        boolean written = true;
+        try {
+            if (completion == null) {
+                return execute(requestContext, resourceMethod, null);
+            }
+
+            written = execute(requestContext, resourceMethod, new Runnable() {
+
+                public void run() {
+                    try {
+                        bulkhead.exit();
+                    } finally {
+                        completion.run();
+                    }
+                }
+            });
+            return written;
+        } finally {
+            if (written) {
+                bulkhead.exit();
+            }
+        }
+    }
+
+    private boolean execute(RestfulRequestContext requestContext, ResourceMethod resourceMethod, Runnable completion)
+                                                                                                                    throws IOException {
+        if (resourceMethod.getInvocable().isBuffered()) {
+            executeBuffered(requestContext, resourceMethod);
+            return true;
+        }
+
+        Suspend suspend = resourceMethod.getInvocable().getSuspend();
+        if (suspend != null) {
+            requestContext.getExecutionContext().suspend(suspend.timeOut(), suspend.timeUnit());
         }
 
         Object returnObject = invoke(requestContext, resourceMethod);
 
+        if (requestContext.isSuspendRequested()) {
+            return resume(requestContext, resourceMethod, completion);
+        }
+
+        if (returnObject instanceof Future) {
+            returnObject = getFutureResult((Future<?>) returnObject);
+        }
+
+        writeResult(requestContext, resourceMethod, returnObject);
+        return true;
+    }
+
+    /**
+     * Execute a {@link SingleFlight} or {@link CacheResponse} method, the response is buffered to be shared by the
+     * requests with the same key.
+     */
+    private void executeBuffered(RestfulRequestContext requestContext, ResourceMethod resourceMethod)
+                                                                                                     throws IOException {
+        Invocable invocable = resourceMethod.getInvocable();
+        Object[] args = getArguments(requestContext, invocable);
+        ResponseKey key = new ResponseKey(resourceMethod, requestContext.getResponseMediaType(), args);
+
+        long cacheTtl = invocable.getCacheTtl();
+        if (cacheTtl > 0) {
+            BufferedHttpServletResponse cached = responseCache.get(key);
+            if (cached != null) {
+                cached.writeTo(requestContext.getHttpResponse());
+                return;
+            }
+        }
+
+        BufferedHttpServletResponse bufferedResponse;
+        if (invocable.isSingleFlight()) {
+            bufferedResponse = executeSingleFlight(requestContext, resourceMethod, key);
+        } else {
+            bufferedResponse = bufferResponse(requestContext, resourceMethod, args);
+        }
+
+        if (cacheTtl > 0 && bufferedResponse.getStatus() == HttpServletResponse.SC_OK) {
+            responseCache.put(key, bufferedResponse, cacheTtl);
+        }
+        bufferedResponse.writeTo(requestContext.getHttpResponse());
+    }
+
+    /**
+     * The first request with a key invokes the method and buffers the response, and the requests with the same key
+     * arriving meanwhile wait for it and share the same response.
+     */
+    private BufferedHttpServletResponse executeSingleFlight(RestfulRequestContext requestContext,
+                                                            ResourceMethod resourceMethod, ResponseKey key)
+                                                                                                           throws IOException {
+        Flight flight = new Flight();
+        Flight leader = flights.putIfAbsent(key, flight);
+        if (leader != null) {
+            return leader.await(singleFlightTimeout);
+        }
+
+        // the waiters are released before the flight is removed, whatever the leader throws
+        try {
+            BufferedHttpServletResponse bufferedResponse = bufferResponse(requestContext, resourceMethod, key.args);
+            flight.complete(bufferedResponse);
+            return bufferedResponse;
+        } catch (IOException e) {
+            flight.fail(e);
+            throw e;
+        } catch (RuntimeException e) {
+            flight.fail(e);
+            throw e;
+        } catch (Error e) {
+            flight.fail(e);
+            throw e;
+        } finally {
+            flights.remove(key, flight);
+        }
+    }
+
+    private BufferedHttpServletResponse bufferResponse(RestfulRequestContext requestContext,
+                                                       ResourceMethod resourceMethod, Object[] args)
+                                                                                                    throws IOException {
+        BufferedHttpServletResponse bufferedResponse = new BufferedHttpServletResponse(requestContext.getHttpResponse());
+
+        Object returnObject = invoke(requestContext, resourceMethod, args);
+        if (returnObject instanceof Future) {
+            returnObject = getFutureResult((Future<?>) returnObject);
+        }
+
+        writeResult(requestContext, bufferedResponse, resourceMethod, returnObject);
+        bufferedResponse.flushBuffer();
+        return bufferedResponse;
+    }
+
+    /**
+     * Write the response of a suspended request once it is resumed, on the current thread if no completion is given.
+     */
+    private boolean resume(final RestfulRequestContext requestContext, final ResourceMethod resourceMethod,
+                           final Runnable completion) throws IOException {
+        final ExecutionContextImpl executionContext = (ExecutionContextImpl) requestContext.getExecutionContext();
+
+        if (completion == null) {
+            try {
+                executionContext.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                executionContext.cancel();
+            }
+
+            if (executionContext.getError() != null) {
+                throw new ProcessException("resume resourceMethod error", executionContext.getError());
+            }
+            writeResumed(requestContext, resourceMethod, executionContext);
+            return true;
+        }
+
+        long timeout = executionContext.getSuspendTimeout();
+        final ScheduledFuture<?> timeoutFuture;
+        if (timeout > 0 && !executionContext.isDone()) {
+            timeoutFuture = getSuspendTimer().schedule(new Runnable() {
+
+                public void run() {
+                    executionContext.timeout();
+                }
+            }, timeout, TimeUnit.MILLISECONDS);
+        } else {
+            timeoutFuture = null;
+        }
+
+        executionContext.setListener(new ExecutionContextImpl.Listener() {
+
+            public void done(ExecutionContextImpl executionContext) {
+                if (timeoutFuture != null) {
+                    timeoutFuture.cancel(false);
+                }
+
+                try {
+                    Throwable error = executionContext.getError();
+                    if (error != null) {
+                        writeError(requestContext, error);
+                    } else {
+                        writeResumed(requestContext, resourceMethod, executionContext);
+                    }
+                } catch (Throwable e) {
+                    LOG.error("write resumed response error. method '" + resourceMethod.getResourceMethod() + "'", e);
+                } finally {
+                    completion.run();
+                }
+            }
+        });
+        return false;
+    }
+
+    private void writeResumed(RestfulRequestContext requestContext, ResourceMethod resourceMethod,
+                              ExecutionContextImpl executionContext) throws IOException {
+        if (executionContext.isCancelled()) {
+            requestContext.getHttpResponse().setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return;
+        }
+
+        writeResult(requestContext, resourceMethod, executionContext.getResult());
+    }
+
+    private void writeError(RestfulRequestContext requestContext, Throwable error) {
+        HttpServletResponse httpResponse = requestContext.getHttpResponse();
+        if (httpResponse.isCommitted()) {
+            return;
+        }
+
+        if (error instanceof WebApplicationException) {
+            httpResponse.setStatus(((WebApplicationException) error).getResponse().getStatus());
+        } else {
+            LOG.error("resume resourceMethod error. method '" + requestContext.getResourceMethod().getResourceMethod()
+                      + "'", error);
+            httpResponse.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    private Object getFutureResult(Future<?> future) throws ProcessException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new ProcessException("resourceMethod's future interrupted", e);
+        } catch (ExecutionException e) {
+            throw new ProcessException("resourceMethod's future error", e.getCause());
+        }
+    }
+
+    private void writeResult(RestfulRequestContext requestContext, ResourceMethod resourceMethod, Object returnObject)
+                                                                                                                      throws IOException {
+        writeResult(requestContext, requestContext.getHttpResponse(), resourceMethod, returnObject);
+    }
+
+    @SuppressWarnings({ "rawtypes" })
+    private void writeResult(RestfulRequestContext requestContext, HttpServletResponse httpResponse,
+                             ResourceMethod resourceMethod, Object returnObject) throws IOException {
         ResponseBuilder responseBuilder = Response.ok();
 
+        if (returnObject instanceof Response) {
+            Response resumed = (Response) returnObject;
+            httpResponse.setStatus(resumed.getStatus());
+            writeHeaders(httpResponse, resumed.getMetadata());
+            returnObject = resumed.getEntity();
+            if (returnObject == null) {
+                return;
+            }
+        }
+
+        MediaType responseMediaType = requestContext.getResponseMediaType();
+        if (responseMediaType != null) {
+            responseBuilder.type(responseMediaType);
+            httpResponse.setContentType(responseMediaType.toString());
+        }
+
         Annotation[] annotations = resourceMethod.getAnnotations();
-        GenericType responseType = resourceMethod.getResponseType();
-        responseBuilder.entity(returnObject, responseType.getType(), annotations);
+        Type entityType = getEntityType(resourceMethod.getResponseType(), returnObject);
+        responseBuilder.entity(returnObject, entityType, annotations);
 
         ResponseImpl response = (ResponseImpl) responseBuilder.build();
-        response.setHttpResponse(requestContext.getHttpResponse());
+        response.setHttpResponse(httpResponse);
 
         writeResponse(requestContext, response);
     }
 
+    /**
+     * Get the type of the entity written for a result: the declared return type, the result type of a returned
+     * {@link Future}, or the class of the entity when the declared type does not tell, as for suspended methods.
+     */
+    private static Type getEntityType(GenericType<?> responseType, Object entity) {
+        Type type = responseType.getType();
+        Class<?> rawType = responseType.getRawType();
+
+        if (Future.class.isAssignableFrom(rawType)) {
+            type = (type instanceof ParameterizedType) ? ((ParameterizedType) type).getActualTypeArguments()[0] : null;
+        } else if (rawType == void.class || rawType == Object.class || Response.class.isAssignableFrom(rawType)) {
+            type = null;
+        }
+
+        if (type == null || type instanceof TypeVariable || type instanceof WildcardType) {
+            type = (entity == null) ? Object.class : entity.getClass();
+        }
+        return type;
+    }
+
+    /**
+     * Get the timer of the suspend timeouts of async requests, created on first use.
+     */
+    private synchronized ScheduledExecutorService getSuspendTimer() {
+        if (suspendTimer == null) {
+            suspendTimer = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "webx-restful-suspend-timer");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return suspendTimer;
+    }
+
+    public synchronized void close() {
+        if (suspendTimer != null) {
+            suspendTimer.shutdownNow();
+            suspendTimer = null;
+        }
+    }
+
+    private void writeRejection(RestfulRequestContext requestContext, RouteBulkhead bulkhead) throws IOException {
+        HttpServletResponse httpResponse = requestContext.getHttpResponse();
+        byte[] body = bulkhead.getRejectionBody();
+
+        httpResponse.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        httpResponse.setContentType("text/plain; charset=UTF-8");
+        httpResponse.setContentLength(body.length);
+        httpResponse.getOutputStream().write(body);
+    }
+
+    /**
+     * Get the concurrency limits of the resource methods of the root resources, to monitor the running and rejected
+     * requests of every route.
+     * 
+     * @return the limits by resource method, in no particular order.
+     */
+    public Map<ResourceMethod, RouteBulkhead> getBulkheads() {
+        Map<ResourceMethod, RouteBulkhead> bulkheads = new HashMap<ResourceMethod, RouteBulkhead>();
+        for (Resource resource : config.getResources()) {
+            for (ResourceMethod resourceMethod : resource.getResourceMethods()) {
+                if (resourceMethod.getBulkhead() != null) {
+                    bulkheads.put(resourceMethod, resourceMethod.getBulkhead());
+                }
+            }
+            for (ResourceMethod resourceMethod : resource.getSubResourceMethods()) {
+                if (resourceMethod.getBulkhead() != null) {
+                    bulkheads.put(resourceMethod, resourceMethod.getBulkhead());
+                }
+            }
+        }
+        return bulkheads;
+    }
+
+    private void writeMethodNotAllowed(RestfulRequestContext requestContext, RouteMatch routeMatch) {
+        HttpServletResponse httpResponse = requestContext.getHttpResponse();
+        httpResponse.setHeader(HttpHeaders.ALLOW, routeMatch.getAllow());
+
+        if (HttpMethod.OPTIONS.equals(requestContext.getMethod())) {
+            httpResponse.setStatus(HttpServletResponse.SC_OK);
+        } else {
+            httpResponse.setStatus(HttpServletResponse.SC_METHOD_NOT_ALLOWED);
+        }
+    }
+
+    /**
+     * Invoke the sub-resource locators of a match, and match the remaining path against the router of every returned
+     * sub-resource class.
+     * 
+     * @return the match of the sub-resource method, or {@code null} if a locator returned null or the remaining path
+     * does not match.
+     */
+    private RouteMatch locate(RestfulRequestContext requestContext, RouteMatch routeMatch) throws ProcessException {
+        String httpMethod = requestContext.getMethod();
+
+        while (routeMatch.isLocator()) {
+            Object resourceInstance = invoke(requestContext, routeMatch.getRoute().getResourceMethod());
+            if (resourceInstance == null) {
+                return null;
+            }
+            requestContext.setResourceInstance(resourceInstance);
+
+            Router subResourceRouter = getSubResourceRouter(resourceInstance.getClass());
+            routeMatch = subResourceRouter.match(httpMethod, routeMatch.getPath(), routeMatch.getEnd(), routeMatch);
+            if (routeMatch == null) {
+                return null;
+            }
+
+            requestContext.setRouteMatch(routeMatch);
+
+            Route route = routeMatch.getRoute();
+            requestContext.setResource((route == null) ? null : route.getResource());
+            requestContext.setResourceMethod((route == null) ? null : route.getResourceMethod());
+        }
+
+        return routeMatch;
+    }
+
+    /**
+     * Register a root resource class at runtime, requests are routed to it as soon as this method returns.
+     * 
+     * @param clazz the resource class, annotated with {@link javax.ws.rs.Path}.
+     * @param instance the singleton instance of the resource, or {@code null} to create an instance per request.
+     * @return the registered resource, to be passed to {@link #removeResource(Resource)}.
+     * @throws ResourceConfigException if the class is not a root resource or its routes can not be compiled.
+     */
+    public Resource addResource(Class<?> clazz, Object instance) {
+        if (!clazz.isAnnotationPresent(Path.class)) {
+            throw new ResourceConfigException("not a root resource. class '" + clazz.getName() + "'");
+        }
+
+        ClassInfo classInfo = ResourceUtils.getClassInfo(clazz);
+        Resource resource = ResourceUtils.buildResource(applicationContext, parameterProvider, clazz, classInfo,
+                                                        instance);
+        if (resource == null) {
+            throw new ResourceConfigException("not a root resource. class '" + clazz.getName() + "'");
+        }
+
+        config.addResource(resource);
+        return resource;
+    }
+
+    /**
+     * Unregister a root resource at runtime, requests already routed to it are completed.
+     * 
+     * @return true if the resource was registered.
+     */
+    public boolean removeResource(Resource resource) {
+        return config.removeResource(resource);
+    }
+
+    /**
+     * Get the router of a class returned by a sub-resource locator, built on first use.
+     * 
+     * @param clazz the sub-resource class.
+     * @return the router.
+     */
+    public Router getSubResourceRouter(Class<?> clazz) {
+        Router subResourceRouter = subResourceRouters.get(clazz);
+        if (subResourceRouter == null) {
+            Resource resource = ResourceUtils.buildSubResource(parameterProvider, clazz);
+            subResourceRouter = new Router(Collections.singletonList(resource));
+
+            Router existing = subResourceRouters.putIfAbsent(clazz, subResourceRouter);
+            if (existing != null) {
+                subResourceRouter = existing;
+            }
+        }
+        return subResourceRouter;
+    }
+
+    /**
+     * Select the candidate which consumes the request entity and produces the most acceptable media type, candidates
+     * are tried in rank order for every acceptable media type.
+     * 
+     * @return false if no candidate is acceptable, the status is already written.
+     */
+    private boolean negotiate(RestfulRequestContext requestContext, MediaTypeIndex mediaTypeIndex) {
+        HttpServletResponse httpResponse = requestContext.getHttpResponse();
+
+        long consumingMask;
+        try {
+            String contentType = requestContext.getHeaderValue(RestfulRequestContext.CONTENT_TYPE);
+            consumingMask = mediaTypeIndex.getConsumingMask(mediaTypeCache.getMediaType(contentType));
+        } catch (IllegalArgumentException e) {
+            httpResponse.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            return false;
+        }
+
+        if (consumingMask == 0) {
+            httpResponse.setStatus(HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE);
+            return false;
+        }
+
+        String accept = requestContext.getHeaderValue(RestfulRequestContext.ACCEPT);
+        List<MediaType> acceptableMediaTypes = mediaTypeCache.getAcceptableMediaTypes(accept);
+        for (int i = 0, size = acceptableMediaTypes.size(); i < size; ++i) {
+            MediaType accepted = acceptableMediaTypes.get(i);
+            long mask = consumingMask & mediaTypeIndex.getProducingMask(accepted);
+            if (mask != 0) {
+                int index = Long.numberOfTrailingZeros(mask);
+                Route route = mediaTypeIndex.getCandidate(index);
+
+                requestContext.setResource(route.getResource());
+                requestContext.setResourceMethod(route.getResourceMethod());
+                requestContext.setResponseMediaType(mediaTypeIndex.getResponseType(index, accepted));
+                return true;
+            }
+        }
+
+        httpResponse.setStatus(HttpServletResponse.SC_NOT_ACCEPTABLE);
+        return false;
+    }
+
     private Object invoke(RestfulRequestContext requestContext, ResourceMethod resourceMethod) throws ProcessException {
+        return invoke(requestContext, resourceMethod, null);
+    }
+
+    /**
+     * @param args the arguments of the method, or {@code null} to resolve them from the request.
+     */
+    private Object invoke(RestfulRequestContext requestContext, ResourceMethod resourceMethod, Object[] args)
+                                                                                                          throws ProcessException {
         Invocable invocable = resourceMethod.getInvocable();
 
         Object resourceInstance = null;
@@ -126,11 +776,8 @@ public class ApplicationHandler {
             throw new ProcessException("createResourceInstance error", e);
         }
 
-        Object[] args = null;
-        try {
-            args = invocable.getArguments(requestContext);
-        } catch (Exception e) {
-            throw new ProcessException("get resourceMethod's arguemnts error", e);
+        if (args == null) {
+            args = getArguments(requestContext, invocable);
         }
 
         Object returnObject = null;
@@ -142,6 +789,38 @@ public class ApplicationHandler {
         return returnObject;
     }
 
+    private Object[] getArguments(RestfulRequestContext requestContext, Invocable invocable) throws ProcessException {
+        try {
+            return invocable.getArguments(requestContext);
+        } catch (Exception e) {
+            throw new ProcessException("get resourceMethod's arguemnts error", e);
+        }
+    }
+
+    /**
+     * Write the headers of a returned response, the content type is left to the negotiated media type.
+     */
+    private static void writeHeaders(HttpServletResponse httpResponse, MultivaluedMap<String, Object> headers) {
+        if (headers == null) {
+            return;
+        }
+
+        for (Map.Entry<String, List<Object>> entry : headers.entrySet()) {
+            String name = entry.getKey();
+            if (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)) {
+                continue;
+            }
+
+            for (Object value : entry.getValue()) {
+                if (value instanceof Date) {
+                    httpResponse.addDateHeader(name, ((Date) value).getTime());
+                } else if (value != null) {
+                    httpResponse.addHeader(name, value.toString());
+                }
+            }
+        }
+    }
+
     public void writeResponse(RestfulRequestContext requestContext, ResponseImpl response) throws IOException {
         Set<WriterInterceptor> interceptorSet = getWriterInterceptors();
 
@@ -174,52 +853,110 @@ public class ApplicationHandler {
     private void match(RestfulRequestContext requestContext) {
         String path = requestContext.getUriInfo().getPath();
 
-        List<Resource> matchedResources = new ArrayList<Resource>();
-        List<MatchResult> matchedResults = new ArrayList<MatchResult>();
+        String httpMethod = requestContext.getMethod();
 
-        for (Resource resource : config.getResources()) {
-            PathPattern pathPattern = resource.getPathPattern();
-            MatchResult matchResult = pathPattern.match(path);
-            if (matchResult != null) {
-                matchedResources.add(resource);
-                matchedResults.add(matchResult);
-            }
-        }
-
-        for (int i = 0, size = matchedResources.size(); i < size; ++i) {
-            ResourceMethod matchedResourceMethod = null;
-            MatchResult resourceMethodResult = null;
+        Routing routing = getRouting();
+        PartitionedRouter routers = routing.routers;
 
-            Resource resource = matchedResources.get(i);
-            MatchResult matchResult = matchedResults.get(i);
+        int partition = 0;
+        int start = 0;
+        if (routers.isPartitioned()) {
+            HttpServletRequest httpRequest = requestContext.getHttpRequest();
 
-            String methodPath = matchResult.group(matchResult.groupCount());
+            String host = httpRequest.getServerName();
+            int hostIndex = routers.getHostIndex((host == null) ? null : host.toLowerCase());
 
-            for (ResourceMethod resourceMethod : resource.getSubResourceMethods()) {
-                PathPattern pathPattern = resourceMethod.getPathPattern();
+            int versionIndex = 0;
+            if (versionInPath) {
+                int segmentStart = path.startsWith("/") ? 1 : 0;
+                int segmentEnd = path.indexOf('/', segmentStart);
+                if (segmentEnd == -1) {
+                    segmentEnd = path.length();
+                }
 
-                resourceMethodResult = pathPattern.match(methodPath);
-                if (resourceMethodResult != null) {
-                    matchedResourceMethod = resourceMethod;
-                    break;
+                versionIndex = routers.getVersionIndex(path, segmentStart, segmentEnd);
+                if (versionIndex != 0) {
+                    start = segmentEnd;
                 }
+            } else if (versionHeader != null) {
+                versionIndex = routers.getVersionIndex(httpRequest.getHeader(versionHeader));
             }
 
-            if (matchedResourceMethod == null) {
-                for (ResourceMethod resourceMethod : resource.getResourceMethods()) {
-                    matchedResourceMethod = resourceMethod;
-                    break;
-                }
+            partition = routers.getPartition(hostIndex, versionIndex);
+        }
+
+        RouteMatchCache matchCache = routing.getMatchCache(partition);
+
+        RouteMatch routeMatch = null;
+        if (matchCache != null) {
+            routeMatch = matchCache.get(httpMethod, path);
+        }
+
+        if (routeMatch == null) {
+            routeMatch = routers.getRouter(partition).match(httpMethod, path, start, null);
+            if (routeMatch == null) {
+                return;
             }
 
-            if (matchedResourceMethod != null) {
-                requestContext.setResource(resource);
-                requestContext.setResourceMatchResult(matchResult);
-                requestContext.setResourceMethod(matchedResourceMethod);
-                requestContext.setResourceMethodMatchResult(resourceMethodResult);
-                break;
+            if (matchCache != null) {
+                matchCache.put(httpMethod, path, routeMatch);
             }
         }
+
+        requestContext.setRouteMatch(routeMatch);
+
+        Route route = routeMatch.getRoute();
+        if (route != null) {
+            requestContext.setResource(route.getResource());
+            requestContext.setResourceMethod(route.getResourceMethod());
+        }
+    }
+
+    /**
+     * Get the routing of the current application snapshot. When resources were added or removed since the last
+     * request, the match caches are replaced along with the routers, so a match of the previous routers is never
+     * served.
+     */
+    private Routing getRouting() {
+        Routing routing = this.routing;
+        PartitionedRouter routers = config.getPartitionedRouter();
+        if (routing.routers != routers) {
+            routing = new Routing(routers, matchCacheSize);
+            this.routing = routing;
+        }
+        return routing;
+    }
+
+    /**
+     * @return the router of the resources which are not restricted to a virtual host or an API version.
+     */
+    public Router getRouter() {
+        return getRouting().routers.getRouter();
+    }
+
+    public PartitionedRouter getPartitionedRouter() {
+        return getRouting().routers;
+    }
+
+    /**
+     * Get the route match cache of the unrestricted resources, its hit and miss counters can be used to tune
+     * {@link Constants#MATCH_CACHE_SIZE}.
+     *
+     * @return the route match cache, or {@code null} if the cache is disabled.
+     */
+    public RouteMatchCache getMatchCache() {
+        return getRouting().getMatchCache(0);
+    }
+
+    /**
+     * Get the cache of the serialized responses, to invalidate responses when the data they were made of changes.
+     */
+    public ResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    public MediaTypeCache getMediaTypeCache() {
+        return mediaTypeCache;
     }
 
     public Set<WriterInterceptor> getWriterInterceptors() {
@@ -306,4 +1043,67 @@ public class ApplicationHandler {
         // TODO Auto-generated method stub
         return null;
     }
+
+    /**
+     * The response of the first request of a {@link SingleFlight} key, awaited by the requests with the same key.
+     */
+    private static final class Flight {
+
+        private final CountDownLatch        done = new CountDownLatch(1);
+
+        private BufferedHttpServletResponse response;
+        private Throwable                   error;
+
+        void complete(BufferedHttpServletResponse response) {
+            this.response = response;
+            done.countDown();
+        }
+
+        void fail(Throwable error) {
+            this.error = error;
+            done.countDown();
+        }
+
+        /**
+         * @param timeout the maximum time to wait in milliseconds.
+         */
+        BufferedHttpServletResponse await(long timeout) throws ProcessException {
+            try {
+                if (!done.await(timeout, TimeUnit.MILLISECONDS)) {
+                    throw new ProcessException("single flight timeout after " + timeout + " ms");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ProcessException("single flight interrupted", e);
+            }
+
+            if (error != null) {
+                throw new ProcessException("single flight error", error);
+            }
+            return response;
+        }
+    }
+
+    private static final class Routing {
+
+        private final PartitionedRouter routers;
+        private final RouteMatchCache[] matchCaches;
+
+        Routing(PartitionedRouter routers, int matchCacheSize){
+            this.routers = routers;
+
+            if (matchCacheSize > 0) {
+                this.matchCaches = new RouteMatchCache[routers.getPartitionCount()];
+                for (int i = 0; i < matchCaches.length; ++i) {
+                    matchCaches[i] = new RouteMatchCache(matchCacheSize);
+                }
+            } else {
+                this.matchCaches = null;
+            }
+        }
+
+        RouteMatchCache getMatchCache(int partition) {
+            return (matchCaches == null) ? null : matchCaches[partition];
+        }
+    }
 }
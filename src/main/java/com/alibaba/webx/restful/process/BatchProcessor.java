@@ -0,0 +1,311 @@
+package com.alibaba.webx.restful.process;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONException;
+import com.alibaba.fastjson.JSONObject;
+import com.alibaba.webx.restful.process.impl.BatchHttpServletRequest;
+import com.alibaba.webx.restful.process.impl.BufferedHttpServletResponse;
+import com.alibaba.webx.restful.process.impl.UriInfoImpl;
+
+/**
+ * Executes a batch of sub-requests in-process, and streams their responses back as one JSON array.
+ * <p>
+ * The body of a batch request is a JSON array of sub-requests:
+ *
+ * <pre>
+ * [ { "method" : "GET", "path" : "/orders/1", "query" : "fields=id", "headers" : { "Accept" : "application/json" } },
+ *   { "method" : "POST", "path" : "/orders", "body" : "..." } ]
+ * </pre>
+ *
+ * Every sub-request is dispatched through the {@link ApplicationHandler} and its response buffered, then written in
+ * order as <code>{ "status" : 200, "headers" : { ... }, "body" : ... }</code>, where a JSON body is embedded as is and
+ * any other body as a string. A sub-request which matches no resource has status 404, and one which fails status 500,
+ * without failing the others.
+ * <p>
+ * With the request parameter {@code parallel=true}, the sub-requests are independent and executed in parallel; their
+ * responses are still written in order, each as soon as it and the ones before it are complete.
+ */
+public class BatchProcessor {
+
+    private static final Log            LOG     = LogFactory.getLog(BatchProcessor.class);
+
+    private static final Charset        UTF8    = Charset.forName("UTF-8");
+
+    private static final byte[]         OPEN    = "[".getBytes(UTF8);
+    private static final byte[]         NEXT    = ",".getBytes(UTF8);
+    private static final byte[]         CLOSE   = "]".getBytes(UTF8);
+
+    private final ApplicationHandler    handler;
+    private final int                   maxSize;
+    private final int                   maxBodySize;
+
+    /**
+     * The executor of the parallel sub-requests, or {@code null} if they are always executed in order.
+     */
+    private final ThreadPoolExecutor    executor;
+
+    /**
+     * @param maxSize the maximum number of sub-requests of a batch.
+     * @param maxBodySize the maximum size in bytes of the body of a batch.
+     * @param threads the number of threads executing the parallel sub-requests, 0 to always execute them in order.
+     */
+    public BatchProcessor(ApplicationHandler handler, int maxSize, int maxBodySize, int threads){
+        this.handler = handler;
+        this.maxSize = maxSize;
+        this.maxBodySize = maxBodySize;
+
+        if (threads > 0) {
+            ThreadFactory threadFactory = new ThreadFactory() {
+
+                private final AtomicInteger count = new AtomicInteger();
+
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "webx-restful-batch-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            };
+            this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                                                   new LinkedBlockingQueue<Runnable>(), threadFactory);
+        } else {
+            this.executor = null;
+        }
+    }
+
+    public void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        byte[] body = (request.getContentLength() > maxBodySize) ? null : readBody(request.getInputStream());
+        if (body == null) {
+            response.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, "batch body over " + maxBodySize
+                                                                                + " bytes");
+            return;
+        }
+
+        JSONArray items;
+        try {
+            items = JSON.parseArray(new String(body, UTF8));
+        } catch (JSONException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "illegal batch : " + e.getMessage());
+            return;
+        }
+
+        if (items == null) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "empty batch");
+            return;
+        }
+        if (items.size() > maxSize) {
+            response.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, "batch size over " + maxSize);
+            return;
+        }
+
+        List<BatchHttpServletRequest> subRequests = new ArrayList<BatchHttpServletRequest>(items.size());
+        List<String> paths = new ArrayList<String>(items.size());
+        for (int i = 0; i < items.size(); ++i) {
+            Object element = items.get(i);
+            if (!(element instanceof JSONObject)) {
+                response.sendError(HttpServletResponse.SC_BAD_REQUEST, "item " + i + " is not an object");
+                return;
+            }
+
+            JSONObject item = (JSONObject) element;
+            String method = item.getString("method");
+            String path = item.getString("path");
+            if (method == null || path == null) {
+                response.sendError(HttpServletResponse.SC_BAD_REQUEST, "method and path are required, item " + i);
+                return;
+            }
+
+            Object headers = item.get("headers");
+            if (headers != null && !(headers instanceof JSONObject)) {
+                response.sendError(HttpServletResponse.SC_BAD_REQUEST, "headers of item " + i + " is not an object");
+                return;
+            }
+
+            subRequests.add(new BatchHttpServletRequest(request, method, path, item.getString("query"),
+                                                        getHeaders((JSONObject) headers),
+                                                        item.getString("body")));
+            paths.add(path);
+        }
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType("application/json; charset=UTF-8");
+        OutputStream out = response.getOutputStream();
+        out.write(OPEN);
+
+        if (executor != null && "true".equals(request.getParameter("parallel"))) {
+            executeParallel(subRequests, paths, response, out);
+        } else {
+            for (int i = 0; i < subRequests.size(); ++i) {
+                if (i != 0) {
+                    out.write(NEXT);
+                }
+                writeItem(out, execute(subRequests.get(i), paths.get(i), response));
+                out.flush();
+            }
+        }
+
+        out.write(CLOSE);
+        out.flush();
+    }
+
+    private void executeParallel(List<BatchHttpServletRequest> subRequests, List<String> paths,
+                                 final HttpServletResponse response, OutputStream out) throws IOException {
+        List<Future<BufferedHttpServletResponse>> futures = new ArrayList<Future<BufferedHttpServletResponse>>();
+        for (int i = 0; i < subRequests.size(); ++i) {
+            final BatchHttpServletRequest subRequest = subRequests.get(i);
+            final String path = paths.get(i);
+            Callable<BufferedHttpServletResponse> task = new Callable<BufferedHttpServletResponse>() {
+
+                public BufferedHttpServletResponse call() {
+                    return execute(subRequest, path, response);
+                }
+            };
+
+            try {
+                futures.add(executor.submit(task));
+            } catch (RejectedExecutionException e) {
+                futures.add(null);
+            }
+        }
+
+        for (int i = 0; i < futures.size(); ++i) {
+            if (i != 0) {
+                out.write(NEXT);
+            }
+
+            Future<BufferedHttpServletResponse> future = futures.get(i);
+            BufferedHttpServletResponse subResponse;
+            if (future == null) {
+                subResponse = createError(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            } else {
+                try {
+                    subResponse = future.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ProcessException("batch interrupted", e);
+                } catch (ExecutionException e) {
+                    subResponse = createError(response, HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                }
+            }
+
+            writeItem(out, subResponse);
+            out.flush();
+        }
+    }
+
+    private BufferedHttpServletResponse execute(BatchHttpServletRequest subRequest, String path,
+                                                HttpServletResponse response) {
+        BufferedHttpServletResponse subResponse = new BufferedHttpServletResponse(response);
+        try {
+            RestfulRequestContext requestContext = handler.createRequestContext(subRequest, subResponse,
+                                                                                new UriInfoImpl(subRequest, path));
+            if (requestContext.getRouteMatch() == null) {
+                return createError(response, HttpServletResponse.SC_NOT_FOUND);
+            }
+
+            handler.service(requestContext);
+            subResponse.flushBuffer();
+            return subResponse;
+        } catch (Throwable e) {
+            LOG.error("batch sub-request error. " + subRequest.getMethod() + " '" + path + "'", e);
+            return createError(response, HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    private static BufferedHttpServletResponse createError(HttpServletResponse response, int status) {
+        BufferedHttpServletResponse subResponse = new BufferedHttpServletResponse(response);
+        subResponse.setStatus(status);
+        return subResponse;
+    }
+
+    private static void writeItem(OutputStream out, BufferedHttpServletResponse subResponse) throws IOException {
+        Map<String, String> headers = new LinkedHashMap<String, String>();
+        if (subResponse.getContentType() != null) {
+            headers.put("Content-Type", subResponse.getContentType());
+        }
+        for (String[] header : subResponse.getBufferedHeaders()) {
+            headers.put(header[0], header[1]);
+        }
+
+        StringBuilder buf = new StringBuilder();
+        buf.append("{\"status\":").append(subResponse.getStatus());
+        buf.append(",\"headers\":").append(JSON.toJSONString(headers));
+
+        byte[] body = subResponse.getBody();
+        if (body.length == 0) {
+            buf.append('}');
+            out.write(buf.toString().getBytes(UTF8));
+            return;
+        }
+
+        buf.append(",\"body\":");
+        String contentType = subResponse.getContentType();
+        if (contentType != null && contentType.indexOf("json") != -1) {
+            out.write(buf.toString().getBytes(UTF8));
+            out.write(body);
+            out.write('}');
+        } else {
+            buf.append(JSON.toJSONString(new String(body, UTF8))).append('}');
+            out.write(buf.toString().getBytes(UTF8));
+        }
+    }
+
+    private static Map<String, String> getHeaders(JSONObject headers) {
+        if (headers == null) {
+            return null;
+        }
+
+        Map<String, String> map = new LinkedHashMap<String, String>();
+        for (String name : headers.keySet()) {
+            map.put(name, headers.getString(name));
+        }
+        return map;
+    }
+
+    /**
+     * @return the body, or {@code null} if it is larger than the maximum body size.
+     */
+    private byte[] readBody(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buf = new byte[4096];
+        for (int len; (len = in.read(buf)) != -1;) {
+            if (out.size() + len > maxBodySize) {
+                return null;
+            }
+            out.write(buf, 0, len);
+        }
+        return out.toByteArray();
+    }
+
+    public void close() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+}
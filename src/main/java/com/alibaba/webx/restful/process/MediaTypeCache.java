@@ -0,0 +1,193 @@
+package com.alibaba.webx.restful.process;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.ws.rs.core.MediaType;
+
+/**
+ * Memoized parsing of the {@code Accept} and {@code Content-Type} request headers, keyed by the raw header value.
+ * <p>
+ * Clients send only a handful of distinct values, so every value is parsed once. Once a table is full new values are
+ * parsed on every request instead of being added, so a client sending random headers can not grow it.
+ * <p>
+ * Parsed media types are normalized to lower case type and subtype, as expected by the route media type indexes. The
+ * acceptable media types are sorted by quality, then by specificity, and do not carry the {@code q} parameter.
+ */
+public class MediaTypeCache {
+
+    public static final int                              DEFAULT_MAX_SIZE = 256;
+
+    private static final List<MediaType>                 ACCEPT_ALL       = Collections
+                                                                                  .singletonList(MediaType.WILDCARD_TYPE);
+
+    private final int                                    maxSize;
+    private final ConcurrentMap<String, List<MediaType>> acceptCache;
+    private final ConcurrentMap<String, MediaType>       contentTypeCache;
+
+    public MediaTypeCache(){
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    public MediaTypeCache(int maxSize){
+        this.maxSize = maxSize;
+        this.acceptCache = new ConcurrentHashMap<String, List<MediaType>>();
+        this.contentTypeCache = new ConcurrentHashMap<String, MediaType>();
+    }
+
+    /**
+     * Get the acceptable media types of an {@code Accept} header.
+     * 
+     * @param accept the header value, may be {@code null}.
+     * @return the acceptable media types, most preferred first. The list must not be modified.
+     */
+    public List<MediaType> getAcceptableMediaTypes(String accept) {
+        if (accept == null || accept.length() == 0) {
+            return ACCEPT_ALL;
+        }
+
+        List<MediaType> mediaTypes = acceptCache.get(accept);
+        if (mediaTypes == null) {
+            mediaTypes = parseAccept(accept);
+            if (acceptCache.size() < maxSize) {
+                acceptCache.putIfAbsent(accept, mediaTypes);
+            }
+        }
+        return mediaTypes;
+    }
+
+    /**
+     * Get the media type of a {@code Content-Type} header.
+     * 
+     * @param contentType the header value, may be {@code null}.
+     * @return the media type, or {@code null} if there is no header.
+     * @throws IllegalArgumentException if the header is malformed.
+     */
+    public MediaType getMediaType(String contentType) throws IllegalArgumentException {
+        if (contentType == null || contentType.length() == 0) {
+            return null;
+        }
+
+        MediaType mediaType = contentTypeCache.get(contentType);
+        if (mediaType == null) {
+            mediaType = parse(contentType, null);
+            if (contentTypeCache.size() < maxSize) {
+                contentTypeCache.putIfAbsent(contentType, mediaType);
+            }
+        }
+        return mediaType;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    static List<MediaType> parseAccept(String accept) {
+        final List<MediaType> mediaTypes = new ArrayList<MediaType>();
+        final Map<MediaType, Float> qualities = new IdentityHashMap<MediaType, Float>();
+
+        float[] quality = new float[1];
+        for (String item : accept.split(",")) {
+            if (item.trim().length() == 0) {
+                continue;
+            }
+
+            MediaType mediaType;
+            try {
+                mediaType = parse(item, quality);
+            } catch (IllegalArgumentException e) {
+                // a malformed item does not make the other items unacceptable
+                continue;
+            }
+
+            if (quality[0] > 0) {
+                mediaTypes.add(mediaType);
+                qualities.put(mediaType, quality[0]);
+            }
+        }
+
+        if (mediaTypes.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Collections.sort(mediaTypes, new Comparator<MediaType>() {
+
+            public int compare(MediaType a, MediaType b) {
+                int i = Float.compare(qualities.get(b), qualities.get(a));
+                if (i != 0) {
+                    return i;
+                }
+                return specificity(b) - specificity(a);
+            }
+        });
+        return Collections.unmodifiableList(mediaTypes);
+    }
+
+    private static int specificity(MediaType mediaType) {
+        if (mediaType.isWildcardType()) {
+            return 0;
+        }
+        return mediaType.isWildcardSubtype() ? 1 : 2;
+    }
+
+    /**
+     * Parse a media type, the {@code q} parameter is removed and stored into {@code quality[0]} if quality is not
+     * {@code null}.
+     */
+    private static MediaType parse(String value, float[] quality) throws IllegalArgumentException {
+        String[] parts = value.split(";");
+
+        String fullType = parts[0].trim();
+        int slash = fullType.indexOf('/');
+        if (slash <= 0 || slash == fullType.length() - 1) {
+            throw new IllegalArgumentException("illegal media type : " + value);
+        }
+        String type = fullType.substring(0, slash).trim().toLowerCase();
+        String subtype = fullType.substring(slash + 1).trim().toLowerCase();
+
+        if (quality != null) {
+            quality[0] = 1.0f;
+        }
+
+        Map<String, String> parameters = null;
+        for (int i = 1; i < parts.length; ++i) {
+            String part = parts[i];
+            int eq = part.indexOf('=');
+            if (eq == -1) {
+                continue;
+            }
+
+            String name = part.substring(0, eq).trim().toLowerCase();
+            String paramValue = part.substring(eq + 1).trim();
+            if (paramValue.length() > 1 && paramValue.charAt(0) == '"' && paramValue.endsWith("\"")) {
+                paramValue = paramValue.substring(1, paramValue.length() - 1);
+            }
+
+            if (quality != null && "q".equals(name)) {
+                try {
+                    quality[0] = Float.parseFloat(paramValue);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("illegal quality : " + value);
+                }
+                continue;
+            }
+
+            if (parameters == null) {
+                parameters = new LinkedHashMap<String, String>();
+            }
+            parameters.put(name, paramValue);
+        }
+
+        if (parameters == null) {
+            return new MediaType(type, subtype);
+        }
+        return new MediaType(type, subtype, parameters);
+    }
+}
@@ -0,0 +1,211 @@
+package com.alibaba.webx.restful.process;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.alibaba.webx.restful.model.ResourceMethod;
+import com.alibaba.webx.restful.process.impl.BufferedHttpServletResponse;
+
+/**
+ * Bounded cache of the serialized responses of {@link com.alibaba.webx.restful.annotation.CacheResponse} methods,
+ * keyed by (resource method, negotiated media type, arguments).
+ * <p>
+ * As the {@link RouteMatchCache}, the cache is split into stripes, each a segmented LRU guarded by its own lock: a
+ * response only reaches the protected segment when it is hit again, so responses requested once do not evict the hot
+ * ones. Every entry also expires after the time to live of its method.
+ */
+public class ResponseCache {
+
+    private static final int MAX_STRIPES = 16;
+
+    private final Stripe[]   stripes;
+    private final int        mask;
+    private final int        maxSize;
+
+    private final AtomicLong hitCount  = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    public ResponseCache(int maxSize){
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive : " + maxSize);
+        }
+
+        int stripeCount = 1;
+        while (stripeCount < MAX_STRIPES && (stripeCount << 1) <= maxSize) {
+            stripeCount <<= 1;
+        }
+
+        this.maxSize = maxSize;
+        this.mask = stripeCount - 1;
+        this.stripes = new Stripe[stripeCount];
+        // the capacities add up to maxSize exactly
+        for (int i = 0; i < stripeCount; ++i) {
+            stripes[i] = new Stripe(maxSize / stripeCount + ((i < maxSize % stripeCount) ? 1 : 0));
+        }
+    }
+
+    BufferedHttpServletResponse get(ResponseKey key) {
+        BufferedHttpServletResponse response = stripeFor(key).get(key, System.currentTimeMillis());
+        if (response == null) {
+            missCount.incrementAndGet();
+        } else {
+            hitCount.incrementAndGet();
+        }
+        return response;
+    }
+
+    void put(ResponseKey key, BufferedHttpServletResponse response, long ttlMillis) {
+        stripeFor(key).put(key, new Entry(response, System.currentTimeMillis() + ttlMillis));
+    }
+
+    /**
+     * Invalidate the cached responses of a resource method.
+     */
+    public void invalidate(ResourceMethod resourceMethod) {
+        invalidate(resourceMethod, null);
+    }
+
+    /**
+     * Invalidate the cached responses of a resource method for some arguments, in every media type.
+     *
+     * @param args the arguments of the method, in declaration order, or {@code null} for any arguments.
+     */
+    public void invalidate(ResourceMethod resourceMethod, Object[] args) {
+        for (Stripe stripe : stripes) {
+            stripe.invalidate(resourceMethod, args);
+        }
+    }
+
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            stripe.clear();
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getSize() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    private Stripe stripeFor(ResponseKey key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return stripes[h & mask];
+    }
+
+    private static final class Entry {
+
+        private final BufferedHttpServletResponse response;
+        private final long                        expireAt;
+
+        Entry(BufferedHttpServletResponse response, long expireAt){
+            this.response = response;
+            this.expireAt = expireAt;
+        }
+    }
+
+    private static final class Stripe {
+
+        private final int                              probationCapacity;
+        private final int                              protectedCapacity;
+
+        private final LinkedHashMap<ResponseKey, Entry> probation = new LinkedHashMap<ResponseKey, Entry>(16, 0.75f,
+                                                                                                          true);
+        private final LinkedHashMap<ResponseKey, Entry> protect   = new LinkedHashMap<ResponseKey, Entry>(16, 0.75f,
+                                                                                                          true);
+
+        /**
+         * @param capacity at least 1, a stripe of capacity 1 has no protected segment.
+         */
+        Stripe(int capacity){
+            this.probationCapacity = Math.max(1, capacity / 5);
+            this.protectedCapacity = capacity - probationCapacity;
+        }
+
+        synchronized BufferedHttpServletResponse get(ResponseKey key, long now) {
+            Entry entry = protect.get(key);
+            if (entry == null) {
+                entry = probation.remove(key);
+                if (entry == null) {
+                    return null;
+                }
+
+                protect.put(key, entry);
+                if (protect.size() > protectedCapacity) {
+                    Map.Entry<ResponseKey, Entry> eldest = removeEldest(protect);
+                    probation.put(eldest.getKey(), eldest.getValue());
+                    if (probation.size() > probationCapacity) {
+                        removeEldest(probation);
+                    }
+                }
+            }
+
+            if (entry.expireAt <= now) {
+                protect.remove(key);
+                return null;
+            }
+            return entry.response;
+        }
+
+        synchronized void put(ResponseKey key, Entry entry) {
+            if (protect.containsKey(key)) {
+                protect.put(key, entry);
+                return;
+            }
+
+            probation.put(key, entry);
+            if (probation.size() > probationCapacity) {
+                removeEldest(probation);
+            }
+        }
+
+        synchronized void invalidate(ResourceMethod resourceMethod, Object[] args) {
+            invalidate(probation, resourceMethod, args);
+            invalidate(protect, resourceMethod, args);
+        }
+
+        private static void invalidate(LinkedHashMap<ResponseKey, Entry> map, ResourceMethod resourceMethod,
+                                       Object[] args) {
+            for (Iterator<ResponseKey> iter = map.keySet().iterator(); iter.hasNext();) {
+                ResponseKey key = iter.next();
+                if (key.resourceMethod == resourceMethod && (args == null || Arrays.deepEquals(args, key.args))) {
+                    iter.remove();
+                }
+            }
+        }
+
+        synchronized void clear() {
+            probation.clear();
+            protect.clear();
+        }
+
+        synchronized int size() {
+            return probation.size() + protect.size();
+        }
+
+        private static Map.Entry<ResponseKey, Entry> removeEldest(LinkedHashMap<ResponseKey, Entry> map) {
+            Iterator<Map.Entry<ResponseKey, Entry>> iter = map.entrySet().iterator();
+            Map.Entry<ResponseKey, Entry> eldest = iter.next();
+            iter.remove();
+            return eldest;
+        }
+    }
+}
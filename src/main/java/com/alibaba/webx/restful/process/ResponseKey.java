@@ -0,0 +1,48 @@
+package com.alibaba.webx.restful.process;
+
+import java.util.Arrays;
+
+import javax.ws.rs.core.MediaType;
+
+import com.alibaba.webx.restful.model.ResourceMethod;
+
+/**
+ * The key of a buffered response: the resource method, the negotiated media type and the arguments.
+ */
+final class ResponseKey {
+
+    final ResourceMethod resourceMethod;
+    final MediaType      mediaType;
+    final Object[]       args;
+    final int            hash;
+
+    ResponseKey(ResourceMethod resourceMethod, MediaType mediaType, Object[] args){
+        this.resourceMethod = resourceMethod;
+        this.mediaType = mediaType;
+        this.args = args;
+
+        int hash = System.identityHashCode(resourceMethod);
+        hash = 31 * hash + (mediaType == null ? 0 : mediaType.hashCode());
+        this.hash = 31 * hash + Arrays.deepHashCode(args);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof ResponseKey)) {
+            return false;
+        }
+
+        ResponseKey other = (ResponseKey) obj;
+        return resourceMethod == other.resourceMethod && hash == other.hash
+               && (mediaType == null ? other.mediaType == null : mediaType.equals(other.mediaType))
+               && Arrays.deepEquals(args, other.args);
+    }
+}
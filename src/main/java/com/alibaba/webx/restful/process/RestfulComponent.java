@@ -28,6 +28,7 @@ public class RestfulComponent implements Closeable {
     }
 
     public void close() {
+        handler.close();
         config.close();
     }
 }
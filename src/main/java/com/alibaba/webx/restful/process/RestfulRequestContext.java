@@ -1,23 +1,89 @@
 package com.alibaba.webx.restful.process;
 
+import java.io.IOException;
 import java.util.Map;
-import java.util.regex.MatchResult;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.core.ExecutionContext;
+import javax.ws.rs.core.MediaType;
 
 import com.alibaba.webx.restful.model.Resource;
 import com.alibaba.webx.restful.model.ResourceMethod;
+import com.alibaba.webx.restful.model.route.RouteMatch;
 
 public interface RestfulRequestContext extends ContainerRequestContext {
 
+    /**
+     * The normalized names of the headers read once per request by {@link #getHeaderValue(String)}.
+     */
+    String ACCEPT        = "accept";
+    String CONTENT_TYPE  = "content-type";
+    String IF_NONE_MATCH = "if-none-match";
+
     HttpServletRequest getHttpRequest();
 
     HttpServletResponse getHttpResponse();
 
     Map<String, String> getPathVariables();
 
+    /**
+     * Get the value of a template variable of the matched route by index.
+     * 
+     * @param index the variable index.
+     * @return the raw value, or {@code null} if no such variable was captured.
+     */
+    String getPathVariable(int index);
+
+    /**
+     * Get the value of a template variable of the matched route by name.
+     * 
+     * @param name the variable name.
+     * @return the raw value, or {@code null} if no such variable was captured.
+     */
+    String getPathVariable(String name);
+
+    /**
+     * Get the first value of a form field. An {@code application/x-www-form-urlencoded} body is streamed from the
+     * request, keeping only the fields declared by the resource method, any other request is looked up in the request
+     * parameters. The request parameters are also used when the resource method takes a context parameter, or when the
+     * body has already been read by the container.
+     * 
+     * @param name the field name.
+     * @return the decoded value, or {@code null} if the form has no such field.
+     * @throws IOException if the body cannot be read, or is larger than
+     * {@link com.alibaba.webx.restful.Constants#FORM_MAX_SIZE}.
+     */
+    String getFormParameter(String name) throws IOException;
+
+    /**
+     * Get the charset the raw query string is decoded with, set by
+     * {@link com.alibaba.webx.restful.Constants#QUERY_ENCODING} and
+     * {@link com.alibaba.webx.restful.Constants#QUERY_BODY_ENCODING}.
+     * 
+     * @return the charset name.
+     */
+    String getQueryEncoding();
+
+    /**
+     * Get the value of a cookie. The {@code Cookie} headers are parsed once per request, on first use.
+     * 
+     * @param name the cookie name.
+     * @return the value of the first cookie of the name, or {@code null} if the request has no such cookie.
+     */
+    String getCookieValue(String name);
+
+    /**
+     * Get the first value of a request header. {@link #ACCEPT}, {@link #CONTENT_TYPE} and {@link #IF_NONE_MATCH} are
+     * read from the request once and shared, any other header is read from the request on every call.
+     * 
+     * @param name the header name, compared by reference first when normalized by
+     * {@link com.alibaba.webx.restful.model.param.HeaderParameter#normalize(String)}.
+     * @return the header value, or {@code null} if the request has no such header.
+     */
+    String getHeaderValue(String name);
+
     Resource getResource();
 
     void setResource(Resource resource);
@@ -26,11 +92,37 @@ public interface RestfulRequestContext extends ContainerRequestContext {
 
     void setResourceMethod(ResourceMethod resourceMethod);
 
-    MatchResult getResourceMatchResult();
+    RouteMatch getRouteMatch();
+
+    void setRouteMatch(RouteMatch routeMatch);
+
+    /**
+     * Get the media type of the response selected by content negotiation.
+     * 
+     * @return the media type, or {@code null} if the resource method does not declare one.
+     */
+    MediaType getResponseMediaType();
+
+    void setResponseMediaType(MediaType responseMediaType);
+
+    /**
+     * Get the instance returned by the last sub-resource locator of the request.
+     * 
+     * @return the sub-resource instance, or {@code null} if no locator was invoked.
+     */
+    Object getResourceInstance();
 
-    void setResourceMatchResult(MatchResult resourceMatchResult);
+    void setResourceInstance(Object resourceInstance);
 
-    MatchResult getResourceMethodMatchResult();
+    /**
+     * Get the execution context of the request, created on first use.
+     * 
+     * @return the execution context, through which a resource method suspends and resumes the request.
+     */
+    ExecutionContext getExecutionContext();
 
-    void setResourceMethodMatchResult(MatchResult resourceMethodMatchResult);
+    /**
+     * @return true if the request was suspended, even if it is already resumed.
+     */
+    boolean isSuspendRequested();
 }
@@ -0,0 +1,188 @@
+package com.alibaba.webx.restful.process;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.alibaba.webx.restful.model.route.RouteMatch;
+
+/**
+ * Bounded cache of route matches keyed by (HTTP method, path).
+ * <p>
+ * The cache is split into stripes, each guarded by its own lock. Every stripe is a segmented LRU: a new entry is
+ * admitted into a small probation segment and only moves into the protected segment when it is hit again, so a flood
+ * of one-off URLs only churns the probation segment and never evicts the hot paths.
+ */
+public class RouteMatchCache {
+
+    private static final int MAX_STRIPES = 16;
+
+    private final Stripe[]   stripes;
+    private final int        mask;
+    private final int        maxSize;
+
+    private final AtomicLong hitCount  = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    public RouteMatchCache(int maxSize){
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive : " + maxSize);
+        }
+
+        int stripeCount = 1;
+        while (stripeCount < MAX_STRIPES && (stripeCount << 1) <= maxSize) {
+            stripeCount <<= 1;
+        }
+
+        this.maxSize = maxSize;
+        this.mask = stripeCount - 1;
+        this.stripes = new Stripe[stripeCount];
+        // the capacities add up to maxSize exactly
+        for (int i = 0; i < stripeCount; ++i) {
+            stripes[i] = new Stripe(maxSize / stripeCount + ((i < maxSize % stripeCount) ? 1 : 0));
+        }
+    }
+
+    public RouteMatch get(String httpMethod, String path) {
+        Key key = new Key(httpMethod, path);
+        RouteMatch match = stripeFor(key).get(key);
+        if (match == null) {
+            missCount.incrementAndGet();
+        } else {
+            hitCount.incrementAndGet();
+        }
+        return match;
+    }
+
+    public void put(String httpMethod, String path, RouteMatch match) {
+        Key key = new Key(httpMethod, path);
+        stripeFor(key).put(key, match);
+    }
+
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            stripe.clear();
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getSize() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    private Stripe stripeFor(Key key) {
+        int h = key.hash;
+        h ^= (h >>> 16);
+        return stripes[h & mask];
+    }
+
+    private static final class Key {
+
+        private final String httpMethod;
+        private final String path;
+        private final int    hash;
+
+        Key(String httpMethod, String path){
+            this.httpMethod = httpMethod;
+            this.path = path;
+            this.hash = 31 * httpMethod.hashCode() + path.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return hash == other.hash && path.equals(other.path) && httpMethod.equals(other.httpMethod);
+        }
+    }
+
+    private static final class Stripe {
+
+        private final int                            probationCapacity;
+        private final int                            protectedCapacity;
+
+        private final LinkedHashMap<Key, RouteMatch> probation = new LinkedHashMap<Key, RouteMatch>(16, 0.75f, true);
+        private final LinkedHashMap<Key, RouteMatch> protect   = new LinkedHashMap<Key, RouteMatch>(16, 0.75f, true);
+
+        /**
+         * @param capacity at least 1, a stripe of capacity 1 has no protected segment.
+         */
+        Stripe(int capacity){
+            this.probationCapacity = Math.max(1, capacity / 5);
+            this.protectedCapacity = capacity - probationCapacity;
+        }
+
+        synchronized RouteMatch get(Key key) {
+            RouteMatch match = protect.get(key);
+            if (match != null) {
+                return match;
+            }
+
+            match = probation.remove(key);
+            if (match != null) {
+                protect.put(key, match);
+                if (protect.size() > protectedCapacity) {
+                    Map.Entry<Key, RouteMatch> eldest = removeEldest(protect);
+                    probation.put(eldest.getKey(), eldest.getValue());
+                    if (probation.size() > probationCapacity) {
+                        removeEldest(probation);
+                    }
+                }
+            }
+            return match;
+        }
+
+        synchronized void put(Key key, RouteMatch match) {
+            if (protect.containsKey(key)) {
+                return;
+            }
+
+            probation.put(key, match);
+            if (probation.size() > probationCapacity) {
+                removeEldest(probation);
+            }
+        }
+
+        synchronized void clear() {
+            probation.clear();
+            protect.clear();
+        }
+
+        synchronized int size() {
+            return probation.size() + protect.size();
+        }
+
+        private static Map.Entry<Key, RouteMatch> removeEldest(LinkedHashMap<Key, RouteMatch> map) {
+            Iterator<Map.Entry<Key, RouteMatch>> iter = map.entrySet().iterator();
+            Map.Entry<Key, RouteMatch> eldest = iter.next();
+            iter.remove();
+            return eldest;
+        }
+    }
+}
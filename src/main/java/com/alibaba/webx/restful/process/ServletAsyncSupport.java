@@ -0,0 +1,115 @@
+package com.alibaba.webx.restful.process;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Servlet 3 asynchronous processing, called through reflection so that the filter still runs in Servlet 2.5
+ * containers.
+ * <p>
+ * {@link #startAsync(ServletRequest, ServletResponse, long)} returns {@code null} when the container does not
+ * implement Servlet 3, or when the filter is not declared {@code <async-supported>true</async-supported>} in
+ * {@code web.xml}, and the request is then processed on the container thread.
+ */
+public final class ServletAsyncSupport {
+
+    private static final Log    LOG = LogFactory.getLog(ServletAsyncSupport.class);
+
+    private static final Method IS_ASYNC_SUPPORTED;
+    private static final Method START_ASYNC;
+    private static final Method SET_TIMEOUT;
+    private static final Method COMPLETE;
+
+    static {
+        Method isAsyncSupported = null;
+        Method startAsync = null;
+        Method setTimeout = null;
+        Method complete = null;
+        try {
+            Class<?> asyncContextClass = Class.forName("javax.servlet.AsyncContext", false,
+                                                       ServletRequest.class.getClassLoader());
+            isAsyncSupported = ServletRequest.class.getMethod("isAsyncSupported");
+            startAsync = ServletRequest.class.getMethod("startAsync", ServletRequest.class, ServletResponse.class);
+            setTimeout = asyncContextClass.getMethod("setTimeout", long.class);
+            complete = asyncContextClass.getMethod("complete");
+        } catch (Exception e) {
+            isAsyncSupported = null;
+        } catch (LinkageError e) {
+            isAsyncSupported = null;
+        }
+
+        IS_ASYNC_SUPPORTED = isAsyncSupported;
+        START_ASYNC = startAsync;
+        SET_TIMEOUT = setTimeout;
+        COMPLETE = complete;
+    }
+
+    private ServletAsyncSupport(){
+    }
+
+    /**
+     * @return true if the servlet API of the container supports asynchronous processing.
+     */
+    public static boolean isAvailable() {
+        return IS_ASYNC_SUPPORTED != null;
+    }
+
+    /**
+     * Put a request into asynchronous mode, the container thread can return once this method returns.
+     *
+     * @param timeout the timeout of the asynchronous processing in milliseconds, 0 for the container default.
+     * @return the handle completing the request, or {@code null} if the request does not support asynchronous mode.
+     */
+    public static AsyncHandle startAsync(ServletRequest request, ServletResponse response, long timeout) {
+        if (IS_ASYNC_SUPPORTED == null) {
+            return null;
+        }
+
+        try {
+            if (!Boolean.TRUE.equals(IS_ASYNC_SUPPORTED.invoke(request))) {
+                return null;
+            }
+
+            Object asyncContext = START_ASYNC.invoke(request, request, response);
+            if (timeout > 0) {
+                SET_TIMEOUT.invoke(asyncContext, timeout);
+            }
+            return new AsyncHandle(asyncContext);
+        } catch (InvocationTargetException e) {
+            LOG.warn("startAsync error, fall back to synchronous processing", e.getTargetException());
+        } catch (Exception e) {
+            LOG.warn("startAsync error, fall back to synchronous processing", e);
+        } catch (AbstractMethodError e) {
+            // a Servlet 2.5 request in a Servlet 3 class loader
+        }
+        return null;
+    }
+
+    /**
+     * An asynchronous request, the response is committed and the request is ended by {@link #complete()}.
+     */
+    public static final class AsyncHandle {
+
+        private final Object asyncContext;
+
+        AsyncHandle(Object asyncContext){
+            this.asyncContext = asyncContext;
+        }
+
+        public void complete() {
+            try {
+                COMPLETE.invoke(asyncContext);
+            } catch (InvocationTargetException e) {
+                LOG.warn("complete async request error", e.getTargetException());
+            } catch (Exception e) {
+                LOG.warn("complete async request error", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.alibaba.webx.restful.process;
+
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+
+/**
+ * Writes the string value of an entity for {@code text/*} media types, such as a resource method annotated with
+ * {@code @Produces("text/plain")}.
+ */
+@Provider
+public class TextMessageBodyWriter<T> implements MessageBodyWriter<T> {
+
+    public TextMessageBodyWriter(){
+
+    }
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return mediaType != null && "text".equalsIgnoreCase(mediaType.getType());
+    }
+
+    @Override
+    public long getSize(T object, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return -1;
+    }
+
+    @Override
+    public void writeTo(T object, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                        MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream)
+                                                                                              throws java.io.IOException,
+                                                                                              javax.ws.rs.WebApplicationException {
+        if (object == null) {
+            return;
+        }
+
+        String charset = mediaType.getParameters().get("charset");
+        if (charset == null) {
+            charset = "UTF-8";
+        }
+
+        entityStream.write(object.toString().getBytes(charset));
+    }
+}
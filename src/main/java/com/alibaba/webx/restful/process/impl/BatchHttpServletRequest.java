@@ -0,0 +1,220 @@
+package com.alibaba.webx.restful.process.impl;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.io.UnsupportedEncodingException;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.TreeMap;
+
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.ws.rs.core.MultivaluedMap;
+
+import com.alibaba.webx.restful.model.uri.UriComponent;
+
+/**
+ * A sub-request of a batch, dispatched in-process with its own method, path, query, headers and body. Everything
+ * else, such as the cookies, the session and the attributes, is the one of the batch request.
+ */
+public class BatchHttpServletRequest extends HttpServletRequestWrapper {
+
+    private static final String         FORM_CONTENT_TYPE = "application/x-www-form-urlencoded";
+    private static final String[]       DATE_PATTERNS     = { "EEE, dd MMM yyyy HH:mm:ss zzz",
+                                                              "EEEE, dd-MMM-yy HH:mm:ss zzz",
+                                                              "EEE MMM d HH:mm:ss yyyy" };
+
+    private final String                method;
+    private final String                requestURI;
+    private final String                queryString;
+    private final Map<String, String>   headers;
+    private final byte[]                body;
+    private final Map<String, String[]> parameters;
+
+    /**
+     * @param path the path of the sub-request under the servlet path, as given by {@link UriInfoImpl#getPath()}.
+     * @param headers the headers of the sub-request, or {@code null}.
+     * @param body the UTF-8 body of the sub-request, or {@code null}.
+     */
+    public BatchHttpServletRequest(HttpServletRequest request, String method, String path, String queryString,
+                                   Map<String, String> headers, String body){
+        super(request);
+        this.method = method.toUpperCase();
+        this.requestURI = request.getContextPath() + request.getServletPath() + path;
+        this.queryString = queryString;
+
+        this.headers = new TreeMap<String, String>(String.CASE_INSENSITIVE_ORDER);
+        if (headers != null) {
+            this.headers.putAll(headers);
+        }
+
+        try {
+            this.body = (body == null) ? new byte[0] : body.getBytes("UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+
+        this.parameters = new LinkedHashMap<String, String[]>();
+        addParameters(queryString);
+
+        String contentType = getContentType();
+        if (body != null && contentType != null && contentType.startsWith(FORM_CONTENT_TYPE)) {
+            addParameters(body);
+        }
+    }
+
+    private void addParameters(String query) {
+        MultivaluedMap<String, String> decoded = UriComponent.decodeQuery(query, true);
+        for (Map.Entry<String, List<String>> entry : decoded.entrySet()) {
+            String[] values = entry.getValue().toArray(new String[entry.getValue().size()]);
+            String[] existing = parameters.get(entry.getKey());
+            if (existing != null) {
+                String[] merged = new String[existing.length + values.length];
+                System.arraycopy(existing, 0, merged, 0, existing.length);
+                System.arraycopy(values, 0, merged, existing.length, values.length);
+                values = merged;
+            }
+            parameters.put(entry.getKey(), values);
+        }
+    }
+
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    @Override
+    public String getRequestURI() {
+        return requestURI;
+    }
+
+    @Override
+    public String getPathInfo() {
+        return null;
+    }
+
+    @Override
+    public String getQueryString() {
+        return queryString;
+    }
+
+    @Override
+    public String getParameter(String name) {
+        String[] values = parameters.get(name);
+        return (values == null || values.length == 0) ? null : values[0];
+    }
+
+    @Override
+    public String[] getParameterValues(String name) {
+        return parameters.get(name);
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Map getParameterMap() {
+        return Collections.unmodifiableMap(parameters);
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Enumeration getParameterNames() {
+        return Collections.enumeration(parameters.keySet());
+    }
+
+    @Override
+    public String getHeader(String name) {
+        return headers.get(name);
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Enumeration getHeaders(String name) {
+        String value = headers.get(name);
+        if (value == null) {
+            return Collections.enumeration(Collections.emptyList());
+        }
+        return Collections.enumeration(Collections.singletonList(value));
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Enumeration getHeaderNames() {
+        return Collections.enumeration(headers.keySet());
+    }
+
+    @Override
+    public int getIntHeader(String name) {
+        String value = headers.get(name);
+        return (value == null) ? -1 : Integer.parseInt(value);
+    }
+
+    /**
+     * Parse a date header of the sub-request in any of the HTTP/1.1 date formats.
+     * 
+     * @throws IllegalArgumentException if the header is not a date.
+     */
+    @Override
+    public long getDateHeader(String name) {
+        String value = headers.get(name);
+        if (value == null) {
+            return -1;
+        }
+
+        for (String pattern : DATE_PATTERNS) {
+            SimpleDateFormat format = new SimpleDateFormat(pattern, Locale.US);
+            format.setTimeZone(TimeZone.getTimeZone("GMT"));
+            try {
+                return format.parse(value).getTime();
+            } catch (ParseException e) {
+                // try the next format
+            }
+        }
+        throw new IllegalArgumentException("header " + name + " is not a date : " + value);
+    }
+
+    @Override
+    public String getContentType() {
+        return headers.get("Content-Type");
+    }
+
+    @Override
+    public int getContentLength() {
+        return body.length;
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return "UTF-8";
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        final ByteArrayInputStream in = new ByteArrayInputStream(body);
+        return new ServletInputStream() {
+
+            @Override
+            public int read() {
+                return in.read();
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                return in.read(b, off, len);
+            }
+        };
+    }
+
+    @Override
+    public BufferedReader getReader() throws UnsupportedEncodingException {
+        return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body), "UTF-8"));
+    }
+}
@@ -0,0 +1,262 @@
+package com.alibaba.webx.restful.process.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * A response which buffers the status, content type, headers and body written to it, to be replayed on any number of
+ * responses by {@link #writeTo(HttpServletResponse)}.
+ * <p>
+ * Nothing reaches the wrapped response: the date and int headers are buffered in their string form, the body is
+ * encoded with the charset of the buffered content type, and {@code sendError} is replayed as is.
+ * <p>
+ * Once it is written and flushed, the buffered response is only read, and can be shared by several threads.
+ */
+public class BufferedHttpServletResponse extends HttpServletResponseWrapper {
+
+    private final ByteArrayOutputStream body    = new ByteArrayOutputStream();
+    private final List<String[]>        headers = new ArrayList<String[]>();
+
+    private int                         status  = SC_OK;
+    private boolean                     error;
+    private String                      errorMessage;
+    private String                      contentType;
+    private String                      characterEncoding;
+
+    private ServletOutputStream         outputStream;
+    private PrintWriter                 writer;
+
+    public BufferedHttpServletResponse(HttpServletResponse response){
+        super(response);
+    }
+
+    @Override
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public void setStatus(int status, String message) {
+        this.status = status;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    @Override
+    public void sendError(int status) {
+        sendError(status, null);
+    }
+
+    @Override
+    public void sendError(int status, String message) {
+        this.status = status;
+        this.error = true;
+        this.errorMessage = message;
+    }
+
+    @Override
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+
+        String charset = getCharset(contentType);
+        if (charset != null) {
+            setCharacterEncoding(charset);
+        }
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public void setCharacterEncoding(String characterEncoding) {
+        if (writer == null) {
+            this.characterEncoding = characterEncoding;
+        }
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return characterEncoding == null ? "ISO-8859-1" : characterEncoding;
+    }
+
+    @Override
+    public void setContentLength(int length) {
+        // the length of the buffered body is written by writeTo
+    }
+
+    @Override
+    public boolean containsHeader(String name) {
+        if (contentType != null && "Content-Type".equalsIgnoreCase(name)) {
+            return true;
+        }
+        for (String[] header : headers) {
+            if (header[0].equalsIgnoreCase(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        for (int i = headers.size() - 1; i >= 0; --i) {
+            if (headers.get(i)[0].equalsIgnoreCase(name)) {
+                headers.remove(i);
+            }
+        }
+        addHeader(name, value);
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        headers.add(new String[] { name, value });
+    }
+
+    @Override
+    public void setDateHeader(String name, long date) {
+        setHeader(name, formatDate(date));
+    }
+
+    @Override
+    public void addDateHeader(String name, long date) {
+        addHeader(name, formatDate(date));
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        setHeader(name, Integer.toString(value));
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        addHeader(name, Integer.toString(value));
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (outputStream == null) {
+            outputStream = new ServletOutputStream() {
+
+                @Override
+                public void write(int b) {
+                    body.write(b);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                    body.write(b, off, len);
+                }
+            };
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    @Override
+    public boolean isCommitted() {
+        return error;
+    }
+
+    /**
+     * @return the headers written so far, as (name, value) pairs in order.
+     */
+    public List<String[]> getBufferedHeaders() {
+        return Collections.unmodifiableList(headers);
+    }
+
+    /**
+     * @return the body written so far, call {@link #flushBuffer()} first if the writer was used.
+     */
+    public byte[] getBody() {
+        return body.toByteArray();
+    }
+
+    /**
+     * Write the buffered status, content type, headers and body on a response.
+     */
+    public void writeTo(HttpServletResponse response) throws IOException {
+        response.setStatus(status);
+        if (contentType != null) {
+            response.setContentType(contentType);
+        }
+        if (characterEncoding != null) {
+            response.setCharacterEncoding(characterEncoding);
+        }
+        for (String[] header : headers) {
+            response.addHeader(header[0], header[1]);
+        }
+
+        if (error) {
+            if (errorMessage == null) {
+                response.sendError(status);
+            } else {
+                response.sendError(status, errorMessage);
+            }
+            return;
+        }
+
+        byte[] bytes = getBody();
+        response.setContentLength(bytes.length);
+        response.getOutputStream().write(bytes);
+    }
+
+    private static String formatDate(long date) {
+        SimpleDateFormat format = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("GMT"));
+        return format.format(new Date(date));
+    }
+
+    /**
+     * @return the charset parameter of a content type, or null if it has none.
+     */
+    private static String getCharset(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+
+        String[] params = contentType.split(";");
+        for (int i = 1; i < params.length; ++i) {
+            String param = params[i].trim();
+            if (param.regionMatches(true, 0, "charset=", 0, 8)) {
+                String charset = param.substring(8).trim();
+                if (charset.length() > 1 && charset.startsWith("\"") && charset.endsWith("\"")) {
+                    charset = charset.substring(1, charset.length() - 1);
+                }
+                return charset.length() == 0 ? null : charset;
+            }
+        }
+        return null;
+    }
+}
@@ -1,5 +1,6 @@
 package com.alibaba.webx.restful.process.impl;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.util.Date;
@@ -8,11 +9,12 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.regex.MatchResult;
+import java.util.Set;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.ws.rs.core.Cookie;
+import javax.ws.rs.core.ExecutionContext;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
@@ -21,22 +23,34 @@ import javax.ws.rs.core.Response;
 import javax.ws.rs.core.SecurityContext;
 import javax.ws.rs.core.UriInfo;
 
+import com.alibaba.webx.restful.model.Invocable;
 import com.alibaba.webx.restful.model.Resource;
 import com.alibaba.webx.restful.model.ResourceMethod;
-import com.alibaba.webx.restful.model.uri.PathPattern;
-import com.alibaba.webx.restful.model.uri.UriTemplate;
+import com.alibaba.webx.restful.model.route.RouteMatch;
 import com.alibaba.webx.restful.process.RestfulRequestContext;
 
 public class ContainerRequestContextImpl implements RestfulRequestContext {
 
+    public static final long          DEFAULT_FORM_MAX_SIZE  = 2 * 1024 * 1024;
+
+    public static final String        DEFAULT_QUERY_ENCODING = "UTF-8";
+
+    private static final String       FORM_CONTENT_TYPE      = "application/x-www-form-urlencoded";
+
+    /**
+     * The value of a shared header not read yet.
+     */
+    private static final String       UNREAD                 = new String();
+
     private final HttpServletRequest  httpRequest;
     private final HttpServletResponse httpResponse;
 
     private Resource                  resource;
     private ResourceMethod            resourceMethod;
 
-    private MatchResult               resourceMatchResult;
-    private MatchResult               resourceMethodMatchResult;
+    private RouteMatch                routeMatch;
+    private MediaType                 responseMediaType;
+    private Object                    resourceInstance;
 
     private Exception                 exception;
     private Object                    returnObject;
@@ -56,6 +70,19 @@ public class ContainerRequestContextImpl implements RestfulRequestContext {
 
     private Map<String, String>       pathVariables;
 
+    private ExecutionContextImpl      executionContext;
+
+    private long                      formMaxSize     = DEFAULT_FORM_MAX_SIZE;
+    private String                    queryEncoding   = DEFAULT_QUERY_ENCODING;
+    private boolean                   queryBodyEncoding;
+    private FormReader                formReader;
+
+    private CookieIndex               cookieIndex;
+
+    private String                    accept          = UNREAD;
+    private String                    contentType     = UNREAD;
+    private String                    ifNoneMatch     = UNREAD;
+
     public ContainerRequestContextImpl(HttpServletRequest request, HttpServletResponse response, UriInfo uriInfo){
         this.httpRequest = request;
         this.httpResponse = response;
@@ -65,7 +92,7 @@ public class ContainerRequestContextImpl implements RestfulRequestContext {
 
     public HttpHeaders getHttpHeaders() {
         if (httpHeaders == null) {
-            httpHeaders = new HttpHeadersImpl(httpRequest);
+            httpHeaders = new HttpHeadersImpl(httpRequest, getCookieIndex());
         }
         return httpHeaders;
     }
@@ -110,20 +137,28 @@ public class ContainerRequestContextImpl implements RestfulRequestContext {
         return httpResponse;
     }
 
-    public MatchResult getResourceMatchResult() {
-        return resourceMatchResult;
+    public RouteMatch getRouteMatch() {
+        return routeMatch;
+    }
+
+    public void setRouteMatch(RouteMatch routeMatch) {
+        this.routeMatch = routeMatch;
     }
 
-    public void setResourceMatchResult(MatchResult resourceMatchResult) {
-        this.resourceMatchResult = resourceMatchResult;
+    public MediaType getResponseMediaType() {
+        return responseMediaType;
     }
 
-    public MatchResult getResourceMethodMatchResult() {
-        return resourceMethodMatchResult;
+    public void setResponseMediaType(MediaType responseMediaType) {
+        this.responseMediaType = responseMediaType;
     }
 
-    public void setResourceMethodMatchResult(MatchResult resourceMethodMatchResult) {
-        this.resourceMethodMatchResult = resourceMethodMatchResult;
+    public Object getResourceInstance() {
+        return resourceInstance;
+    }
+
+    public void setResourceInstance(Object resourceInstance) {
+        this.resourceInstance = resourceInstance;
     }
 
     public Map<String, Object> getProperties() {
@@ -248,34 +283,137 @@ public class ContainerRequestContextImpl implements RestfulRequestContext {
         if (pathVariables == null) {
             pathVariables = new HashMap<String, String>();
 
-            {
-                PathPattern pathPattern = this.resource.getPathPattern();
+            for (RouteMatch match = routeMatch; match != null; match = match.getParent()) {
+                String[] names = match.getRoute().getVariableNames();
+                for (int i = 0; i < names.length; ++i) {
+                    if (!pathVariables.containsKey(names[i])) {
+                        pathVariables.put(names[i], match.getVariableValue(i));
+                    }
+                }
+            }
+        }
+        return pathVariables;
+    }
 
-                UriTemplate template = pathPattern.getTemplate();
+    public String getPathVariable(int index) {
+        if (routeMatch == null || index >= routeMatch.getVariableCount()) {
+            return null;
+        }
+        return routeMatch.getVariableValue(index);
+    }
 
-                List<String> templateVariables = template.getTemplateVariables();
-                for (int i = 0; i < templateVariables.size(); ++i) {
-                    String name = templateVariables.get(0);
-                    String value = this.resourceMatchResult.group(i + 1);
-                    pathVariables.put(name, value);
+    public String getPathVariable(String name) {
+        for (RouteMatch match = routeMatch; match != null; match = match.getParent()) {
+            String[] names = match.getRoute().getVariableNames();
+            for (int i = 0; i < names.length; ++i) {
+                if (names[i].equals(name)) {
+                    return match.getVariableValue(i);
                 }
             }
+        }
+        return null;
+    }
 
-            {
-                PathPattern pathPattern = this.resourceMethod.getPathPattern();
+    public String getFormParameter(String name) throws IOException {
+        String contentType = getHeaderValue(CONTENT_TYPE);
+        if (contentType == null
+            || !contentType.regionMatches(true, 0, FORM_CONTENT_TYPE, 0, FORM_CONTENT_TYPE.length())) {
+            return httpRequest.getParameter(name);
+        }
 
-                UriTemplate template = pathPattern.getTemplate();
+        // the body is left to the container when the method may read the request parameters itself
+        if (resourceMethod != null && resourceMethod.getInvocable().isContextRequired()) {
+            return httpRequest.getParameter(name);
+        }
 
-                List<String> templateVariables = template.getTemplateVariables();
-                for (int i = 0; i < templateVariables.size(); ++i) {
-                    String name = templateVariables.get(0);
-                    String value = this.resourceMethodMatchResult.group(i + 1);
-                    pathVariables.put(name, value);
-                }
+        if (formReader == null) {
+            Set<String> fields = null;
+            boolean readAll = false;
+            if (resourceMethod != null) {
+                Invocable invocable = resourceMethod.getInvocable();
+                fields = invocable.getFormFields();
+                readAll = invocable.requiresEntity();
+            }
+            formReader = new FormReader(httpRequest.getInputStream(), httpRequest.getCharacterEncoding(), fields,
+                                        readAll, formMaxSize);
+        }
+
+        String value = formReader.getValue(name);
+        if (value == null && formReader.isEmpty()) {
+            // read by the container already, such as by a filter calling getParameter
+            return httpRequest.getParameter(name);
+        }
+        return value;
+    }
+
+    public String getQueryEncoding() {
+        if (queryBodyEncoding) {
+            String characterEncoding = httpRequest.getCharacterEncoding();
+            if (characterEncoding != null) {
+                return characterEncoding;
             }
+        }
+        return queryEncoding;
+    }
 
+    public String getHeaderValue(String name) {
+        if (name == ACCEPT || ACCEPT.equalsIgnoreCase(name)) {
+            if (accept == UNREAD) {
+                accept = httpRequest.getHeader(HttpHeaders.ACCEPT);
+            }
+            return accept;
         }
-        return pathVariables;
+        if (name == CONTENT_TYPE || CONTENT_TYPE.equalsIgnoreCase(name)) {
+            if (contentType == UNREAD) {
+                contentType = httpRequest.getContentType();
+            }
+            return contentType;
+        }
+        if (name == IF_NONE_MATCH || IF_NONE_MATCH.equalsIgnoreCase(name)) {
+            if (ifNoneMatch == UNREAD) {
+                ifNoneMatch = httpRequest.getHeader(HttpHeaders.IF_NONE_MATCH);
+            }
+            return ifNoneMatch;
+        }
+        return httpRequest.getHeader(name);
+    }
+
+    public String getCookieValue(String name) {
+        return getCookieIndex().getValue(name);
+    }
+
+    public CookieIndex getCookieIndex() {
+        if (cookieIndex == null) {
+            cookieIndex = new CookieIndex(httpRequest);
+        }
+        return cookieIndex;
+    }
+
+    /**
+     * @param formMaxSize the maximum size in bytes of a form body read by {@link #getFormParameter(String)}.
+     */
+    public void setFormMaxSize(long formMaxSize) {
+        this.formMaxSize = formMaxSize;
+    }
+
+    /**
+     * @param queryEncoding the charset the query string is decoded with.
+     * @param queryBodyEncoding true to decode it with the character encoding of the request when it has one.
+     */
+    public void setQueryEncoding(String queryEncoding, boolean queryBodyEncoding) {
+        this.queryEncoding = queryEncoding;
+        this.queryBodyEncoding = queryBodyEncoding;
+    }
+
+    public synchronized ExecutionContext getExecutionContext() {
+        if (executionContext == null) {
+            executionContext = new ExecutionContextImpl();
+        }
+        return executionContext;
+    }
+
+    public synchronized boolean isSuspendRequested() {
+        return executionContext != null && executionContext.isSuspendRequested();
     }
 
     @Override
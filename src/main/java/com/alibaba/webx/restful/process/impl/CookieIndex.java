@@ -0,0 +1,164 @@
+package com.alibaba.webx.restful.process.impl;
+
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.core.Cookie;
+
+/**
+ * The cookies of a request, parsed from the raw {@code Cookie} headers on first use, and shared by the cookie
+ * parameters and {@link HttpHeadersImpl#getCookies()}.
+ * <p>
+ * {@link HttpServletRequest#getCookies()} is not called, so the container does not create a {@link
+ * javax.servlet.http.Cookie} for every cookie of the request; the names and values are kept in arrays, and looked up
+ * by comparing hash codes first. RFC 2965 attributes ({@code $Version}, {@code $Path}, {@code $Domain}) are only used
+ * for {@link #toMap()}. As with {@link HttpServletRequest#getCookies()}, the first cookie of a name wins.
+ */
+public final class CookieIndex {
+
+    private static final String[]    EMPTY   = new String[0];
+
+    private final HttpServletRequest httpRequest;
+
+    private String[]                 names;
+    private String[]                 values;
+    private int[]                    hashes;
+    private String[]                 paths;
+    private String[]                 domains;
+    private int                      size;
+    private int                      version;
+
+    public CookieIndex(HttpServletRequest httpRequest){
+        this.httpRequest = httpRequest;
+    }
+
+    /**
+     * @return the value of the first cookie of a name, or {@code null} if the request has no such cookie.
+     */
+    public String getValue(String name) {
+        parse();
+
+        int hash = name.hashCode();
+        for (int i = 0; i < size; ++i) {
+            if (hashes[i] == hash && names[i].equals(name)) {
+                return values[i];
+            }
+        }
+        return null;
+    }
+
+    public int size() {
+        parse();
+        return size;
+    }
+
+    /**
+     * @return the cookies by name, in the order of the request.
+     */
+    public Map<String, Cookie> toMap() {
+        parse();
+
+        Map<String, Cookie> map = new LinkedHashMap<String, Cookie>();
+        for (int i = 0; i < size; ++i) {
+            if (!map.containsKey(names[i])) {
+                map.put(names[i], new Cookie(names[i], values[i], paths[i], domains[i], version));
+            }
+        }
+        return map;
+    }
+
+    private void parse() {
+        if (names != null) {
+            return;
+        }
+
+        names = EMPTY;
+        values = EMPTY;
+        paths = EMPTY;
+        domains = EMPTY;
+        hashes = new int[0];
+
+        Enumeration<?> headers = httpRequest.getHeaders("Cookie");
+        if (headers == null) {
+            return;
+        }
+
+        while (headers.hasMoreElements()) {
+            String header = (String) headers.nextElement();
+            if (header != null) {
+                parse(header);
+            }
+        }
+    }
+
+    private void parse(String header) {
+        int length = header.length();
+        for (int start = 0; start < length;) {
+            int end = header.indexOf(';', start);
+            if (end == -1) {
+                end = length;
+            }
+
+            int eq = header.indexOf('=', start);
+            if (eq != -1 && eq < end) {
+                String name = header.substring(start, eq).trim();
+                String value = unquote(header.substring(eq + 1, end).trim());
+                if (name.length() != 0) {
+                    add(name, value);
+                }
+            }
+
+            start = end + 1;
+        }
+    }
+
+    private void add(String name, String value) {
+        if (name.charAt(0) == '$') {
+            if ("$Version".equalsIgnoreCase(name)) {
+                try {
+                    version = Integer.parseInt(value);
+                } catch (NumberFormatException e) {
+                    // keep the default version
+                }
+            } else if (size != 0 && "$Path".equalsIgnoreCase(name)) {
+                paths[size - 1] = value;
+            } else if (size != 0 && "$Domain".equalsIgnoreCase(name)) {
+                domains[size - 1] = value;
+            }
+            return;
+        }
+
+        if (size == names.length) {
+            int capacity = Math.max(8, size * 2);
+            names = copyOf(names, capacity);
+            values = copyOf(values, capacity);
+            paths = copyOf(paths, capacity);
+            domains = copyOf(domains, capacity);
+
+            int[] newHashes = new int[capacity];
+            System.arraycopy(hashes, 0, newHashes, 0, size);
+            hashes = newHashes;
+        }
+
+        names[size] = name;
+        values[size] = value;
+        hashes[size] = name.hashCode();
+        size++;
+    }
+
+    private static String[] copyOf(String[] array, int capacity) {
+        String[] copy = new String[capacity];
+        System.arraycopy(array, 0, copy, 0, array.length);
+        return copy;
+    }
+
+    private static String unquote(String value) {
+        int length = value.length();
+        if (length >= 2 && value.charAt(0) == '"' && value.charAt(length - 1) == '"') {
+            return value.substring(1, length - 1);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,219 @@
+package com.alibaba.webx.restful.process.impl;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.Suspend;
+import javax.ws.rs.core.ExecutionContext;
+import javax.ws.rs.core.Response;
+
+/**
+ * The execution context of a request, injected into resource methods which complete the request on another thread.
+ * <p>
+ * A resource method suspends the request, either with {@link Suspend @Suspend} or by calling {@link #suspend()}, hands
+ * the context to whatever produces the result, and returns. The response is written when {@link #resume(Object)} is
+ * called, or with status 503 when the request is cancelled or the suspension times out without a default response.
+ */
+public class ExecutionContextImpl implements ExecutionContext {
+
+    private static final int RUNNING   = 0;
+    private static final int SUSPENDED = 1;
+    private static final int RESUMED   = 2;
+    private static final int CANCELLED = 3;
+
+    private int              state     = RUNNING;
+    private boolean          suspendRequested;
+
+    private long             timeoutMillis;
+
+    private Object           result;
+    private Throwable        error;
+    private Object           response;
+
+    private Listener         listener;
+
+    public ExecutionContextImpl(){
+    }
+
+    /**
+     * Notified once when the request is resumed or cancelled.
+     */
+    public static interface Listener {
+
+        void done(ExecutionContextImpl executionContext);
+    }
+
+    @Override
+    public void resume(Object response) throws IllegalStateException {
+        complete(RESUMED, response, null);
+    }
+
+    @Override
+    public void resume(Throwable response) throws IllegalStateException {
+        complete(RESUMED, null, response);
+    }
+
+    @Override
+    public void suspend() throws IllegalStateException {
+        suspend(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void suspend(long millis) throws IllegalStateException {
+        suspend(millis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void suspend(long time, TimeUnit unit) throws IllegalStateException {
+        if (state != RUNNING) {
+            throw new IllegalStateException("request already suspended");
+        }
+        state = SUSPENDED;
+        suspendRequested = true;
+        timeoutMillis = unit.toMillis(time);
+    }
+
+    @Override
+    public synchronized void setSuspendTimeout(long time, TimeUnit unit) throws IllegalStateException {
+        if (state > SUSPENDED) {
+            throw new IllegalStateException("request already resumed");
+        }
+        timeoutMillis = unit.toMillis(time);
+    }
+
+    /**
+     * @return the suspend timeout in milliseconds, {@link Suspend#NEVER} if the suspension never times out.
+     */
+    public synchronized long getSuspendTimeout() {
+        return timeoutMillis;
+    }
+
+    @Override
+    public void cancel() {
+        synchronized (this) {
+            if (state > SUSPENDED) {
+                return;
+            }
+        }
+        complete(CANCELLED, null, null);
+    }
+
+    /**
+     * Called when the suspend timeout elapsed: the request is resumed with the default {@link #setResponse(Object)
+     * response} if one is set, cancelled otherwise.
+     */
+    public void timeout() {
+        Object defaultResponse;
+        synchronized (this) {
+            if (state != SUSPENDED) {
+                return;
+            }
+            defaultResponse = response;
+        }
+
+        try {
+            if (defaultResponse != null) {
+                complete(RESUMED, defaultResponse, null);
+            } else {
+                complete(CANCELLED, null, null);
+            }
+        } catch (IllegalStateException e) {
+            // resumed concurrently
+        }
+    }
+
+    private void complete(int newState, Object result, Throwable error) {
+        Listener listener;
+        synchronized (this) {
+            if (state != SUSPENDED) {
+                throw new IllegalStateException((state == RUNNING) ? "request not suspended" : "request already resumed");
+            }
+            this.state = newState;
+            this.result = result;
+            this.error = error;
+            listener = this.listener;
+            notifyAll();
+        }
+
+        if (listener != null) {
+            listener.done(this);
+        }
+    }
+
+    @Override
+    public synchronized boolean isSuspended() {
+        return state == SUSPENDED;
+    }
+
+    /**
+     * @return true if the request was suspended, even if it is already resumed.
+     */
+    public synchronized boolean isSuspendRequested() {
+        return suspendRequested;
+    }
+
+    @Override
+    public synchronized boolean isCancelled() {
+        return state == CANCELLED;
+    }
+
+    @Override
+    public synchronized boolean isDone() {
+        return state > SUSPENDED;
+    }
+
+    @Override
+    public synchronized void setResponse(Object response) {
+        this.response = response;
+    }
+
+    @Override
+    public synchronized Response getResponse() {
+        return (response instanceof Response) ? (Response) response : null;
+    }
+
+    public synchronized Object getResult() {
+        return result;
+    }
+
+    public synchronized Throwable getError() {
+        return error;
+    }
+
+    /**
+     * Set the listener notified when the request is resumed or cancelled, it is notified at once if the request is
+     * already done.
+     */
+    public void setListener(Listener listener) {
+        synchronized (this) {
+            this.listener = listener;
+            if (state <= SUSPENDED) {
+                return;
+            }
+        }
+        listener.done(this);
+    }
+
+    /**
+     * Wait on the current thread until the request is resumed or cancelled, the suspension times out after the
+     * suspend timeout.
+     */
+    public void await() throws InterruptedException {
+        synchronized (this) {
+            long deadline = (timeoutMillis > 0) ? System.currentTimeMillis() + timeoutMillis : 0;
+            while (state == SUSPENDED) {
+                if (deadline == 0) {
+                    wait();
+                    continue;
+                }
+
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    break;
+                }
+                wait(remaining);
+            }
+        }
+
+        timeout();
+    }
+}
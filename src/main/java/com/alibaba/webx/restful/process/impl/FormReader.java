@@ -0,0 +1,192 @@
+package com.alibaba.webx.restful.process.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.alibaba.webx.restful.process.ProcessException;
+
+/**
+ * Reads the fields of an {@code application/x-www-form-urlencoded} body from the input stream of the request, instead
+ * of letting the container decode the whole body into its parameter map.
+ * <p>
+ * The body is read on demand, only as far as needed to find a requested field. Only the fields the resource method
+ * declares are kept, and only their values are decoded; once all of them are found the rest of the body is not read,
+ * unless the method also takes the entity. As with {@link javax.servlet.ServletRequest#getParameter(String)}, the first
+ * value of a field is returned. The octets of a name or a value, raw or percent-encoded, are collected before they are
+ * decoded with the charset of the body.
+ */
+public class FormReader {
+
+    private static final int          BUFFER_SIZE = 4096;
+
+    private final InputStream         in;
+    private final String              charset;
+    private final Set<String>         fields;
+    private final boolean             readAll;
+    private final long                maxSize;
+
+    private final Map<String, String> values      = new HashMap<String, String>();
+
+    private final byte[]              buf         = new byte[BUFFER_SIZE];
+    private int                       pos;
+    private int                       limit;
+    private long                      size;
+    private boolean                   eof;
+
+    /**
+     * The octets of the name or value being read.
+     */
+    private byte[]                    octets      = new byte[64];
+    private int                       length;
+
+    /**
+     * @param charset the charset of the body, UTF-8 if {@code null}.
+     * @param fields the fields to keep, or {@code null} to keep every field.
+     * @param readAll true to read the whole body even once all the fields are found.
+     * @param maxSize the maximum size of the body in bytes.
+     */
+    public FormReader(InputStream in, String charset, Set<String> fields, boolean readAll, long maxSize){
+        this.in = in;
+        this.charset = (charset == null) ? "UTF-8" : charset;
+        this.fields = fields;
+        this.readAll = readAll;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return the decoded first value of a field, or {@code null} if the field is not in the body, or is not kept.
+     * @throws ProcessException if the body is larger than the maximum size.
+     */
+    public String getValue(String name) throws IOException {
+        if (fields != null && !fields.contains(name)) {
+            return null;
+        }
+
+        while (!values.containsKey(name) && readField()) {
+            if (!readAll && fields != null && values.size() == fields.size()) {
+                eof = true;
+            }
+        }
+
+        return values.get(name);
+    }
+
+    /**
+     * @return true if the body was empty once read, as when the container has already read it.
+     */
+    public boolean isEmpty() {
+        return eof && size == 0;
+    }
+
+    /**
+     * Read the next field of the body.
+     *
+     * @return false at the end of the body.
+     */
+    private boolean readField() throws IOException {
+        if (eof) {
+            return false;
+        }
+
+        length = 0;
+        int c;
+        while ((c = read()) != -1 && c != '=' && c != '&') {
+            append(c);
+        }
+
+        if (c == -1 && length == 0) {
+            return false;
+        }
+
+        String decodedName = decode();
+        boolean keep = decodedName != null && decodedName.length() != 0 && !values.containsKey(decodedName)
+                       && (fields == null || fields.contains(decodedName));
+
+        length = 0;
+        if (c == '=') {
+            while ((c = read()) != -1 && c != '&') {
+                if (keep) {
+                    append(c);
+                }
+            }
+        }
+
+        if (keep) {
+            String decodedValue = decode();
+            if (decodedValue != null) {
+                values.put(decodedName, decodedValue);
+            }
+        }
+        return true;
+    }
+
+    private void append(int c) {
+        if (length == octets.length) {
+            byte[] newOctets = new byte[length * 2];
+            System.arraycopy(octets, 0, newOctets, 0, length);
+            octets = newOctets;
+        }
+        octets[length++] = (byte) c;
+    }
+
+    private int read() throws IOException {
+        if (pos == limit) {
+            if (eof) {
+                return -1;
+            }
+
+            limit = in.read(buf);
+            pos = 0;
+            if (limit <= 0) {
+                limit = 0;
+                eof = true;
+                return -1;
+            }
+
+            size += limit;
+            if (size > maxSize) {
+                eof = true;
+                throw new ProcessException("form body is larger than " + maxSize + " bytes");
+            }
+        }
+        return buf[pos++] & 0xFF;
+    }
+
+    /**
+     * Decode the collected octets, a {@code '+'} is a space.
+     * 
+     * @return the decoded string, or {@code null} if it has a malformed percent-encoded octet, or the charset is not
+     * supported.
+     */
+    private String decode() {
+        int count = 0;
+        for (int i = 0; i < length; ++i) {
+            byte b = octets[i];
+            if (b == '+') {
+                b = ' ';
+            } else if (b == '%') {
+                if (i + 2 >= length) {
+                    return null;
+                }
+                int high = Character.digit((char) (octets[i + 1] & 0xFF), 16);
+                int low = Character.digit((char) (octets[i + 2] & 0xFF), 16);
+                if (high == -1 || low == -1) {
+                    return null;
+                }
+                b = (byte) ((high << 4) | low);
+                i += 2;
+            }
+            octets[count++] = b;
+        }
+
+        try {
+            return new String(octets, 0, count, charset);
+        } catch (UnsupportedEncodingException e) {
+            return null;
+        }
+    }
+}
@@ -3,7 +3,6 @@ package com.alibaba.webx.restful.process.impl;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.Enumeration;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -23,11 +22,17 @@ public class HttpHeadersImpl implements HttpHeaders {
     private final List<Locale>       acceptableLanguages  = new ArrayList<Locale>(1);
     private MediaType                mediaType            = null;
     private Locale                   language             = null;
+    private final CookieIndex        cookieIndex;
     private Map<String, Cookie>      cookies              = null;
     private Date                     date;
 
     public HttpHeadersImpl(HttpServletRequest httpRequest){
+        this(httpRequest, new CookieIndex(httpRequest));
+    }
+
+    public HttpHeadersImpl(HttpServletRequest httpRequest, CookieIndex cookieIndex){
         this.httpRequest = httpRequest;
+        this.cookieIndex = cookieIndex;
     }
 
     public HttpServletRequest getHttpRequest() {
@@ -90,13 +95,7 @@ public class HttpHeadersImpl implements HttpHeaders {
     @Override
     public Map<String, Cookie> getCookies() {
         if (cookies == null) {
-            Map<String, Cookie> map = new HashMap<String, Cookie>();
-            for (javax.servlet.http.Cookie item : httpRequest.getCookies()) {
-                Cookie cookie = new Cookie(item.getName(), item.getValue(), item.getPath(), item.getDomain(),
-                                           item.getVersion());
-                map.put(item.getName(), cookie);
-            }
-            cookies = map;
+            cookies = cookieIndex.toMap();
         }
         return cookies;
     }
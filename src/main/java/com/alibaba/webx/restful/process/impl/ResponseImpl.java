@@ -214,7 +214,7 @@ public class ResponseImpl extends Response {
 
     @Override
     public MultivaluedMap<String, Object> getMetadata() {
-        throw new UnsupportedOperationException();
+        return headers;
     }
 
     @Override
@@ -4,6 +4,8 @@ import static com.alibaba.citrus.turbine.util.TurbineUtil.getTurbineRunData;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -22,7 +24,6 @@ import com.alibaba.citrus.webx.WebxComponent;
 import com.alibaba.fastjson.util.IOUtils;
 import com.alibaba.webx.restful.model.ApplicationImpl;
 import com.alibaba.webx.restful.model.Resource;
-import com.alibaba.webx.restful.model.ResourceMethod;
 import com.alibaba.webx.restful.model.finder.AnnotatedClassVisitor;
 import com.alibaba.webx.restful.model.finder.ClassInfo;
 import com.alibaba.webx.restful.model.param.ParameterProviderImpl;
@@ -83,6 +84,7 @@ public class RestfulValve implements Valve {
 
         WebApplicationContext applicationContext = component.getApplicationContext();
         ApplicationImpl config = new ApplicationImpl();
+        List<Resource> resources = new ArrayList<Resource>();
 
         String[] beanNames = applicationContext.getBeanDefinitionNames();
         for (String beanName : beanNames) {
@@ -97,14 +99,18 @@ public class RestfulValve implements Valve {
                 continue;
             }
 
-            buildResource(config, beanClass, bean);
+            Resource resource = buildResource(beanClass, bean);
+            if (resource != null) {
+                resources.add(resource);
+            }
         }
+        config.addResources(resources);
 
         restfulComponent = new RestfulComponent(config, applicationContext);
     }
 
     @SuppressWarnings("unchecked")
-    private void buildResource(ApplicationImpl config, Class<?> beanClass, Object bean) {
+    private Resource buildResource(Class<?> beanClass, Object bean) {
         String className = beanClass.getName();
         String resourceName = className.replace('.', '/') + ".class";
         InputStream in = null;
@@ -121,13 +127,10 @@ public class RestfulValve implements Valve {
 
             WebApplicationContext applicationContext = component.getApplicationContext();
             ParameterProvider parameterProvider = new ParameterProviderImpl(applicationContext);
-            Resource resource = ResourceUtils.buildResource(applicationContext, parameterProvider, beanClass,
-                                                            classInfo, bean);
-            if (resource != null) {
-                config.addResource(resource);
-            }
+            return ResourceUtils.buildResource(applicationContext, parameterProvider, beanClass, classInfo, bean);
         } catch (IOException e) {
             LOG.error(e.getMessage(), e);
+            return null;
         } finally {
             IOUtils.close(in);
         }
@@ -147,9 +150,7 @@ public class RestfulValve implements Valve {
 
         ContainerRequestContextImpl requestContext = handler.createRequestContext(request, response, uriInfo);
 
-        ResourceMethod resourceMethod = requestContext.getResourceMethod();
-
-        if (resourceMethod != null) {
+        if (requestContext.getRouteMatch() != null) {
             handler.service(requestContext);
         } else {
             pipelineContext.invokeNext();
@@ -1,6 +1,7 @@
 package com.alibaba.webx.restful.util;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
@@ -11,9 +12,12 @@ import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 import javax.ws.rs.Consumes;
@@ -29,17 +33,27 @@ import javax.ws.rs.ext.Provider;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.objectweb.asm.ClassReader;
 import org.springframework.context.ApplicationContext;
 
 import com.alibaba.webx.restful.Constants;
+import com.alibaba.webx.restful.annotation.ApiVersion;
+import com.alibaba.webx.restful.annotation.Bulkhead;
+import com.alibaba.webx.restful.annotation.CacheResponse;
+import com.alibaba.webx.restful.annotation.SingleFlight;
+import com.alibaba.webx.restful.annotation.VirtualHost;
 import com.alibaba.webx.restful.model.InstanceConstructor;
 import com.alibaba.webx.restful.model.MultiInstanceConstructor;
 import com.alibaba.webx.restful.model.InstanceSetter;
 import com.alibaba.webx.restful.model.Invocable;
 import com.alibaba.webx.restful.model.Parameter;
 import com.alibaba.webx.restful.model.Resource;
+import com.alibaba.webx.restful.model.ResourceConfigException;
 import com.alibaba.webx.restful.model.ResourceMethod;
+import com.alibaba.webx.restful.model.RouteBulkhead;
 import com.alibaba.webx.restful.model.SingletonInstanceConstructor;
+import com.alibaba.webx.restful.model.SubResourceInstanceConstructor;
+import com.alibaba.webx.restful.model.finder.AnnotatedClassVisitor;
 import com.alibaba.webx.restful.model.finder.ClassInfo;
 import com.alibaba.webx.restful.model.finder.MethodInfo;
 import com.alibaba.webx.restful.model.finder.PackageNamesScanner;
@@ -121,13 +135,112 @@ public class ResourceUtils {
                 LOG.error("load resourceClass error, constructor not found. class '" + clazz.getName() + "'");
                 return null;
             }
+
+            handlerConstructor = promoteToSingleton(clazz, classInfo, (MultiInstanceConstructor) handlerConstructor);
         } else {
             handlerConstructor = new SingletonInstanceConstructor(clazz, resouceInstance);
         }
 
+        return buildResource(parameterProvider, clazz, classInfo, handlerConstructor, pathAnnotation.value(), true);
+    }
+
+    /**
+     * Build the model of a class returned by a sub-resource locator, its instances are the ones returned by the
+     * locator.
+     * 
+     * @param parameterProvider the parameter provider.
+     * @param clazz the sub-resource class.
+     * @return the sub-resource, without path.
+     * @throws ResourceConfigException if the class can not be read.
+     */
+    public static Resource buildSubResource(ParameterProvider parameterProvider, Class<?> clazz) {
+        ClassInfo classInfo = getClassInfo(clazz);
+        InstanceConstructor handlerConstructor = new SubResourceInstanceConstructor(clazz);
+        return buildResource(parameterProvider, clazz, classInfo, handlerConstructor, null, false);
+    }
+
+    /**
+     * Read the class file of a class, the class info gives the parameter names of its methods.
+     * 
+     * @param clazz the class.
+     * @return the class info.
+     * @throws ResourceConfigException if the class file can not be read.
+     */
+    public static ClassInfo getClassInfo(Class<?> clazz) {
+        String resourceName = clazz.getName().replace('.', '/') + ".class";
+
+        ClassLoader classLoader = clazz.getClassLoader();
+        if (classLoader == null) {
+            classLoader = ReflectionUtils.getContextClassLoader();
+        }
+
+        InputStream in = classLoader.getResourceAsStream(resourceName);
+        if (in == null) {
+            throw new ResourceConfigException("class file not found. class '" + clazz.getName() + "'");
+        }
+
+        try {
+            AnnotatedClassVisitor classVisitor = new AnnotatedClassVisitor();
+            new ClassReader(in).accept(classVisitor, 0);
+            return classVisitor.getClassInfo();
+        } catch (IOException e) {
+            throw new ResourceConfigException("read class file error. class '" + clazz.getName() + "'", e);
+        } catch (RuntimeException e) {
+            // a class file ASM can not parse, such as of a newer version
+            throw new ResourceConfigException("read class file error. class '" + clazz.getName() + "'", e);
+        } catch (LinkageError e) {
+            throw new ResourceConfigException("read class file error. class '" + clazz.getName() + "'", e);
+        } finally {
+            try {
+                in.close();
+            } catch (IOException e) {
+                // skip
+            }
+        }
+    }
+
+    private static List<String> getVirtualHosts(Class<?> clazz) {
+        VirtualHost annotation = clazz.getAnnotation(VirtualHost.class);
+        if (annotation == null) {
+            return Collections.emptyList();
+        }
+
+        List<String> hosts = new ArrayList<String>();
+        for (String item : annotation.value()) {
+            String host = item.trim().toLowerCase();
+            int portIndex = host.indexOf(':');
+            if (portIndex != -1) {
+                host = host.substring(0, portIndex);
+            }
+            if (host.length() == 0) {
+                throw new ResourceConfigException("illegal virtual host. class '" + clazz.getName() + "'");
+            }
+            hosts.add(host);
+        }
+        return hosts;
+    }
+
+    private static List<String> getApiVersions(Class<?> clazz) {
+        ApiVersion annotation = clazz.getAnnotation(ApiVersion.class);
+        if (annotation == null) {
+            return Collections.emptyList();
+        }
+
+        List<String> versions = new ArrayList<String>();
+        for (String item : annotation.value()) {
+            String version = item.trim();
+            if (version.length() == 0 || version.indexOf('/') != -1) {
+                throw new ResourceConfigException("illegal api version '" + item + "'. class '" + clazz.getName()
+                                                  + "'");
+            }
+            versions.add(version);
+        }
+        return versions;
+    }
+
+    private static Resource buildResource(ParameterProvider parameterProvider, Class<?> clazz, ClassInfo classInfo,
+                                          InstanceConstructor handlerConstructor, String path, boolean isRoot) {
         String name = clazz.getName();
-        boolean isRoot = true;
-        String path = pathAnnotation.value();
         List<ResourceMethod> resourceMethods = new ArrayList<ResourceMethod>();
         List<ResourceMethod> subResourceMethods = new ArrayList<ResourceMethod>();
         List<ResourceMethod> subResourceLocators = new ArrayList<ResourceMethod>();
@@ -147,8 +260,23 @@ public class ResourceUtils {
             List<Parameter> invokeParameters = createParameters(parameterProvider, clazz, classInfo, method);
             Invocable invocable = new Invocable(handlerConstructor, method, invokeParameters);
 
+            if (invocable.isBuffered()) {
+                checkBuffered(httpMethod, invocable);
+            }
+
+            RouteBulkhead bulkhead = null;
+            if (httpMethod != null) {
+                Bulkhead bulkheadAnnotation = method.getAnnotation(Bulkhead.class);
+                if (bulkheadAnnotation == null) {
+                    bulkheadAnnotation = clazz.getAnnotation(Bulkhead.class);
+                }
+                if (bulkheadAnnotation != null) {
+                    bulkhead = new RouteBulkhead(bulkheadAnnotation);
+                }
+            }
+
             ResourceMethod resourceMethod = new ResourceMethod(httpMethod, methodPath, consumedTypes, producedTypes,
-                                                               invocable);
+                                                               invocable, bulkhead);
 
             if (methodPath == null) {
                 resourceMethods.add(resourceMethod);
@@ -159,13 +287,38 @@ public class ResourceUtils {
             }
         }
 
-        Resource resource = new Resource(name, path, isRoot, resourceMethods, subResourceMethods, subResourceLocators);
+        List<String> virtualHosts = Collections.emptyList();
+        List<String> apiVersions = Collections.emptyList();
+        if (isRoot) {
+            virtualHosts = getVirtualHosts(clazz);
+            apiVersions = getApiVersions(clazz);
+        }
 
-        // final Suspend suspend = am.getAnnotation(Suspend.class);
+        Resource resource = new Resource(name, path, isRoot, resourceMethods, subResourceMethods, subResourceLocators,
+                                         virtualHosts, apiVersions);
 
         return resource;
     }
 
+    /**
+     * Check a {@link SingleFlight} or {@link CacheResponse} method: its response is shared by the requests with the
+     * same arguments, so it must be a GET method which does not touch the request or response itself.
+     */
+    private static void checkBuffered(String httpMethod, Invocable invocable) {
+        Method method = invocable.getMethod();
+        if (!HttpMethod.GET.equals(httpMethod)) {
+            throw new ResourceConfigException("shared response on a method which is not GET : " + method);
+        }
+        if (invocable.getSuspend() != null) {
+            throw new ResourceConfigException("shared response on a suspended method : " + method);
+        }
+        for (Parameter parameter : invocable.getParameters()) {
+            if (parameter.getSource() == Parameter.Source.CONTEXT || parameter.getSource() == Parameter.Source.ENTITY) {
+                throw new ResourceConfigException("shared response on a method taking context parameters : " + method);
+            }
+        }
+    }
+
     private static String getHttpMethod(Method method) {
         HttpMethod httpMethodAnnotation = null;
 
@@ -311,6 +464,111 @@ public class ResourceUtils {
         return true;
     }
 
+    /**
+     * Replace the per-request constructor of a stateless resource class by a singleton. A class is stateless when its
+     * constructor and setters only take autowired beans, every instance field holds a bean injected by a setter or the
+     * constructor, and none of its methods but the constructors and the setters assign one of its instance fields,
+     * including the fields and methods inherited from its superclasses.
+     * 
+     * @return the singleton constructor, or the given constructor if the class is not stateless.
+     */
+    private static InstanceConstructor promoteToSingleton(Class<?> clazz, ClassInfo classInfo,
+                                                          MultiInstanceConstructor constructor) {
+        String reason = getStatefulReason(clazz, classInfo, constructor);
+        if (reason != null) {
+            if (LOG.isInfoEnabled()) {
+                LOG.info("resource is created per request, " + reason + ". class '" + clazz.getName() + "'");
+            }
+            return constructor;
+        }
+
+        Object instance;
+        try {
+            instance = constructor.createInstance(null);
+        } catch (Exception e) {
+            LOG.warn("resource is created per request, create singleton error. class '" + clazz.getName() + "'", e);
+            return constructor;
+        }
+
+        if (LOG.isInfoEnabled()) {
+            LOG.info("resource is promoted to singleton. class '" + clazz.getName() + "'");
+        }
+        return new SingletonInstanceConstructor(clazz, instance);
+    }
+
+    private static String getStatefulReason(Class<?> clazz, ClassInfo classInfo, MultiInstanceConstructor constructor) {
+        for (Parameter parameter : constructor.getParameters()) {
+            if (parameter.getSource() != Parameter.Source.AUTO_WIRED) {
+                return "constructor takes a " + parameter.getSource() + " parameter";
+            }
+        }
+
+        Set<String> injectionMethods = new HashSet<String>();
+        injectionMethods.add("<init>");
+        for (InstanceSetter setter : constructor.getSetters()) {
+            if (setter.getParameter().getSource() != Parameter.Source.AUTO_WIRED) {
+                return "setter '" + setter.getMethod().getName() + "' takes a " + setter.getParameter().getSource()
+                       + " parameter";
+            }
+            injectionMethods.add(setter.getMethod().getName() + ClassUtils.getDesc(setter.getMethod()));
+        }
+
+        for (Class<?> item = clazz; item != null && item != Object.class; item = item.getSuperclass()) {
+            ClassInfo itemInfo = (item == clazz) ? classInfo : null;
+            if (itemInfo == null) {
+                try {
+                    itemInfo = getClassInfo(item);
+                } catch (ResourceConfigException e) {
+                    return "class file of '" + item.getName() + "' can not be read";
+                }
+            }
+
+            Set<String> injectedFields = new HashSet<String>();
+            Set<String> initializedFields = new HashSet<String>();
+            for (MethodInfo methodInfo : itemInfo.getMethods()) {
+                if (methodInfo.getName().equals("<init>")) {
+                    initializedFields.addAll(methodInfo.getWrittenFields());
+                    continue;
+                }
+                if (injectionMethods.contains(methodInfo.getName() + methodInfo.getDesc())) {
+                    injectedFields.addAll(methodInfo.getWrittenFields());
+                    continue;
+                }
+                if (!methodInfo.getWrittenFields().isEmpty()) {
+                    return "method '" + methodInfo.getName() + "' writes field '"
+                           + methodInfo.getWrittenFields().get(0) + "'";
+                }
+            }
+
+            // the contents of a field may be mutated without any putfield, such as a list or a date format, so every
+            // field must hold an injected bean
+            for (Field field : item.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()
+                    || injectedFields.contains(field.getName())) {
+                    continue;
+                }
+                if (!initializedFields.contains(field.getName())
+                    || !isConstructorParameterType(constructor, field.getType())) {
+                    return "field '" + field.getName() + "' is not injected";
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * @return true if a field of the type may be assigned from one of the autowired constructor parameters.
+     */
+    private static boolean isConstructorParameterType(MultiInstanceConstructor constructor, Class<?> fieldType) {
+        for (Class<?> parameterType : constructor.getConstructor().getParameterTypes()) {
+            if (fieldType.isAssignableFrom(parameterType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private static MultiInstanceConstructor createHandlerConstructor(ApplicationContext applicationContxt,
                                                                     ParameterProvider parameterProvider,
                                                                     Class<?> clazz, ClassInfo classInfo)
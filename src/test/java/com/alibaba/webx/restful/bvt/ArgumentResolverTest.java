@@ -0,0 +1,141 @@
+package com.alibaba.webx.restful.bvt;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.alibaba.webx.restful.model.Parameter;
+import com.alibaba.webx.restful.model.converter.LongConverter;
+import com.alibaba.webx.restful.model.converter.StringConverter;
+import com.alibaba.webx.restful.model.param.ArgumentResolver;
+import com.alibaba.webx.restful.model.param.AutowiredParameter;
+import com.alibaba.webx.restful.model.param.CookieParameter;
+import com.alibaba.webx.restful.model.param.DefaultParameter;
+import com.alibaba.webx.restful.model.param.HeaderParameter;
+import com.alibaba.webx.restful.model.param.HttpServletRequestParameter;
+import com.alibaba.webx.restful.model.param.QueryParameter;
+import com.alibaba.webx.restful.process.impl.ContainerRequestContextImpl;
+import com.alibaba.webx.restful.process.impl.UriInfoImpl;
+
+public class ArgumentResolverTest extends TestCase {
+
+    public void test_resolve() throws Exception {
+        Object bean = new Object();
+
+        List<Parameter> parameters = new ArrayList<Parameter>();
+        parameters.add(new QueryParameter("q", new StringConverter(), null));
+        parameters.add(new QueryParameter("page", new LongConverter(), 1L));
+        parameters.add(new HeaderParameter("X-Trace", new StringConverter(), "none"));
+        parameters.add(new CookieParameter("sid", new StringConverter(), null));
+        parameters.add(new AutowiredParameter(bean));
+        parameters.add(new CookieParameter("lang", new StringConverter(), "zh"));
+        parameters.add(new HttpServletRequestParameter());
+        parameters.add(new DefaultParameter("size", new LongConverter(), null));
+
+        ArgumentResolver resolver = ArgumentResolver.compile(parameters);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/study/rest/search");
+        request.setServletPath("/rest");
+        request.setContextPath("/study");
+        request.setQueryString("q=webx&size=20");
+        request.addHeader("X-Trace", "t1");
+        request.addHeader("Cookie", "other=x; sid=s1");
+
+        ContainerRequestContextImpl requestContext = new ContainerRequestContextImpl(request,
+                                                                                     new MockHttpServletResponse(),
+                                                                                     new UriInfoImpl(request));
+
+        Object[] args = resolver.resolve(requestContext);
+        Assert.assertEquals(8, args.length);
+        Assert.assertEquals("webx", args[0]);
+        Assert.assertEquals(1L, args[1]);
+        Assert.assertEquals("t1", args[2]);
+        Assert.assertEquals("s1", args[3]);
+        Assert.assertSame(bean, args[4]);
+        Assert.assertEquals("zh", args[5]);
+        Assert.assertSame(request, args[6]);
+        Assert.assertEquals(20L, args[7]);
+
+        request = new MockHttpServletRequest("GET", "/study/rest/search");
+        requestContext = new ContainerRequestContextImpl(request, new MockHttpServletResponse(), new UriInfoImpl(request));
+        args = resolver.resolve(requestContext);
+        Assert.assertNull(args[3]);
+        Assert.assertEquals("zh", args[5]);
+    }
+
+    public void test_query_string() throws Exception {
+        List<Parameter> parameters = new ArrayList<Parameter>();
+        parameters.add(new QueryParameter("q", new StringConverter(), null));
+        parameters.add(new QueryParameter("page", new LongConverter(), 1L));
+        parameters.add(new QueryParameter("a b", new StringConverter(), null));
+        parameters.add(new QueryParameter("empty", new StringConverter(), "none"));
+        parameters.add(new DefaultParameter("size", new LongConverter(), null));
+
+        ArgumentResolver resolver = ArgumentResolver.compile(parameters);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/study/rest/search");
+        request.setServletPath("/rest");
+        request.setContextPath("/study");
+        request.setQueryString("x=1&q=web+x%21&q=second&empty=&a%20b=c&bad=%zz");
+        request.setContentType("application/x-www-form-urlencoded");
+        request.setContent("page=5&size=30".getBytes("UTF-8"));
+
+        ContainerRequestContextImpl requestContext = new ContainerRequestContextImpl(request,
+                                                                                     new MockHttpServletResponse(),
+                                                                                     new UriInfoImpl(request));
+
+        Object[] args = resolver.resolve(requestContext);
+        Assert.assertEquals("web x!", args[0]);
+        Assert.assertEquals(1L, args[1]);
+        Assert.assertEquals("c", args[2]);
+        Assert.assertEquals("none", args[3]);
+        Assert.assertEquals(30L, args[4]);
+
+        Assert.assertEquals("web x!", parameters.get(0).getParameterValue(requestContext));
+        Assert.assertEquals(1L, parameters.get(1).getParameterValue(requestContext));
+        Assert.assertEquals(30L, parameters.get(4).getParameterValue(requestContext));
+
+        request.setQueryString("size=10");
+        args = resolver.resolve(requestContext);
+        Assert.assertNull(args[0]);
+        Assert.assertEquals(10L, args[4]);
+    }
+
+    public void test_query_encoding() throws Exception {
+        List<Parameter> parameters = new ArrayList<Parameter>();
+        parameters.add(new QueryParameter("q", new StringConverter(), null));
+        parameters.add(new DefaultParameter("name", new StringConverter(), null));
+
+        ArgumentResolver resolver = ArgumentResolver.compile(parameters);
+
+        // "\u676d\u5dde" in GBK
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/study/rest/search");
+        request.setServletPath("/rest");
+        request.setContextPath("/study");
+        request.setQueryString("q=%BA%BC%D6%DD&name=%BA%BC%D6%DD+1");
+
+        ContainerRequestContextImpl requestContext = new ContainerRequestContextImpl(request,
+                                                                                     new MockHttpServletResponse(),
+                                                                                     new UriInfoImpl(request));
+        requestContext.setQueryEncoding("GBK", false);
+        Object[] args = resolver.resolve(requestContext);
+        Assert.assertEquals("\u676d\u5dde", args[0]);
+        Assert.assertEquals("\u676d\u5dde 1", args[1]);
+        Assert.assertEquals("\u676d\u5dde", parameters.get(0).getParameterValue(requestContext));
+        Assert.assertEquals("\u676d\u5dde 1", parameters.get(1).getParameterValue(requestContext));
+
+        // the character encoding of the request overrides the query encoding
+        request.setCharacterEncoding("GBK");
+        requestContext.setQueryEncoding("UTF-8", true);
+        Assert.assertEquals("\u676d\u5dde", resolver.resolve(requestContext)[0]);
+
+        request.setQueryString("q=%E6%9D%AD%E5%B7%9E");
+        requestContext.setQueryEncoding("UTF-8", false);
+        Assert.assertEquals("\u676d\u5dde", resolver.resolve(requestContext)[0]);
+    }
+}
@@ -0,0 +1,88 @@
+package com.alibaba.webx.restful.bvt;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Assert;
+
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.alibaba.webx.restful.examples.helloworld.HelloworldTestBase;
+import com.alibaba.webx.restful.process.ApplicationHandler;
+import com.alibaba.webx.restful.process.RestfulRequestContext;
+import com.alibaba.webx.restful.process.ServletAsyncSupport;
+import com.alibaba.webx.restful.process.impl.UriInfoImpl;
+
+public class AsyncExecutionTest extends HelloworldTestBase {
+
+    public void test_future() throws Exception {
+        Assert.assertEquals("job:1", get("/jobs/future/1").getContentAsString());
+    }
+
+    public void test_suspended() throws Exception {
+        Assert.assertEquals("suspended:2", get("/jobs/suspended/2").getContentAsString());
+
+        MockHttpServletResponse response = get("/jobs/timeout");
+        Assert.assertEquals(503, response.getStatus());
+    }
+
+    public void test_async_service() throws Exception {
+        ApplicationHandler handler = component.getHandler();
+
+        MockHttpServletRequest request = createRequest("/jobs/suspended/3");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RestfulRequestContext requestContext = handler.createRequestContext(request, response,
+                                                                            new UriInfoImpl(request));
+
+        final CountDownLatch completed = new CountDownLatch(1);
+        boolean written = handler.service(requestContext, new Runnable() {
+
+            public void run() {
+                completed.countDown();
+            }
+        });
+
+        Assert.assertFalse(written);
+        Assert.assertTrue(completed.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals("suspended:3", response.getContentAsString());
+
+        request = createRequest("/jobs/timeout");
+        response = new MockHttpServletResponse();
+        requestContext = handler.createRequestContext(request, response, new UriInfoImpl(request));
+
+        final CountDownLatch timedOut = new CountDownLatch(1);
+        Assert.assertFalse(handler.service(requestContext, new Runnable() {
+
+            public void run() {
+                timedOut.countDown();
+            }
+        }));
+        Assert.assertTrue(timedOut.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(503, response.getStatus());
+    }
+
+    public void test_servlet_25_fallback() throws Exception {
+        Assert.assertFalse(ServletAsyncSupport.isAvailable());
+
+        MockHttpServletRequest request = createRequest("/jobs/future/4");
+        Assert.assertNull(ServletAsyncSupport.startAsync(request, new MockHttpServletResponse(), 0));
+    }
+
+    private MockHttpServletRequest createRequest(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext);
+        request.setMethod("GET");
+        request.setServletPath("/rest");
+        request.setContextPath("/study");
+        request.setRequestURI("/study/rest" + path);
+        return request;
+    }
+
+    private MockHttpServletResponse get(String path) throws Exception {
+        MockHttpServletRequest request = createRequest(path);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
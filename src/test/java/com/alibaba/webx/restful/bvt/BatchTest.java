@@ -0,0 +1,145 @@
+package com.alibaba.webx.restful.bvt;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import junit.framework.Assert;
+
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockFilterConfig;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import com.alibaba.webx.restful.Constants;
+import com.alibaba.webx.restful.RestfulServletFilter;
+import com.alibaba.webx.restful.examples.helloworld.HelloworldTestBase;
+import com.alibaba.webx.restful.process.impl.BatchHttpServletRequest;
+
+public class BatchTest extends HelloworldTestBase {
+
+    private static final String BATCH = "[{'method':'GET','path':'/reports','headers':{'Accept':'application/json'}},"
+                                        + "{'method':'GET','path':'/greeting'},"
+                                        + "{'method':'get','path':'/prices/ali','query':'currency=us%20d'},"
+                                        + "{'method':'POST','path':'/reports','body':'{}',"
+                                        + "'headers':{'Content-Type':'application/json'}},"
+                                        + "{'method':'GET','path':'/missing'},"
+                                        + "{'method':'DELETE','path':'/reports'}]";
+
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        MockFilterConfig filterConfig = new MockFilterConfig(servletContext);
+        filterConfig.addInitParameter(Constants.PROVIDER_PACKAGES, "com.alibaba.webx.restful.examples.helloworld");
+        filterConfig.addInitParameter(Constants.BATCH_PATH, "/batch");
+        filterConfig.addInitParameter(Constants.BATCH_MAX_SIZE, "6");
+        filterConfig.addInitParameter(Constants.BATCH_MAX_BODY_SIZE, "1024");
+
+        filter.destroy();
+        filter = new RestfulServletFilter();
+        filter.init(filterConfig);
+        component = filter.getComponent();
+    }
+
+    public void test_batch() throws Exception {
+        assertBatch(batch(BATCH, false));
+    }
+
+    public void test_parallel() throws Exception {
+        assertBatch(batch(BATCH, true));
+    }
+
+    public void test_illegal() throws Exception {
+        Assert.assertEquals(400, batch("{", false).getStatus());
+        Assert.assertEquals(400, batch("[{'path':'/greeting'}]", false).getStatus());
+        Assert.assertEquals(400, batch("[{'method':'GET','path':'/greeting'},'/greeting']", false).getStatus());
+        Assert.assertEquals(400, batch("[{'method':'GET','path':'/greeting'},null]", false).getStatus());
+        Assert.assertEquals(400, batch("[{'method':'GET','path':'/greeting','headers':'x'}]", false).getStatus());
+        Assert.assertEquals(413, batch("[{},{},{},{},{},{},{}]", false).getStatus());
+    }
+
+    public void test_body_too_large() throws Exception {
+        StringBuilder body = new StringBuilder("[{'method':'POST','path':'/reports','body':'");
+        for (int i = 0; i < 1024; ++i) {
+            body.append('x');
+        }
+        body.append("'}]");
+        Assert.assertEquals(413, batch(body.toString(), false).getStatus());
+
+        // without a content length, the body is read up to the limit
+        MockHttpServletRequest chunked = new MockHttpServletRequest(servletContext) {
+
+            public int getContentLength() {
+                return -1;
+            }
+        };
+        Assert.assertEquals(413, batch(chunked, body.toString(), false).getStatus());
+    }
+
+    public void test_date_header() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext);
+        request.addHeader("If-Modified-Since", "Thu, 01 Jan 1970 00:00:00 GMT");
+
+        Map<String, String> headers = new HashMap<String, String>();
+        BatchHttpServletRequest subRequest = new BatchHttpServletRequest(request, "GET", "/greeting", null, headers,
+                                                                         null);
+        Assert.assertEquals(-1, subRequest.getDateHeader("If-Modified-Since"));
+
+        headers.put("If-Modified-Since", "Thu, 01 Jan 1970 00:00:01 GMT");
+        headers.put("Expires", "Thursday, 01-Jan-70 00:00:02 GMT");
+        headers.put("Date", "Thu Jan 1 00:00:03 1970");
+        headers.put("X-Count", "1");
+        subRequest = new BatchHttpServletRequest(request, "GET", "/greeting", null, headers, null);
+        Assert.assertEquals(1000, subRequest.getDateHeader("if-modified-since"));
+        Assert.assertEquals(2000, subRequest.getDateHeader("Expires"));
+        Assert.assertEquals(3000, subRequest.getDateHeader("Date"));
+        try {
+            subRequest.getDateHeader("X-Count");
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    private void assertBatch(MockHttpServletResponse response) throws Exception {
+        Assert.assertEquals("application/json; charset=UTF-8", response.getContentType());
+
+        JSONArray items = JSON.parseArray(response.getContentAsString());
+        Assert.assertEquals(6, items.size());
+
+        JSONObject json = items.getJSONObject(0);
+        Assert.assertEquals(200, json.getIntValue("status"));
+        Assert.assertEquals("application/json", json.getJSONObject("headers").getString("Content-Type"));
+        Assert.assertEquals("json", json.getJSONObject("body").getString("format"));
+
+        Assert.assertEquals("hello, Date", items.getJSONObject(1).getString("body"));
+        Assert.assertTrue(items.getJSONObject(2).getString("body").startsWith("ali:us d:"));
+        Assert.assertEquals("\"created\"", items.getJSONObject(3).getString("body"));
+        Assert.assertEquals(404, items.getJSONObject(4).getIntValue("status"));
+        Assert.assertEquals(405, items.getJSONObject(5).getIntValue("status"));
+        Assert.assertFalse(items.getJSONObject(5).containsKey("body"));
+    }
+
+    private MockHttpServletResponse batch(String body, boolean parallel) throws Exception {
+        return batch(new MockHttpServletRequest(servletContext), body, parallel);
+    }
+
+    private MockHttpServletResponse batch(MockHttpServletRequest request, String body,
+                                          boolean parallel) throws Exception {
+        request.setMethod("POST");
+        request.setServletPath("/rest");
+        request.setContextPath("/study");
+        request.setRequestURI("/study/rest/batch");
+        request.setContentType("application/json");
+        request.setContent(body.getBytes("UTF-8"));
+        if (parallel) {
+            request.addParameter("parallel", "true");
+        }
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,171 @@
+package com.alibaba.webx.restful.bvt;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import junit.framework.Assert;
+
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.alibaba.webx.restful.annotation.Batched;
+import com.alibaba.webx.restful.examples.helloworld.HelloworldTestBase;
+import com.alibaba.webx.restful.examples.helloworld.UsersResource;
+import com.alibaba.webx.restful.model.ResourceConfigException;
+import com.alibaba.webx.restful.model.invoke.BatchLoader;
+
+public class BatchedTest extends HelloworldTestBase {
+
+    public void test_full_batch() throws Exception {
+        UsersResource.batchCalls.set(0);
+
+        List<String> bodies = getConcurrently("/users/1", "/users/2", "/users/3", "/users/3");
+        Assert.assertEquals("user1@1/3", bodies.get(0));
+        Assert.assertEquals("user2@1/3", bodies.get(1));
+        Assert.assertEquals("user3@1/3", bodies.get(2));
+        Assert.assertEquals("user3@1/3", bodies.get(3));
+        Assert.assertEquals(1, UsersResource.batchCalls.get());
+    }
+
+    public void test_window() throws Exception {
+        UsersResource.batchCalls.set(0);
+
+        List<String> bodies = getConcurrently("/users/5", "/users/6");
+        Assert.assertEquals("user5@1/2", bodies.get(0));
+        Assert.assertEquals("user6@1/2", bodies.get(1));
+        Assert.assertEquals(1, UsersResource.batchCalls.get());
+    }
+
+    public void test_missing_key() throws Exception {
+        UsersResource.batchCalls.set(0);
+
+        BatchLoader loader = BatchLoader.create(getFindUser(), getFindUser().getAnnotation(Batched.class));
+        Assert.assertNull(loader.load(new UsersResource(), 0L));
+        Assert.assertEquals("user7@2/1", loader.load(new UsersResource(), 7L));
+    }
+
+    public void test_error() throws Exception {
+        Method find = FailingResource.class.getMethod("find", Long.class);
+        final BatchLoader loader = BatchLoader.create(find, find.getAnnotation(Batched.class));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<Object>> futures = new ArrayList<Future<Object>>();
+            for (long id = 1; id <= 2; ++id) {
+                final Long key = Long.valueOf(id);
+                futures.add(executor.submit(new Callable<Object>() {
+
+                    public Object call() throws Exception {
+                        return loader.load(new FailingResource(), key);
+                    }
+                }));
+            }
+
+            for (Future<Object> future : futures) {
+                try {
+                    future.get();
+                    Assert.fail();
+                } catch (ExecutionException e) {
+                    Assert.assertEquals("find error", e.getCause().getMessage());
+                    Assert.assertTrue(e.getCause() instanceof Error);
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    public void test_illegal() throws Exception {
+        Method find = IllegalResource.class.getMethod("find", Long.class);
+        try {
+            BatchLoader.create(find, find.getAnnotation(Batched.class));
+            Assert.fail();
+        } catch (ResourceConfigException e) {
+            // the batch method returns a List
+        }
+
+        Method findAll = IllegalResource.class.getMethod("findAll", Long.class, Long.class);
+        try {
+            BatchLoader.create(findAll, findAll.getAnnotation(Batched.class));
+            Assert.fail();
+        } catch (ResourceConfigException e) {
+            // not a single key
+        }
+    }
+
+    public static class IllegalResource {
+
+        @Batched("findList")
+        public String find(Long id) {
+            return null;
+        }
+
+        @Batched("findList")
+        public String findAll(Long id, Long other) {
+            return null;
+        }
+
+        public List<String> findList(List<Long> ids) {
+            return null;
+        }
+    }
+
+    public static class FailingResource {
+
+        @Batched(value = "findAll", window = 200, maxSize = 2)
+        public String find(Long id) {
+            return null;
+        }
+
+        public Map<Long, String> findAll(List<Long> ids) {
+            throw new Error("find error");
+        }
+    }
+
+    private static Method getFindUser() throws NoSuchMethodException {
+        return UsersResource.class.getMethod("findUser", Long.class);
+    }
+
+    private List<String> getConcurrently(String... paths) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(paths.length);
+        try {
+            List<Future<String>> futures = new ArrayList<Future<String>>();
+            for (final String path : paths) {
+                futures.add(executor.submit(new Callable<String>() {
+
+                    public String call() throws Exception {
+                        return get(path).getContentAsString();
+                    }
+                }));
+            }
+
+            List<String> bodies = new ArrayList<String>();
+            for (Future<String> future : futures) {
+                bodies.add(future.get());
+            }
+            return bodies;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private MockHttpServletResponse get(String path) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext);
+        request.setMethod("GET");
+        request.setServletPath("/rest");
+        request.setContextPath("/study");
+        request.setRequestURI("/study/rest" + path);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
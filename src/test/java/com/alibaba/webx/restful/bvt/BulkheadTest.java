@@ -0,0 +1,123 @@
+package com.alibaba.webx.restful.bvt;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.servlet.http.HttpServletResponse;
+
+import junit.framework.Assert;
+
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.alibaba.webx.restful.examples.helloworld.HelloworldTestBase;
+import com.alibaba.webx.restful.examples.helloworld.ThrottledResource;
+import com.alibaba.webx.restful.model.ResourceMethod;
+import com.alibaba.webx.restful.model.RouteBulkhead;
+
+public class BulkheadTest extends HelloworldTestBase {
+
+    public void test_reject() throws Exception {
+        ThrottledResource.entered = new CountDownLatch(1);
+        ThrottledResource.release = new CountDownLatch(1);
+
+        final MockHttpServletResponse[] slowResponse = new MockHttpServletResponse[1];
+        final AtomicReference<Throwable> slowError = new AtomicReference<Throwable>();
+        Thread slow = new Thread() {
+
+            public void run() {
+                try {
+                    slowResponse[0] = get("/throttled/slow");
+                } catch (Throwable e) {
+                    slowError.set(e);
+                }
+            }
+        };
+        slow.start();
+        Assert.assertTrue(ThrottledResource.entered.await(5, TimeUnit.SECONDS));
+
+        RouteBulkhead bulkhead = getBulkhead("slow");
+        Assert.assertEquals(1, bulkhead.getCurrent());
+
+        MockHttpServletResponse rejected = get("/throttled/slow");
+        Assert.assertEquals(HttpServletResponse.SC_SERVICE_UNAVAILABLE, rejected.getStatus());
+        Assert.assertEquals("busy", rejected.getContentAsString());
+        Assert.assertEquals(1, bulkhead.getRejected());
+
+        // every method has its own limit
+        Assert.assertEquals("fast", get("/throttled/fast").getContentAsString());
+
+        ThrottledResource.release.countDown();
+        slow.join(5000);
+        Assert.assertNull(slowError.get());
+        Assert.assertEquals("slow", slowResponse[0].getContentAsString());
+        Assert.assertEquals(0, bulkhead.getCurrent());
+        Assert.assertEquals("slow", get("/throttled/slow").getContentAsString());
+    }
+
+    public void test_queue() throws Exception {
+        RouteBulkhead bulkhead = new RouteBulkhead(1, 1, "busy");
+        Assert.assertTrue(bulkhead.enter());
+        Assert.assertEquals(1, bulkhead.getCurrent());
+
+        Assert.assertEquals(1, getBulkhead("fast").getQueueDepth());
+
+        final RouteBulkhead shared = bulkhead;
+        final CountDownLatch admitted = new CountDownLatch(1);
+        final AtomicReference<Throwable> waiterError = new AtomicReference<Throwable>();
+        Thread waiter = new Thread() {
+
+            public void run() {
+                try {
+                    if (shared.enter()) {
+                        admitted.countDown();
+                        shared.exit();
+                    }
+                } catch (Throwable e) {
+                    waiterError.set(e);
+                }
+            }
+        };
+        waiter.start();
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (bulkhead.getQueued() != 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        Assert.assertEquals(1, bulkhead.getQueued());
+        Assert.assertFalse(bulkhead.enter());
+        Assert.assertEquals(1, bulkhead.getRejected());
+
+        bulkhead.exit();
+        Assert.assertTrue(admitted.await(5, TimeUnit.SECONDS));
+        waiter.join(5000);
+        Assert.assertNull(waiterError.get());
+        Assert.assertEquals(0, bulkhead.getCurrent());
+        Assert.assertEquals(0, bulkhead.getQueued());
+    }
+
+    private RouteBulkhead getBulkhead(String methodName) {
+        Map<ResourceMethod, RouteBulkhead> bulkheads = component.getHandler().getBulkheads();
+        for (Map.Entry<ResourceMethod, RouteBulkhead> entry : bulkheads.entrySet()) {
+            if (entry.getKey().getResourceMethod().getName().equals(methodName)) {
+                return entry.getValue();
+            }
+        }
+        throw new IllegalStateException("bulkhead not found : " + methodName);
+    }
+
+    private MockHttpServletResponse get(String path) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext);
+        request.setMethod("GET");
+        request.setServletPath("/rest");
+        request.setContextPath("/study");
+        request.setRequestURI("/study/rest" + path);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,101 @@
+package com.alibaba.webx.restful.bvt;
+
+import javax.servlet.http.HttpServletResponse;
+
+import junit.framework.Assert;
+
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.webx.restful.examples.helloworld.HelloworldTestBase;
+import com.alibaba.webx.restful.process.MediaTypeCache;
+
+public class ContentNegotiationTest extends HelloworldTestBase {
+
+    public void test_accept() throws Exception {
+        MockHttpServletResponse response = get("text/plain");
+        Assert.assertEquals("format:text", response.getContentAsString());
+        Assert.assertEquals("text/plain", response.getContentType());
+
+        response = get("text/*;q=0.5, application/json");
+        Assert.assertEquals("json", JSON.parseObject(response.getContentAsString()).get("format"));
+        Assert.assertEquals("application/json", response.getContentType());
+
+        response = get("text/html");
+        Assert.assertEquals(HttpServletResponse.SC_NOT_ACCEPTABLE, response.getStatus());
+
+        response = get(null);
+        Assert.assertEquals("application/json", response.getContentType());
+    }
+
+    public void test_content_type() throws Exception {
+        MockHttpServletRequest request = createRequest("POST");
+        request.setContentType("text/xml");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        Assert.assertEquals(HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE, response.getStatus());
+
+        request = createRequest("POST");
+        request.setContentType("application/json; charset=UTF-8");
+        response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        Assert.assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+        Assert.assertEquals("\"created\"", response.getContentAsString());
+    }
+
+    public void test_browser_accept() throws Exception {
+        // the candidate declares no @Produces, the entity is still written as JSON, without a negotiated type
+        String[] accepts = { "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8", "application/xml" };
+        for (int i = 0; i < accepts.length; ++i) {
+            MockHttpServletRequest request = createRequest("POST");
+            request.setContentType("application/json");
+            request.addHeader("Accept", accepts[i]);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request, response, new MockFilterChain());
+            Assert.assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+            Assert.assertNull(response.getContentType());
+            Assert.assertEquals("\"created\"", response.getContentAsString());
+        }
+    }
+
+    public void test_json_accept() throws Exception {
+        MockHttpServletRequest request = createRequest("POST");
+        request.setContentType("application/json");
+        request.addHeader("Accept", "application/json");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        Assert.assertEquals("application/json", response.getContentType());
+        Assert.assertEquals("\"created\"", response.getContentAsString());
+    }
+
+    public void test_accept_memoized() throws Exception {
+        MediaTypeCache cache = component.getHandler().getMediaTypeCache();
+
+        String accept = "text/html, application/xhtml+xml, */*;q=0.8, application/xml;q=0.9";
+        Assert.assertSame(cache.getAcceptableMediaTypes(accept), cache.getAcceptableMediaTypes(accept));
+        Assert.assertEquals("text/html, application/xhtml+xml, application/xml, */*",
+                            cache.getAcceptableMediaTypes(accept).toString().replaceAll("[\\[\\]]", ""));
+    }
+
+    private MockHttpServletResponse get(String accept) throws Exception {
+        MockHttpServletRequest request = createRequest("GET");
+        if (accept != null) {
+            request.addHeader("Accept", accept);
+        }
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private MockHttpServletRequest createRequest(String method) {
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext);
+        request.setMethod(method);
+        request.setServletPath("/rest");
+        request.setContextPath("/study");
+        request.setRequestURI("/study/rest/reports");
+        return request;
+    }
+}
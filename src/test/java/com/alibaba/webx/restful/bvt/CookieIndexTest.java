@@ -0,0 +1,78 @@
+package com.alibaba.webx.restful.bvt;
+
+import java.util.Map;
+
+import javax.servlet.http.Cookie;
+import javax.ws.rs.core.HttpHeaders;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.alibaba.webx.restful.process.impl.ContainerRequestContextImpl;
+import com.alibaba.webx.restful.process.impl.CookieIndex;
+import com.alibaba.webx.restful.process.impl.UriInfoImpl;
+
+public class CookieIndexTest extends TestCase {
+
+    public void test_parse() throws Exception {
+        MockHttpServletRequest request = new NoCookiesRequest();
+        request.addHeader("Cookie", "a=1; b=\"two words\";c=; =x; d");
+        request.addHeader("Cookie", "a=3;e=5 ");
+
+        CookieIndex index = new CookieIndex(request);
+        Assert.assertEquals("1", index.getValue("a"));
+        Assert.assertEquals("two words", index.getValue("b"));
+        Assert.assertEquals("", index.getValue("c"));
+        Assert.assertNull(index.getValue("d"));
+        Assert.assertEquals("5", index.getValue("e"));
+        Assert.assertNull(index.getValue("f"));
+        Assert.assertEquals(5, index.size());
+    }
+
+    public void test_http_headers() throws Exception {
+        MockHttpServletRequest request = new NoCookiesRequest();
+        request.addHeader("Cookie", "$Version=1; sid=s1; $Path=/study; lang=zh");
+
+        ContainerRequestContextImpl requestContext = new ContainerRequestContextImpl(request,
+                                                                                     new MockHttpServletResponse(),
+                                                                                     new UriInfoImpl(request));
+        Assert.assertEquals("s1", requestContext.getCookieValue("sid"));
+        Assert.assertNull(requestContext.getCookieValue("$Path"));
+
+        HttpHeaders httpHeaders = requestContext.getHttpHeaders();
+        Map<String, javax.ws.rs.core.Cookie> cookies = httpHeaders.getCookies();
+        Assert.assertEquals(2, cookies.size());
+        Assert.assertEquals("s1", cookies.get("sid").getValue());
+        Assert.assertEquals("/study", cookies.get("sid").getPath());
+        Assert.assertEquals(1, cookies.get("sid").getVersion());
+        Assert.assertEquals("zh", cookies.get("lang").getValue());
+        Assert.assertNull(cookies.get("lang").getPath());
+    }
+
+    public void test_no_cookie() throws Exception {
+        CookieIndex index = new CookieIndex(new NoCookiesRequest());
+        Assert.assertNull(index.getValue("a"));
+        Assert.assertEquals(0, index.size());
+        Assert.assertTrue(index.toMap().isEmpty());
+    }
+
+    /**
+     * The container cookies must not be created.
+     */
+    private static class NoCookiesRequest extends MockHttpServletRequest {
+
+        NoCookiesRequest(){
+            super("GET", "/study/rest/cookies");
+            setServletPath("/rest");
+            setContextPath("/study");
+        }
+
+        @Override
+        public Cookie[] getCookies() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.alibaba.webx.restful.bvt;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import junit.framework.Assert;
+
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.alibaba.webx.restful.examples.helloworld.HelloworldTestBase;
+import com.alibaba.webx.restful.process.ProcessException;
+import com.alibaba.webx.restful.process.impl.FormReader;
+
+public class FormReaderTest extends HelloworldTestBase {
+
+    public void test_declared_fields() throws Exception {
+        CountingInputStream in = new CountingInputStream("a=1&skip=xxxxxxxx&b=hello+world%21&a=2&c=3");
+        FormReader reader = new FormReader(in, null, new HashSet<String>(Arrays.asList("a", "b")), false, 1024);
+
+        Assert.assertEquals("1", reader.getValue("a"));
+        Assert.assertEquals(4, in.count);
+
+        Assert.assertEquals("hello world!", reader.getValue("b"));
+        Assert.assertEquals(35, in.count);
+
+        // not declared
+        Assert.assertNull(reader.getValue("c"));
+        Assert.assertEquals("1", reader.getValue("a"));
+        Assert.assertEquals(35, in.count);
+    }
+
+    public void test_read_all() throws Exception {
+        CountingInputStream in = new CountingInputStream("a=1&b=&c");
+        FormReader reader = new FormReader(in, "UTF-8", null, true, 1024);
+
+        Assert.assertEquals("", reader.getValue("c"));
+        Assert.assertEquals("", reader.getValue("b"));
+        Assert.assertEquals("1", reader.getValue("a"));
+        Assert.assertNull(reader.getValue("d"));
+    }
+
+    public void test_max_size() throws Exception {
+        FormReader reader = new FormReader(new CountingInputStream("a=1&b=2222222222"), null, null, false, 8);
+        Assert.assertEquals("1", reader.getValue("a"));
+        try {
+            reader.getValue("b");
+            Assert.fail();
+        } catch (ProcessException e) {
+            // body over 8 bytes
+        }
+    }
+
+    public void test_charset() throws Exception {
+        byte[] body = "name=\u676d\u5dde&city=%E6%9D%AD%E5%B7%9E&bad=%E6%9".getBytes("UTF-8");
+        FormReader reader = new FormReader(new ByteArrayInputStream(body), null, null, true, 1024);
+        Assert.assertEquals("\u676d\u5dde", reader.getValue("name"));
+        Assert.assertEquals("\u676d\u5dde", reader.getValue("city"));
+        Assert.assertNull(reader.getValue("bad"));
+
+        body = "name=\u676d\u5dde+1&city=%BA%BC%D6%DD".getBytes("GBK");
+        reader = new FormReader(new ByteArrayInputStream(body), "GBK", null, true, 1024);
+        Assert.assertEquals("\u676d\u5dde 1", reader.getValue("name"));
+        Assert.assertEquals("\u676d\u5dde", reader.getValue("city"));
+    }
+
+    public void test_form_param() throws Exception {
+        MockHttpServletRequest request = createRequest("/signup", "name=webx&age=20&bio=long");
+        Assert.assertEquals("webx:20", post(request).getContentAsString());
+        Assert.assertEquals("webx:18", post(createRequest("/signup", "name=webx")).getContentAsString());
+    }
+
+    public void test_context_request() throws Exception {
+        // the method reads the request parameters itself, the body is left to the container
+        MockHttpServletRequest request = createRequest("/signup/referred", "name=body&referrer=ali");
+        request.addParameter("name", "webx");
+        request.addParameter("referrer", "ali");
+        Assert.assertEquals("webx:ali", post(request).getContentAsString());
+
+        // the body was already read by the container, such as for a filter calling getParameter
+        request = createRequest("/signup", "");
+        request.addParameter("name", "webx");
+        request.addParameter("age", "20");
+        Assert.assertEquals("webx:20", post(request).getContentAsString());
+    }
+
+    private MockHttpServletRequest createRequest(String path, String body) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext);
+        request.setMethod("POST");
+        request.setServletPath("/rest");
+        request.setContextPath("/study");
+        request.setRequestURI("/study/rest" + path);
+        request.setContentType("application/x-www-form-urlencoded");
+        request.setContent(body.getBytes("UTF-8"));
+        return request;
+    }
+
+    private MockHttpServletResponse post(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    /**
+     * Returns one byte per read, counting the bytes read.
+     */
+    private static class CountingInputStream extends InputStream {
+
+        private final InputStream in;
+        private int               count;
+
+        CountingInputStream(String body) throws IOException{
+            this.in = new ByteArrayInputStream(body.getBytes("UTF-8"));
+        }
+
+        @Override
+        public int read() throws IOException {
+            int c = in.read();
+            if (c != -1) {
+                count++;
+            }
+            return c;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int c = read();
+            if (c == -1) {
+                return -1;
+            }
+            b[off] = (byte) c;
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.alibaba.webx.restful.bvt;
+
+import junit.framework.Assert;
+
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.alibaba.webx.restful.examples.helloworld.HelloworldTestBase;
+import com.alibaba.webx.restful.process.RestfulRequestContext;
+import com.alibaba.webx.restful.process.impl.ContainerRequestContextImpl;
+import com.alibaba.webx.restful.process.impl.UriInfoImpl;
+
+public class HeaderParamTest extends HelloworldTestBase {
+
+    public void test_header_param() throws Exception {
+        MockHttpServletRequest request = createRequest();
+        request.addHeader("x-request-id", "r1");
+        request.addHeader("If-None-Match", "\"v1\"");
+        request.addHeader("X-Tag", "a");
+        request.addHeader("X-Tag", "b,c");
+        request.addHeader("X-Num", "1");
+        request.addHeader("X-Num", "2");
+
+        Assert.assertEquals("r1:\"v1\":[a, b,c]:[1, 2]", service(request).getContentAsString());
+    }
+
+    public void test_missing() throws Exception {
+        Assert.assertEquals("null:null:[]:[0]", service(createRequest()).getContentAsString());
+    }
+
+    public void test_shared_headers() throws Exception {
+        CountingRequest request = new CountingRequest();
+        request.addHeader("Accept", "text/plain");
+        request.addHeader("X-Other", "x");
+
+        RestfulRequestContext requestContext = new ContainerRequestContextImpl(request, new MockHttpServletResponse(),
+                                                                               new UriInfoImpl(request));
+        Assert.assertEquals("text/plain", requestContext.getHeaderValue(RestfulRequestContext.ACCEPT));
+        Assert.assertEquals("text/plain", requestContext.getHeaderValue("Accept"));
+        Assert.assertNull(requestContext.getHeaderValue(RestfulRequestContext.IF_NONE_MATCH));
+        Assert.assertNull(requestContext.getHeaderValue("If-None-Match"));
+        Assert.assertEquals(2, request.count);
+
+        Assert.assertEquals("x", requestContext.getHeaderValue("x-other"));
+        Assert.assertEquals(3, request.count);
+    }
+
+    private MockHttpServletRequest createRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext);
+        request.setMethod("GET");
+        request.setServletPath("/rest");
+        request.setContextPath("/study");
+        request.setRequestURI("/study/rest/headers");
+        return request;
+    }
+
+    private MockHttpServletResponse service(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static class CountingRequest extends MockHttpServletRequest {
+
+        private int count;
+
+        CountingRequest(){
+            super("GET", "/study/rest/headers");
+            setServletPath("/rest");
+            setContextPath("/study");
+        }
+
+        @Override
+        public String getHeader(String name) {
+            count++;
+            return super.getHeader(name);
+        }
+    }
+}
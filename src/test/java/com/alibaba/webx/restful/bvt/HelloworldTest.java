@@ -17,6 +17,7 @@ public class HelloworldTest extends HelloworldTestBase {
         MockHttpServletRequest request = new MockHttpServletRequest(servletContext);
         MockHttpServletResponse response = new MockHttpServletResponse();
 
+        request.setMethod("GET");
         request.setServletPath("/rest");
         request.setContextPath("/study");
         request.setRequestURI("/study/rest/helloworld/now");
@@ -0,0 +1,205 @@
+package com.alibaba.webx.restful.bvt;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import com.alibaba.webx.restful.examples.helloworld.OrdersResource;
+import com.alibaba.webx.restful.model.invoke.InstanceFactory;
+import com.alibaba.webx.restful.model.invoke.InvokerGenerator;
+import com.alibaba.webx.restful.model.invoke.MethodInvoker;
+
+public class InvokerGeneratorTest extends TestCase {
+
+    public void test_generated() throws Exception {
+        MethodInvoker invoker = createInvoker(Calculator.class, "add", int.class, long.class);
+        Assert.assertTrue(InvokerGenerator.isGenerated(invoker));
+        Assert.assertEquals(Long.valueOf(3), invoker.invoke(new Calculator(), new Object[] { 1, 2L }));
+        Assert.assertEquals(Long.valueOf(3), invoker.invoke(new Calculator(), new Object[] { (short) 1, 2 }));
+
+        invoker = createInvoker(Calculator.class, "concat", String.class, String[].class);
+        Assert.assertTrue(InvokerGenerator.isGenerated(invoker));
+        Assert.assertEquals("a:b,c", invoker.invoke(new Calculator(), new Object[] { "a", new String[] { "b", "c" } }));
+
+        invoker = createInvoker(Calculator.class, "negate", boolean.class);
+        Assert.assertEquals(Boolean.FALSE, invoker.invoke(null, new Object[] { true }));
+
+        Calculator calculator = new Calculator();
+        invoker = createInvoker(Calculator.class, "reset");
+        Assert.assertNull(invoker.invoke(calculator, new Object[0]));
+        Assert.assertTrue(calculator.reset);
+    }
+
+    public void test_exception() throws Exception {
+        MethodInvoker generated = createInvoker(Calculator.class, "fail");
+        MethodInvoker reflective = createInvoker(Hidden.class, "fail");
+        Assert.assertTrue(InvokerGenerator.isGenerated(generated));
+        Assert.assertFalse(InvokerGenerator.isGenerated(reflective));
+
+        try {
+            generated.invoke(new Calculator(), new Object[0]);
+            Assert.fail();
+        } catch (IOException e) {
+            Assert.assertEquals("fail", e.getMessage());
+        }
+
+        try {
+            reflective.invoke(new Hidden(), new Object[0]);
+            Assert.fail();
+        } catch (IOException e) {
+            Assert.assertEquals("hidden", e.getMessage());
+        }
+    }
+
+    public void test_argument_mismatch() throws Exception {
+        Method add = Calculator.class.getMethod("add", int.class, long.class);
+        Method concat = Calculator.class.getMethod("concat", String.class, String[].class);
+        MethodInvoker generated = InvokerGenerator.createMethodInvoker(add);
+        Assert.assertTrue(InvokerGenerator.isGenerated(generated));
+        Assert.assertEquals(Long.valueOf(99), generated.invoke(new Calculator(), new Object[] { 'a', 2 }));
+
+        Object[][] mismatches = { { 1L, 2L }, { 1.5d, 2L }, { null, 2L }, { 1, "2" }, { 1, 2.5f } };
+        for (Object[] args : mismatches) {
+            assertMismatch(add, generated, args);
+        }
+
+        assertIllegal(add, generated, new Object[] { 1 }, "wrong number of arguments");
+        assertIllegal(add, generated, new Object[] { 1, 2L, 3L }, "wrong number of arguments");
+        assertIllegal(add, generated, null, "wrong number of arguments");
+
+        generated = InvokerGenerator.createMethodInvoker(concat);
+        assertMismatch(concat, generated, new Object[] { 1, new String[0] });
+        assertMismatch(concat, generated, new Object[] { "a", new Object[0] });
+
+        Method[] setters = new Method[] { Account.class.getMethod("setBalance", long.class),
+                Account.class.getMethod("setOwner", String.class) };
+        InstanceFactory factory = InvokerGenerator.createInstanceFactory(Account.class.getConstructor(String.class),
+                                                                         setters);
+        Assert.assertNull(((Account) factory.newInstance(new Object[] { "a1", 1, null })).owner);
+        try {
+            factory.newInstance(new Object[] { "a1", 1 });
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            // a missing setter argument
+        }
+        try {
+            factory.newInstance(new Object[] { "a1", null, "ljw" });
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            // a null primitive
+        }
+    }
+
+    private static void assertMismatch(Method method, MethodInvoker generated, Object[] args) throws Exception {
+        assertIllegal(method, generated, args, "argument type mismatch");
+    }
+
+    private static void assertIllegal(Method method, MethodInvoker generated, Object[] args,
+                                      String message) throws Exception {
+        try {
+            method.invoke(new Calculator(), args);
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            // the reflective behavior
+        }
+
+        try {
+            generated.invoke(new Calculator(), args);
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().startsWith(message));
+        }
+    }
+
+    public void test_resource_method() throws Exception {
+        for (Method method : OrdersResource.class.getMethods()) {
+            if (method.getDeclaringClass() == OrdersResource.class) {
+                MethodInvoker invoker = InvokerGenerator.createMethodInvoker(method);
+                Assert.assertTrue(method.getName(), InvokerGenerator.isGenerated(invoker));
+            }
+        }
+    }
+
+    public void test_instance_factory() throws Exception {
+        Method[] setters = new Method[] { Account.class.getMethod("setBalance", long.class),
+                Account.class.getMethod("setOwner", String.class) };
+        InstanceFactory factory = InvokerGenerator.createInstanceFactory(Account.class.getConstructor(String.class),
+                                                                         setters);
+        Assert.assertTrue(InvokerGenerator.isGenerated(factory));
+
+        Account account = (Account) factory.newInstance(new Object[] { "a1", 100, "ljw" });
+        Assert.assertEquals("a1", account.id);
+        Assert.assertEquals(100L, account.balance);
+        Assert.assertEquals("ljw", account.owner);
+
+        factory = InvokerGenerator.createInstanceFactory(Hidden.class.getDeclaredConstructor(), new Method[0]);
+        Assert.assertFalse(InvokerGenerator.isGenerated(factory));
+        Assert.assertTrue(factory.newInstance(new Object[0]) instanceof Hidden);
+    }
+
+    private static MethodInvoker createInvoker(Class<?> clazz, String name,
+                                               Class<?>... parameterTypes) throws Exception {
+        return InvokerGenerator.createMethodInvoker(clazz.getMethod(name, parameterTypes));
+    }
+
+    public static class Calculator {
+
+        private boolean reset;
+
+        public long add(int a, long b) {
+            return a + b;
+        }
+
+        public String concat(String prefix, String[] items) {
+            StringBuilder buf = new StringBuilder(prefix).append(':');
+            for (int i = 0; i < items.length; ++i) {
+                if (i != 0) {
+                    buf.append(',');
+                }
+                buf.append(items[i]);
+            }
+            return buf.toString();
+        }
+
+        public static boolean negate(boolean value) {
+            return !value;
+        }
+
+        public void reset() {
+            reset = true;
+        }
+
+        public void fail() throws IOException {
+            throw new IOException("fail");
+        }
+    }
+
+    public static class Account {
+
+        private final String id;
+        private long         balance;
+        private String       owner;
+
+        public Account(String id){
+            this.id = id;
+        }
+
+        public void setBalance(long balance) {
+            this.balance = balance;
+        }
+
+        public Account setOwner(String owner) {
+            this.owner = owner;
+            return this;
+        }
+    }
+
+    static class Hidden {
+
+        public void fail() throws IOException {
+            throw new IOException("hidden");
+        }
+    }
+}
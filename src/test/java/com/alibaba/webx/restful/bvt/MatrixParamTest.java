@@ -0,0 +1,44 @@
+package com.alibaba.webx.restful.bvt;
+
+import junit.framework.Assert;
+
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.alibaba.webx.restful.examples.helloworld.HelloworldTestBase;
+
+public class MatrixParamTest extends HelloworldTestBase {
+
+    public void test_matrix() throws Exception {
+        Assert.assertEquals("shoes:red:3", get("/products/shoes/list;color=red;size=3").getContentAsString());
+        Assert.assertEquals("shoes:dark red:10", get("/products/shoes/list;color=dark%20red").getContentAsString());
+        Assert.assertEquals("shoes:null:10", get("/products/shoes/list").getContentAsString());
+        Assert.assertEquals("shoes:null:10", get("/products/shoes/list;").getContentAsString());
+    }
+
+    public void test_first_value() throws Exception {
+        Assert.assertEquals("shoes:red:3", get("/products/shoes/list;color=red;size=3;color=blue").getContentAsString());
+        // an empty value is bound to the default value
+        Assert.assertEquals("shoes:null:10", get("/products/shoes/list;=x;color;sizes=3").getContentAsString());
+        Assert.assertEquals("shoes:red:10", get("/products/shoes/list;%63olor=red").getContentAsString());
+    }
+
+    public void test_segment() throws Exception {
+        // only the last segment binds matrix parameters, the others are not part of the path variables
+        Assert.assertEquals("shoes:null:10", get("/products/shoes;color=red/list").getContentAsString());
+        Assert.assertEquals("shoes:blue:10", get("/products;a=1/shoes;color=red/list;color=blue/").getContentAsString());
+    }
+
+    private MockHttpServletResponse get(String path) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext);
+        request.setMethod("GET");
+        request.setServletPath("/rest");
+        request.setContextPath("/study");
+        request.setRequestURI("/study/rest" + path);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,83 @@
+package com.alibaba.webx.restful.bvt;
+
+import junit.framework.Assert;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.alibaba.webx.restful.Constants;
+import com.alibaba.webx.restful.examples.helloworld.HelloworldTestBase;
+import com.alibaba.webx.restful.model.ApplicationImpl;
+import com.alibaba.webx.restful.model.route.PartitionedRouter;
+import com.alibaba.webx.restful.process.ApplicationHandler;
+import com.alibaba.webx.restful.process.impl.UriInfoImpl;
+
+public class PartitionedRoutingTest extends HelloworldTestBase {
+
+    public void test_partitions() throws Exception {
+        PartitionedRouter routers = component.getHandler().getPartitionedRouter();
+
+        // hosts: other, tenant.example.com; versions: none, v1, v2
+        Assert.assertEquals(6, routers.getPartitionCount());
+        Assert.assertEquals(1, routers.getHostIndex("tenant.example.com"));
+        Assert.assertEquals(0, routers.getHostIndex("localhost"));
+        Assert.assertEquals(0, routers.getVersionIndex("v3"));
+
+        Assert.assertNull(routers.getRouter().match("GET", "/accounts/1"));
+        Assert.assertNull(routers.getRouter().match("GET", "/tenant"));
+        Assert.assertNotNull(routers.getRouter().match("GET", "/orders/1"));
+
+        int tenantV2 = routers.getPartition(1, routers.getVersionIndex("v2"));
+        Assert.assertNotNull(routers.getRouter(tenantV2).match("GET", "/tenant"));
+        Assert.assertNotNull(routers.getRouter(tenantV2).match("GET", "/accounts/1"));
+        Assert.assertNotNull(routers.getRouter(tenantV2).match("GET", "/orders/1"));
+    }
+
+    public void test_version_in_path() throws Exception {
+        ApplicationHandler handler = createHandler("path");
+
+        Assert.assertEquals("v1:7", get(handler, "/v1/accounts/7", "localhost", null).getContentAsString());
+        Assert.assertEquals("v2:7", get(handler, "/v2/accounts/7", "localhost", null).getContentAsString());
+        Assert.assertEquals("tenant", get(handler, "/v2/tenant", "TENANT.example.com", null).getContentAsString());
+
+        MockHttpServletRequest request = createRequest("/accounts/7", "localhost", null);
+        Assert.assertNull(handler.createRequestContext(request, new MockHttpServletResponse(),
+                                                       new UriInfoImpl(request)).getRouteMatch());
+    }
+
+    public void test_version_in_header() throws Exception {
+        component.getConfig().setProperty(Constants.VERSION_HEADER, "X-Version");
+        ApplicationHandler handler = createHandler("header");
+
+        Assert.assertEquals("v1:7", get(handler, "/accounts/7", "localhost", "v1").getContentAsString());
+        Assert.assertEquals("v2:7", get(handler, "/accounts/7", "localhost", "v2").getContentAsString());
+    }
+
+    private ApplicationHandler createHandler(String versionDiscriminator) {
+        ApplicationImpl config = component.getConfig();
+        config.setProperty(Constants.VERSION_DISCRIMINATOR, versionDiscriminator);
+        config.setProperty(Constants.MATCH_CACHE_SIZE, "64");
+        return new ApplicationHandler(config, applicationContext);
+    }
+
+    private MockHttpServletRequest createRequest(String path, String host, String version) {
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext);
+        request.setMethod("GET");
+        request.setServerName(host);
+        request.setServletPath("/rest");
+        request.setContextPath("/study");
+        request.setRequestURI("/study/rest" + path);
+        if (version != null) {
+            request.addHeader("X-Version", version);
+        }
+        return request;
+    }
+
+    private MockHttpServletResponse get(ApplicationHandler handler, String path, String host, String version)
+                                                                                                           throws Exception {
+        MockHttpServletRequest request = createRequest(path, host, version);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        handler.service(request, response, new UriInfoImpl(request));
+        return response;
+    }
+}
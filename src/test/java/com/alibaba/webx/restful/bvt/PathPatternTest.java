@@ -4,11 +4,13 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.MatchResult;
 
 import junit.framework.Assert;
 import junit.framework.TestCase;
 
 import com.alibaba.webx.restful.model.uri.PathPattern;
+import com.alibaba.webx.restful.model.uri.PatternWithGroups;
 
 
 public class PathPatternTest extends TestCase {
@@ -32,4 +34,45 @@ public class PathPatternTest extends TestCase {
         Assert.assertEquals("234", map.get("id"));
         Assert.assertEquals("ljw", map.get("name"));
     }
+
+    public void test_template_matcher() throws Exception {
+        String[] templates = { "/orders/{id}/{name}", "/files/{name}.{ext}", "/a/{x}{y}", "{a}/b/", "/", "items/{id}-{rev}",
+                "/orders/{id}/items/{id}" };
+        String[] paths = { "", "/", "/orders/1/ljw", "/orders/1/ljw/", "/orders/1/ljw/x", "/orders//ljw", "/files/a.b.c",
+                "/files/a.", "/a/xy", "/a/x", "/a/xyz/", "/q/b", "/q/b/", "/q/b//", "/items/1-2-3", "/items/-1",
+                "/orders/1/items/1", "/orders/1/items/2", "/q/b/x\ny" };
+
+        for (String template : templates) {
+            for (PathPattern.RightHandPath rhpp : PathPattern.RightHandPath.values()) {
+                PathPattern pattern = new PathPattern(template, rhpp);
+                PatternWithGroups regex = new PatternWithGroups(pattern.getRegex(), pattern.getGroupIndexes());
+
+                for (String path : paths) {
+                    String message = template + " " + rhpp + " " + path;
+
+                    MatchResult expected = regex.match(path);
+                    MatchResult actual = pattern.match(path);
+                    if (expected == null) {
+                        Assert.assertNull(message, actual);
+                        continue;
+                    }
+
+                    Assert.assertNotNull(message, actual);
+                    Assert.assertEquals(message, expected.groupCount(), actual.groupCount());
+                    for (int i = 0; i <= expected.groupCount(); ++i) {
+                        Assert.assertEquals(message, expected.group(i), actual.group(i));
+                        Assert.assertEquals(message, expected.start(i), actual.start(i));
+                        Assert.assertEquals(message, expected.end(i), actual.end(i));
+                    }
+
+                    Map<String, String> expectedValues = new HashMap<String, String>();
+                    Map<String, String> actualValues = new HashMap<String, String>();
+                    List<String> names = pattern.getTemplate().getTemplateVariables();
+                    Assert.assertEquals(message, regex.match(path, names, expectedValues),
+                                        pattern.match(path, names, actualValues));
+                    Assert.assertEquals(message, expectedValues, actualValues);
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,70 @@
+package com.alibaba.webx.restful.bvt;
+
+import junit.framework.Assert;
+
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.alibaba.webx.restful.examples.helloworld.HelloWorldService;
+import com.alibaba.webx.restful.examples.helloworld.HelloworldTestBase;
+import com.alibaba.webx.restful.examples.helloworld.ItemsResource;
+import com.alibaba.webx.restful.model.Resource;
+import com.alibaba.webx.restful.model.ResourceConfigException;
+import com.alibaba.webx.restful.model.route.Router;
+import com.alibaba.webx.restful.process.ApplicationHandler;
+
+public class ResourceRegistrationTest extends HelloworldTestBase {
+
+    public void test_remove_and_add() throws Exception {
+        ApplicationHandler handler = component.getHandler();
+        Assert.assertEquals("id:123", get("/items/123").getContentAsString());
+
+        Resource items = findResource(ItemsResource.class.getName());
+        Router router = handler.getRouter();
+
+        Assert.assertTrue(handler.removeResource(items));
+        Assert.assertFalse(handler.removeResource(items));
+        Assert.assertNotSame(router, handler.getRouter());
+        Assert.assertFalse(component.getConfig().getResources().contains(items));
+        Assert.assertNull(handler.getRouter().match("GET", "/items/123"));
+        Assert.assertEquals("GET, HEAD, OPTIONS", handler.getRouter().match("POST", "/orders/123").getAllow());
+
+        Resource added = handler.addResource(ItemsResource.class, null);
+        Assert.assertTrue(component.getConfig().getResources().contains(added));
+        Assert.assertEquals("id:123", get("/items/123").getContentAsString());
+        Assert.assertEquals("new", get("/items/new").getContentAsString());
+    }
+
+    public void test_add_not_resource() throws Exception {
+        Router router = component.getHandler().getRouter();
+        try {
+            component.getHandler().addResource(HelloWorldService.class, null);
+            Assert.fail();
+        } catch (ResourceConfigException e) {
+            // expected
+        }
+        Assert.assertSame(router, component.getHandler().getRouter());
+    }
+
+    private Resource findResource(String name) {
+        for (Resource resource : component.getConfig().getResources()) {
+            if (name.equals(resource.getName())) {
+                return resource;
+            }
+        }
+        throw new IllegalStateException("resource not found : " + name);
+    }
+
+    private MockHttpServletResponse get(String path) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext);
+        request.setMethod("GET");
+        request.setServletPath("/rest");
+        request.setContextPath("/study");
+        request.setRequestURI("/study/rest" + path);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
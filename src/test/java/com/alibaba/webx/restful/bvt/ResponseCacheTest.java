@@ -0,0 +1,120 @@
+package com.alibaba.webx.restful.bvt;
+
+import junit.framework.Assert;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.alibaba.webx.restful.Constants;
+import com.alibaba.webx.restful.examples.helloworld.HelloworldTestBase;
+import com.alibaba.webx.restful.examples.helloworld.QuotesResource;
+import com.alibaba.webx.restful.model.ApplicationImpl;
+import com.alibaba.webx.restful.process.ApplicationHandler;
+import com.alibaba.webx.restful.process.ResponseCache;
+import com.alibaba.webx.restful.process.impl.UriInfoImpl;
+
+public class ResponseCacheTest extends HelloworldTestBase {
+
+    public void test_cache() throws Exception {
+        ApplicationHandler handler = component.getHandler();
+        ResponseCache cache = handler.getResponseCache();
+        QuotesResource.invocations.set(0);
+
+        MockHttpServletResponse response = get(handler, "/quotes/a");
+        Assert.assertEquals("a:1", response.getContentAsString());
+
+        response = get(handler, "/quotes/a");
+        Assert.assertEquals("a:1", response.getContentAsString());
+        Assert.assertEquals("text/plain", response.getContentType());
+        Assert.assertEquals(3, response.getContentLength());
+        Assert.assertEquals(1, cache.getHitCount());
+
+        Assert.assertEquals("b:2", get(handler, "/quotes/b").getContentAsString());
+
+        cache.invalidate(handler.getRouter().match("GET", "/quotes/a").getRoute().getResourceMethod(),
+                         new Object[] { "a" });
+        Assert.assertEquals("a:3", get(handler, "/quotes/a").getContentAsString());
+        Assert.assertEquals("b:2", get(handler, "/quotes/b").getContentAsString());
+
+        cache.clear();
+        Assert.assertEquals("b:4", get(handler, "/quotes/b").getContentAsString());
+    }
+
+    public void test_headers() throws Exception {
+        ApplicationHandler handler = component.getHandler();
+        QuotesResource.invocations.set(0);
+
+        MockHttpServletResponse miss = get(handler, "/quotes/dated/a");
+        MockHttpServletResponse hit = get(handler, "/quotes/dated/a");
+        Assert.assertEquals(1, QuotesResource.invocations.get());
+
+        Assert.assertEquals("a:1", miss.getContentAsString());
+        Assert.assertEquals("a:1", miss.getHeader("X-Quote"));
+        Assert.assertEquals("Thu, 01 Jan 1970 00:00:00 GMT", miss.getHeader("Last-Modified"));
+        Assert.assertEquals("text/plain", miss.getContentType());
+
+        Assert.assertEquals(miss.getContentAsString(), hit.getContentAsString());
+        Assert.assertEquals(miss.getContentType(), hit.getContentType());
+        Assert.assertEquals(miss.getHeaderNames(), hit.getHeaderNames());
+        for (Object name : miss.getHeaderNames()) {
+            Assert.assertEquals(miss.getHeaders((String) name), hit.getHeaders((String) name));
+        }
+    }
+
+    public void test_expire() throws Exception {
+        ApplicationHandler handler = component.getHandler();
+        QuotesResource.invocations.set(0);
+
+        Assert.assertEquals("x:1", get(handler, "/quotes/live/x").getContentAsString());
+        Assert.assertEquals("x:1", get(handler, "/quotes/live/x").getContentAsString());
+
+        Thread.sleep(40);
+        Assert.assertEquals("x:2", get(handler, "/quotes/live/x").getContentAsString());
+    }
+
+    public void test_bounded() throws Exception {
+        ApplicationImpl config = component.getConfig();
+        config.setProperty(Constants.RESPONSE_CACHE_SIZE, "2");
+        ApplicationHandler handler = new ApplicationHandler(config, applicationContext);
+        QuotesResource.invocations.set(0);
+
+        for (int i = 0; i < 10; ++i) {
+            get(handler, "/quotes/" + i);
+        }
+        Assert.assertEquals(2, handler.getResponseCache().getMaxSize());
+        Assert.assertTrue(handler.getResponseCache().getSize() <= 2);
+        Assert.assertEquals("0:11", get(handler, "/quotes/0").getContentAsString());
+    }
+
+    public void test_small_max_size() throws Exception {
+        ApplicationImpl config = component.getConfig();
+        for (int maxSize = 1; maxSize <= 5; ++maxSize) {
+            config.setProperty(Constants.RESPONSE_CACHE_SIZE, Integer.toString(maxSize));
+            ApplicationHandler handler = new ApplicationHandler(config, applicationContext);
+            for (int i = 0; i < 20; ++i) {
+                get(handler, "/quotes/" + i);
+                get(handler, "/quotes/" + (i / 2));
+            }
+            Assert.assertTrue(handler.getResponseCache().getSize() <= maxSize);
+        }
+
+        config.setProperty(Constants.RESPONSE_CACHE_SIZE, "1");
+        ApplicationHandler handler = new ApplicationHandler(config, applicationContext);
+        QuotesResource.invocations.set(0);
+        Assert.assertEquals("a:1", get(handler, "/quotes/a").getContentAsString());
+        Assert.assertEquals("a:1", get(handler, "/quotes/a").getContentAsString());
+        Assert.assertEquals(1, handler.getResponseCache().getSize());
+    }
+
+    private MockHttpServletResponse get(ApplicationHandler handler, String path) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext);
+        request.setMethod("GET");
+        request.setServletPath("/rest");
+        request.setContextPath("/study");
+        request.setRequestURI("/study/rest" + path);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        handler.service(request, response, new UriInfoImpl(request));
+        return response;
+    }
+}
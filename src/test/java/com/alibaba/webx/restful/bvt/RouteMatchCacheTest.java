@@ -0,0 +1,54 @@
+package com.alibaba.webx.restful.bvt;
+
+import junit.framework.Assert;
+
+import com.alibaba.webx.restful.examples.helloworld.HelloworldTestBase;
+import com.alibaba.webx.restful.model.route.RouteMatch;
+import com.alibaba.webx.restful.model.route.Router;
+import com.alibaba.webx.restful.process.RouteMatchCache;
+
+public class RouteMatchCacheTest extends HelloworldTestBase {
+
+    public void test_flood() throws Exception {
+        Router router = component.getHandler().getRouter();
+        RouteMatchCache cache = new RouteMatchCache(100);
+
+        RouteMatch hot = router.match("GET", "/helloworld/now");
+        cache.put("GET", "/helloworld/now", hot);
+        Assert.assertSame(hot, cache.get("GET", "/helloworld/now"));
+        Assert.assertSame(hot, cache.get("GET", "/helloworld/now"));
+        Assert.assertNull(cache.get("POST", "/helloworld/now"));
+
+        for (int i = 0; i < 1000; ++i) {
+            String path = "/orders/" + i;
+            Assert.assertNull(cache.get("GET", path));
+            cache.put("GET", path, router.match("GET", path));
+        }
+
+        Assert.assertSame(hot, cache.get("GET", "/helloworld/now"));
+        Assert.assertTrue(cache.getSize() <= cache.getMaxSize());
+        Assert.assertEquals(3, cache.getHitCount());
+        Assert.assertEquals(1001, cache.getMissCount());
+    }
+
+    public void test_small_max_size() throws Exception {
+        Router router = component.getHandler().getRouter();
+        for (int maxSize = 1; maxSize <= 40; ++maxSize) {
+            RouteMatchCache cache = new RouteMatchCache(maxSize);
+            for (int i = 0; i < 200; ++i) {
+                String path = "/orders/" + i;
+                cache.put("GET", path, router.match("GET", path));
+                cache.get("GET", path);
+                cache.get("GET", "/orders/" + (i / 2));
+            }
+            Assert.assertTrue(cache.getSize() <= maxSize);
+        }
+
+        RouteMatchCache cache = new RouteMatchCache(1);
+        RouteMatch match = router.match("GET", "/orders/1");
+        cache.put("GET", "/orders/1", match);
+        Assert.assertSame(match, cache.get("GET", "/orders/1"));
+        Assert.assertSame(match, cache.get("GET", "/orders/1"));
+        Assert.assertEquals(1, cache.getSize());
+    }
+}
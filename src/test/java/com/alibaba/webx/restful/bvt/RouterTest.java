@@ -0,0 +1,88 @@
+package com.alibaba.webx.restful.bvt;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.servlet.http.HttpServletResponse;
+
+import junit.framework.Assert;
+
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.alibaba.webx.restful.examples.helloworld.HelloworldTestBase;
+import com.alibaba.webx.restful.model.Resource;
+import com.alibaba.webx.restful.model.route.RouteMatch;
+import com.alibaba.webx.restful.model.route.Router;
+
+public class RouterTest extends HelloworldTestBase {
+
+    public void test_match() throws Exception {
+        Router router = component.getHandler().getRouter();
+
+        RouteMatch match = router.match("GET", "/orders/123");
+        Assert.assertEquals("getOrder", match.getRoute().getResourceMethod().getResourceMethod().getName());
+        Assert.assertEquals(1, match.getVariableCount());
+        Assert.assertEquals("123", match.getVariableValue(0));
+
+        match = router.match("GET", "/orders/123/ljw/");
+        Assert.assertEquals("findOrder", match.getRoute().getResourceMethod().getResourceMethod().getName());
+        Assert.assertEquals("/orders/{id}/{name}", match.getRoute().getTemplate());
+        Assert.assertEquals("123", match.getVariableValue(0));
+        Assert.assertEquals("ljw", match.getVariableValue(1));
+
+        match = router.match("GET", "/helloworld");
+        Assert.assertEquals("getHello", match.getRoute().getResourceMethod().getResourceMethod().getName());
+
+        match = router.match("GET", "/helloworld/now");
+        Assert.assertEquals("now", match.getRoute().getResourceMethod().getResourceMethod().getName());
+
+        Assert.assertNull(router.match("GET", "/helloworld/now/later"));
+        Assert.assertNull(router.match("GET", "/orders"));
+        Assert.assertNull(router.match("GET", "/unknown"));
+    }
+
+    public void test_method_not_allowed() throws Exception {
+        Router router = component.getHandler().getRouter();
+
+        RouteMatch match = router.match("POST", "/orders/123");
+        Assert.assertNull(match.getRoute());
+        Assert.assertEquals("GET, HEAD, OPTIONS", match.getAllow());
+
+        match = router.match("HEAD", "/orders/123");
+        Assert.assertEquals("getOrder", match.getRoute().getResourceMethod().getResourceMethod().getName());
+
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        request.setMethod("DELETE");
+        request.setServletPath("/rest");
+        request.setContextPath("/study");
+        request.setRequestURI("/study/rest/orders/123");
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        Assert.assertEquals(HttpServletResponse.SC_METHOD_NOT_ALLOWED, response.getStatus());
+        Assert.assertEquals("GET, HEAD, OPTIONS", response.getHeader("Allow"));
+    }
+
+    public void test_specificity() throws Exception {
+        List<Resource> resources = new ArrayList<Resource>(component.getConfig().getResources());
+
+        Router router = new Router(resources);
+        Collections.reverse(resources);
+        Router reversed = new Router(resources);
+
+        for (Router item : new Router[] { router, reversed }) {
+            Assert.assertEquals("newItem", getMethodName(item.match("GET", "/items/new")));
+            Assert.assertEquals("getItemById", getMethodName(item.match("GET", "/items/123")));
+            Assert.assertEquals("getItemByName", getMethodName(item.match("GET", "/items/abc")));
+        }
+    }
+
+    private static String getMethodName(RouteMatch match) {
+        return match.getRoute().getResourceMethod().getResourceMethod().getName();
+    }
+}
@@ -0,0 +1,150 @@
+package com.alibaba.webx.restful.bvt;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Assert;
+
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.alibaba.webx.restful.examples.helloworld.HelloworldTestBase;
+import com.alibaba.webx.restful.examples.helloworld.PricesResource;
+import com.alibaba.webx.restful.process.ProcessException;
+import com.alibaba.webx.restful.process.impl.BufferedHttpServletResponse;
+
+public class SingleFlightTest extends HelloworldTestBase {
+
+    public void test_coalesce() throws Exception {
+        PricesResource.invocations.set(0);
+        PricesResource.entered = new CountDownLatch(1);
+        PricesResource.release = new CountDownLatch(1);
+
+        Getter leader = new Getter("/prices/ali", "usd");
+        leader.start();
+        Assert.assertTrue(PricesResource.entered.await(5, TimeUnit.SECONDS));
+
+        Getter[] followers = new Getter[3];
+        for (int i = 0; i < followers.length; ++i) {
+            followers[i] = new Getter("/prices/ali", "usd");
+            followers[i].start();
+        }
+        Thread.sleep(100);
+
+        PricesResource.release.countDown();
+        leader.join(5000);
+        Assert.assertNull(leader.error);
+        for (Getter follower : followers) {
+            follower.join(5000);
+            Assert.assertNull(follower.error);
+            Assert.assertEquals("ali:usd:1", follower.response.getContentAsString());
+            Assert.assertEquals("text/plain", follower.response.getContentType());
+        }
+        Assert.assertEquals("ali:usd:1", leader.response.getContentAsString());
+        Assert.assertEquals(1, PricesResource.invocations.get());
+
+        // not cached once written, and keyed by the arguments
+        Assert.assertEquals("ali:usd:2", get("/prices/ali", "usd").getContentAsString());
+        Assert.assertEquals("ali:cny:3", get("/prices/ali", "cny").getContentAsString());
+    }
+
+    public void test_leader_error() throws Exception {
+        PricesResource.entered = new CountDownLatch(1);
+        PricesResource.release = new CountDownLatch(1);
+
+        Getter leader = new Getter("/prices/error", "usd");
+        leader.start();
+        Assert.assertTrue(PricesResource.entered.await(5, TimeUnit.SECONDS));
+
+        Getter[] followers = new Getter[3];
+        for (int i = 0; i < followers.length; ++i) {
+            followers[i] = new Getter("/prices/error", "usd");
+            followers[i].start();
+        }
+        Thread.sleep(100);
+
+        PricesResource.release.countDown();
+        leader.join(5000);
+        Assert.assertTrue(leader.error instanceof Error);
+        for (Getter follower : followers) {
+            follower.join(5000);
+            Assert.assertFalse(follower.isAlive());
+            Assert.assertTrue(follower.error instanceof ProcessException);
+            Assert.assertSame(leader.error, follower.error.getCause());
+        }
+    }
+
+    public void test_buffered_response() throws Exception {
+        MockHttpServletResponse leaderResponse = new MockHttpServletResponse();
+        BufferedHttpServletResponse buffered = new BufferedHttpServletResponse(leaderResponse);
+        buffered.setContentType("text/plain; charset=UTF-8");
+        buffered.setDateHeader("Last-Modified", 0L);
+        buffered.setIntHeader("X-Count", 1);
+        buffered.setIntHeader("X-Count", 2);
+        buffered.setContentLength(100);
+        buffered.getWriter().print("\u4e2d");
+        buffered.flushBuffer();
+
+        Assert.assertTrue(buffered.containsHeader("x-count"));
+        Assert.assertFalse(leaderResponse.containsHeader("X-Count"));
+        Assert.assertEquals(3, buffered.getBody().length);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        buffered.writeTo(response);
+        Assert.assertEquals("Thu, 01 Jan 1970 00:00:00 GMT", response.getHeader("Last-Modified"));
+        Assert.assertEquals("2", response.getHeader("X-Count"));
+        Assert.assertEquals(1, response.getHeaders("X-Count").size());
+        Assert.assertEquals("UTF-8", response.getCharacterEncoding());
+        Assert.assertEquals(3, response.getContentLength());
+        Assert.assertEquals("\u4e2d", response.getContentAsString());
+
+        buffered = new BufferedHttpServletResponse(leaderResponse);
+        buffered.sendError(404, "no quote");
+        Assert.assertTrue(buffered.isCommitted());
+        Assert.assertEquals(200, leaderResponse.getStatus());
+
+        response = new MockHttpServletResponse();
+        buffered.writeTo(response);
+        Assert.assertEquals(404, response.getStatus());
+        Assert.assertEquals("no quote", response.getErrorMessage());
+    }
+
+    private MockHttpServletResponse get(String path, String currency) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext);
+        request.setMethod("GET");
+        request.setServletPath("/rest");
+        request.setContextPath("/study");
+        request.setRequestURI("/study/rest" + path);
+        request.setQueryString("currency=" + currency);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private class Getter extends Thread {
+
+        private final String            path;
+        private final String            currency;
+        private MockHttpServletResponse response;
+
+        /**
+         * The exception thrown by the request, asserted by the test thread once joined.
+         */
+        private Throwable               error;
+
+        Getter(String path, String currency){
+            this.path = path;
+            this.currency = currency;
+        }
+
+        public void run() {
+            try {
+                response = get(path, currency);
+            } catch (Throwable e) {
+                error = e;
+            }
+        }
+    }
+}
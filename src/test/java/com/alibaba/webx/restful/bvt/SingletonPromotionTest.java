@@ -0,0 +1,72 @@
+package com.alibaba.webx.restful.bvt;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.alibaba.webx.restful.examples.helloworld.GreetingResource;
+import com.alibaba.webx.restful.examples.helloworld.HelloWorldResource;
+import com.alibaba.webx.restful.examples.helloworld.HelloworldTestBase;
+import com.alibaba.webx.restful.examples.helloworld.ItemsResource;
+import com.alibaba.webx.restful.examples.helloworld.OrdersResource;
+import com.alibaba.webx.restful.examples.helloworld.TagsResource;
+import com.alibaba.webx.restful.examples.helloworld.VisitsResource;
+import com.alibaba.webx.restful.model.InstanceConstructor;
+import com.alibaba.webx.restful.model.MultiInstanceConstructor;
+import com.alibaba.webx.restful.model.Resource;
+import com.alibaba.webx.restful.model.ResourceMethod;
+import com.alibaba.webx.restful.model.SingletonInstanceConstructor;
+
+public class SingletonPromotionTest extends HelloworldTestBase {
+
+    public void test_promotion() throws Exception {
+        Assert.assertTrue(getConstructor(GreetingResource.class) instanceof SingletonInstanceConstructor);
+        Assert.assertTrue(getConstructor(ItemsResource.class) instanceof SingletonInstanceConstructor);
+
+        // request-scoped injection
+        Assert.assertTrue(getConstructor(OrdersResource.class) instanceof MultiInstanceConstructor);
+        Assert.assertTrue(getConstructor(HelloWorldResource.class) instanceof MultiInstanceConstructor);
+
+        // mutable state
+        Assert.assertTrue(getConstructor(VisitsResource.class) instanceof MultiInstanceConstructor);
+        Assert.assertEquals("visits:1", get("/visits").getContentAsString());
+        Assert.assertEquals("visits:1", get("/visits").getContentAsString());
+
+        Assert.assertEquals("hello, Date", get("/greeting").getContentAsString());
+    }
+
+    public void test_mutated_field() throws Exception {
+        // the list is never reassigned, but its contents are
+        Assert.assertTrue(getConstructor(TagsResource.class) instanceof MultiInstanceConstructor);
+        Assert.assertEquals("tags:[a]", get("/tags/a").getContentAsString());
+        Assert.assertEquals("tags:[b]", get("/tags/b").getContentAsString());
+    }
+
+    private InstanceConstructor getConstructor(Class<?> clazz) {
+        for (Resource resource : component.getConfig().getResources()) {
+            if (resource.getName().equals(clazz.getName())) {
+                List<ResourceMethod> methods = new ArrayList<ResourceMethod>(resource.getResourceMethods());
+                methods.addAll(resource.getSubResourceMethods());
+                return methods.get(0).getInvocable().getConstructor();
+            }
+        }
+        throw new IllegalStateException("resource not found : " + clazz.getName());
+    }
+
+    private MockHttpServletResponse get(String path) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext);
+        request.setMethod("GET");
+        request.setServletPath("/rest");
+        request.setContextPath("/study");
+        request.setRequestURI("/study/rest" + path);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
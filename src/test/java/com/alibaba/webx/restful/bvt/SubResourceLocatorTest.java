@@ -0,0 +1,51 @@
+package com.alibaba.webx.restful.bvt;
+
+import javax.servlet.http.HttpServletResponse;
+
+import junit.framework.Assert;
+
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.alibaba.webx.restful.examples.helloworld.CustomerOrders;
+import com.alibaba.webx.restful.examples.helloworld.HelloworldTestBase;
+import com.alibaba.webx.restful.model.route.RouteMatch;
+import com.alibaba.webx.restful.process.ApplicationHandler;
+
+public class SubResourceLocatorTest extends HelloworldTestBase {
+
+    public void test_locator() throws Exception {
+        RouteMatch match = component.getHandler().getRouter().match("GET", "/customers/7/orders/9");
+        Assert.assertTrue(match.isLocator());
+        Assert.assertEquals("/customers/7/orders", match.getPath().substring(0, match.getEnd()));
+
+        match = component.getHandler().getRouter().match("GET", "/customers/7");
+        Assert.assertFalse(match.isLocator());
+
+        Assert.assertEquals("customer:7", get("/customers/7").getContentAsString());
+        Assert.assertEquals("orders of 7", get("/customers/7/orders").getContentAsString());
+        Assert.assertEquals("7:9", get("/customers/7/orders/9").getContentAsString());
+        Assert.assertEquals("8:10", get("/customers/8/orders/10/").getContentAsString());
+
+        Assert.assertEquals(HttpServletResponse.SC_NOT_FOUND, get("/customers/7/orders/9/x").getStatus());
+    }
+
+    public void test_router_cached() throws Exception {
+        ApplicationHandler handler = component.getHandler();
+        Assert.assertSame(handler.getSubResourceRouter(CustomerOrders.class),
+                          handler.getSubResourceRouter(CustomerOrders.class));
+    }
+
+    private MockHttpServletResponse get(String path) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext);
+        request.setMethod("GET");
+        request.setServletPath("/rest");
+        request.setContextPath("/study");
+        request.setRequestURI("/study/rest" + path);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,20 @@
+package com.alibaba.webx.restful.examples.helloworld;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+
+import com.alibaba.webx.restful.annotation.ApiVersion;
+
+@Path("accounts")
+@ApiVersion("v2")
+public class AccountsV2Resource {
+
+    @GET
+    @Path("{id}")
+    @Produces("text/plain")
+    public String getAccount(@PathParam("id") String id) {
+        return "v2:" + id;
+    }
+}
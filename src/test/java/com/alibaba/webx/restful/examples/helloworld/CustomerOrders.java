@@ -0,0 +1,28 @@
+package com.alibaba.webx.restful.examples.helloworld;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+
+public class CustomerOrders {
+
+    private final String customerId;
+
+    public CustomerOrders(String customerId){
+        this.customerId = customerId;
+    }
+
+    @GET
+    @Produces("text/plain")
+    public String getAll() {
+        return "orders of " + customerId;
+    }
+
+    @GET
+    @Path("{orderId}")
+    @Produces("text/plain")
+    public String getOrder(@PathParam("id") String id, @PathParam("orderId") String orderId) {
+        return id + ":" + orderId;
+    }
+}
@@ -0,0 +1,22 @@
+package com.alibaba.webx.restful.examples.helloworld;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+
+@Path("customers")
+public class CustomersResource {
+
+    @GET
+    @Path("{id}")
+    @Produces("text/plain")
+    public String getCustomer(@PathParam("id") String id) {
+        return "customer:" + id;
+    }
+
+    @Path("{id}/orders")
+    public CustomerOrders getOrders(@PathParam("id") String id) {
+        return new CustomerOrders(id);
+    }
+}
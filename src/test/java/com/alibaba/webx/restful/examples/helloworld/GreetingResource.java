@@ -0,0 +1,28 @@
+package com.alibaba.webx.restful.examples.helloworld;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+@Path("greeting")
+public class GreetingResource {
+
+    private HelloWorldService service;
+
+    public HelloWorldService getService() {
+        return service;
+    }
+
+    @Autowired
+    public void setService(HelloWorldService service) {
+        this.service = service;
+    }
+
+    @GET
+    @Produces("text/plain")
+    public String greet() {
+        return "hello, " + service.now().getClass().getSimpleName();
+    }
+}
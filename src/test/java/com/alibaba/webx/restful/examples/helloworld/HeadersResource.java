@@ -0,0 +1,22 @@
+package com.alibaba.webx.restful.examples.helloworld;
+
+import java.util.Arrays;
+import java.util.List;
+
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+
+@Path("headers")
+public class HeadersResource {
+
+    @GET
+    @Produces("text/plain")
+    public String echo(@HeaderParam("X-Request-Id") String requestId, @HeaderParam("If-None-Match") String etag,
+                       @HeaderParam("x-tag") List<String> tags,
+                       @HeaderParam("X-Num") @DefaultValue("0") int[] nums) {
+        return requestId + ":" + etag + ":" + tags + ":" + Arrays.toString(nums);
+    }
+}
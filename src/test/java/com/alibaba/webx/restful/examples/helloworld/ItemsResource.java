@@ -0,0 +1,31 @@
+package com.alibaba.webx.restful.examples.helloworld;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+
+@Path("items")
+public class ItemsResource {
+
+    @GET
+    @Path("{name}")
+    @Produces("text/plain")
+    public String getItemByName(@PathParam("name") String name) {
+        return "name:" + name;
+    }
+
+    @GET
+    @Path("{id: \\d+}")
+    @Produces("text/plain")
+    public String getItemById(@PathParam("id") long id) {
+        return "id:" + id;
+    }
+
+    @GET
+    @Path("new")
+    @Produces("text/plain")
+    public String newItem() {
+        return "new";
+    }
+}
@@ -0,0 +1,63 @@
+package com.alibaba.webx.restful.examples.helloworld;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.Suspend;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.ExecutionContext;
+
+@Path("jobs")
+public class JobsResource {
+
+    private static final ExecutorService backend = Executors.newCachedThreadPool();
+
+    @GET
+    @Path("future/{id}")
+    @Produces("text/plain")
+    public Future<String> future(@PathParam("id") final String id) {
+        return backend.submit(new Callable<String>() {
+
+            public String call() throws Exception {
+                pause();
+                return "job:" + id;
+            }
+        });
+    }
+
+    @GET
+    @Path("suspended/{id}")
+    @Produces("text/plain")
+    @Suspend(timeOut = 5000)
+    public void suspended(@PathParam("id") final String id, @Context final ExecutionContext context) {
+        backend.execute(new Runnable() {
+
+            public void run() {
+                pause();
+                context.resume("suspended:" + id);
+            }
+        });
+    }
+
+    @GET
+    @Path("timeout")
+    @Produces("text/plain")
+    @Suspend(timeOut = 50)
+    public void timeout(@Context ExecutionContext context) {
+        // never resumed
+    }
+
+    private static void pause() {
+        try {
+            Thread.sleep(10);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.alibaba.webx.restful.examples.helloworld;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+
+import com.alibaba.webx.restful.annotation.SingleFlight;
+
+@Path("prices")
+public class PricesResource {
+
+    public static final AtomicInteger     invocations = new AtomicInteger();
+    public static volatile CountDownLatch entered     = new CountDownLatch(0);
+    public static volatile CountDownLatch release     = new CountDownLatch(0);
+
+    @GET
+    @Path("{symbol}")
+    @Produces("text/plain")
+    @SingleFlight
+    public String price(@PathParam("symbol") String symbol, @QueryParam("currency") String currency)
+                                                                                                   throws InterruptedException {
+        int invocation = invocations.incrementAndGet();
+        entered.countDown();
+        release.await(5, TimeUnit.SECONDS);
+        if (symbol.equals("error")) {
+            throw new Error("no price of " + symbol);
+        }
+        return symbol + ":" + currency + ":" + invocation;
+    }
+}
@@ -0,0 +1,20 @@
+package com.alibaba.webx.restful.examples.helloworld;
+
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
+import javax.ws.rs.MatrixParam;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+
+@Path("products")
+public class ProductsResource {
+
+    @GET
+    @Path("{category}/list")
+    @Produces("text/plain")
+    public String list(@PathParam("category") String category, @MatrixParam("color") String color,
+                       @MatrixParam("size") @DefaultValue("10") int size) {
+        return category + ":" + color + ":" + size;
+    }
+}
@@ -0,0 +1,44 @@
+package com.alibaba.webx.restful.examples.helloworld;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.Response;
+
+import com.alibaba.webx.restful.annotation.CacheResponse;
+
+@Path("quotes")
+public class QuotesResource {
+
+    public static final AtomicInteger invocations = new AtomicInteger();
+
+    @GET
+    @Path("{id}")
+    @Produces("text/plain")
+    @CacheResponse(value = 1, unit = TimeUnit.HOURS)
+    public String quote(@PathParam("id") String id) {
+        return id + ":" + invocations.incrementAndGet();
+    }
+
+    @GET
+    @Path("live/{id}")
+    @Produces("text/plain")
+    @CacheResponse(value = 20, unit = TimeUnit.MILLISECONDS)
+    public String live(@PathParam("id") String id) {
+        return id + ":" + invocations.incrementAndGet();
+    }
+
+    @GET
+    @Path("dated/{id}")
+    @Produces("text/plain")
+    @CacheResponse(value = 1, unit = TimeUnit.HOURS)
+    public Response dated(@PathParam("id") String id) {
+        String quote = id + ":" + invocations.incrementAndGet();
+        return Response.ok(quote).header("X-Quote", quote).header("Last-Modified", new Date(0L)).build();
+    }
+}
@@ -0,0 +1,32 @@
+package com.alibaba.webx.restful.examples.helloworld;
+
+import java.util.Collections;
+import java.util.Map;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+
+@Path("reports")
+public class ReportsResource {
+
+    @GET
+    @Produces("application/json")
+    public Map<String, String> getJson() {
+        return Collections.singletonMap("format", "json");
+    }
+
+    @GET
+    @Produces("text/plain")
+    public String getText() {
+        return "format:text";
+    }
+
+    @POST
+    @Consumes("application/json")
+    public String create() {
+        return "created";
+    }
+}
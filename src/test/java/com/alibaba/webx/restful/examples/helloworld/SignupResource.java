@@ -0,0 +1,26 @@
+package com.alibaba.webx.restful.examples.helloworld;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.FormParam;
+import javax.ws.rs.POST;
+import javax.ws.rs.Produces;
+import javax.ws.rs.Path;
+import javax.ws.rs.core.Context;
+
+@Path("signup")
+public class SignupResource {
+
+    @POST
+    @Produces("text/plain")
+    public String signup(@FormParam("name") String name, @FormParam("age") @DefaultValue("18") int age) {
+        return name + ":" + age;
+    }
+
+    @POST
+    @Path("referred")
+    @Produces("text/plain")
+    public String signupReferred(@FormParam("name") String name, @Context HttpServletRequest request) {
+        return name + ":" + request.getParameter("referrer");
+    }
+}
@@ -0,0 +1,23 @@
+package com.alibaba.webx.restful.examples.helloworld;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+
+@Path("tags")
+public class TagsResource {
+
+    private final List<String> tags = new ArrayList<String>();
+
+    @GET
+    @Path("{tag}")
+    @Produces("text/plain")
+    public String tag(@PathParam("tag") String tag) {
+        tags.add(tag);
+        return "tags:" + tags;
+    }
+}
@@ -0,0 +1,18 @@
+package com.alibaba.webx.restful.examples.helloworld;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+
+import com.alibaba.webx.restful.annotation.VirtualHost;
+
+@Path("tenant")
+@VirtualHost("Tenant.Example.com:8080")
+public class TenantResource {
+
+    @GET
+    @Produces("text/plain")
+    public String getTenant() {
+        return "tenant";
+    }
+}
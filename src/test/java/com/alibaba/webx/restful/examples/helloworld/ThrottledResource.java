@@ -0,0 +1,35 @@
+package com.alibaba.webx.restful.examples.helloworld;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+
+import com.alibaba.webx.restful.annotation.Bulkhead;
+
+@Path("throttled")
+@Bulkhead(value = 1, message = "busy")
+public class ThrottledResource {
+
+    public static volatile CountDownLatch entered = new CountDownLatch(1);
+    public static volatile CountDownLatch release = new CountDownLatch(0);
+
+    @GET
+    @Path("slow")
+    @Produces("text/plain")
+    public String slow() throws InterruptedException {
+        entered.countDown();
+        release.await(5, TimeUnit.SECONDS);
+        return "slow";
+    }
+
+    @GET
+    @Path("fast")
+    @Produces("text/plain")
+    @Bulkhead(value = 1, queue = 1)
+    public String fast() {
+        return "fast";
+    }
+}
@@ -0,0 +1,42 @@
+package com.alibaba.webx.restful.examples.helloworld;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+
+import com.alibaba.webx.restful.annotation.Batched;
+
+@Path("users")
+public class UsersResource {
+
+    public static final AtomicInteger batchCalls = new AtomicInteger();
+
+    @GET
+    @Path("{id}")
+    @Produces("text/plain")
+    @Batched(value = "findUsers", window = 200, maxSize = 4)
+    public String findUser(@PathParam("id") Long id) {
+        return findUsers(Collections.singletonList(id)).get(id);
+    }
+
+    public Map<Long, String> findUsers(List<Long> ids) {
+        return createUsers(ids, batchCalls.incrementAndGet());
+    }
+
+    private static Map<Long, String> createUsers(List<Long> ids, int call) {
+        Map<Long, String> users = new HashMap<Long, String>();
+        for (Long id : ids) {
+            if (id.longValue() != 0) {
+                users.put(id, "user" + id + "@" + call + "/" + ids.size());
+            }
+        }
+        return users;
+    }
+}
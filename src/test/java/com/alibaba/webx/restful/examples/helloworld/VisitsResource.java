@@ -0,0 +1,31 @@
+package com.alibaba.webx.restful.examples.helloworld;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+@Path("visits")
+public class VisitsResource {
+
+    private HelloWorldService service;
+
+    private int               count;
+
+    public HelloWorldService getService() {
+        return service;
+    }
+
+    @Autowired
+    public void setService(HelloWorldService service) {
+        this.service = service;
+    }
+
+    @GET
+    @Produces("text/plain")
+    public String visit() {
+        count++;
+        return "visits:" + count;
+    }
+}
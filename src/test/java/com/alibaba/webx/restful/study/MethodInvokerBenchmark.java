@@ -0,0 +1,60 @@
+package com.alibaba.webx.restful.study;
+
+import java.lang.reflect.Method;
+
+import junit.framework.TestCase;
+
+import com.alibaba.webx.restful.model.invoke.InvokerGenerator;
+import com.alibaba.webx.restful.model.invoke.MethodInvoker;
+
+/**
+ * Compares the cost per call of {@link Method#invoke} with the generated invoker.
+ */
+public class MethodInvokerBenchmark extends TestCase {
+
+    private static final int COUNT = 1000 * 1000 * 10;
+
+    public void test_0() throws Exception {
+        Method method = Target.class.getMethod("getOrder", long.class, String.class);
+        MethodInvoker invoker = InvokerGenerator.createMethodInvoker(method);
+
+        Target target = new Target();
+        Object[] args = new Object[] { 123L, "ljw" };
+
+        for (int i = 0; i < 10; ++i) {
+            long startNanos = System.nanoTime();
+            perfReflect(method, target, args);
+            long reflectNanos = System.nanoTime() - startNanos;
+
+            startNanos = System.nanoTime();
+            perfInvoker(invoker, target, args);
+            long invokerNanos = System.nanoTime() - startNanos;
+
+            System.out.println("reflect " + (reflectNanos / 1000000) + "ms, invoker " + (invokerNanos / 1000000)
+                               + "ms, per " + COUNT + " calls");
+        }
+    }
+
+    private int perfReflect(Method method, Target target, Object[] args) throws Exception {
+        int sum = 0;
+        for (int i = 0; i < COUNT; ++i) {
+            sum += method.invoke(target, args).hashCode();
+        }
+        return sum;
+    }
+
+    private int perfInvoker(MethodInvoker invoker, Target target, Object[] args) throws Exception {
+        int sum = 0;
+        for (int i = 0; i < COUNT; ++i) {
+            sum += invoker.invoke(target, args).hashCode();
+        }
+        return sum;
+    }
+
+    public static class Target {
+
+        public Integer getOrder(long id, String name) {
+            return (int) id + name.length();
+        }
+    }
+}